@@ -0,0 +1,84 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.config.ValidatorConfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Configurations of the validators measured by the benchmarks.
+ */
+final class BenchmarkValidators {
+    /**
+     * Names of the validators in cc.redpen.validator.sentence.
+     */
+    static final List<String> SENTENCE_VALIDATORS = Collections.unmodifiableList(Arrays.asList(
+            "CommaNumber", "Contraction", "DoubledWord", "EndOfSentence", "InvalidExpression",
+            "InvalidSymbol", "InvalidWord", "KatakanaEndHyphen", "KatakanaSpellCheck", "Quotation",
+            "SentenceLength", "SpaceBeginningOfSentence", "SpaceBetweenAlphabeticalWord", "Spelling",
+            "StartWithCapitalLetter", "SuggestExpression", "SymbolWithSpace", "WordNumber"));
+
+    private BenchmarkValidators() {
+    }
+
+    /**
+     * Get the language of the sentences the validator is measured with.
+     *
+     * @param name validator name
+     * @return "ja" for the validators of Japanese text, "en" otherwise
+     */
+    static String getLang(String name) {
+        // EndOfSentence needs the quotation marks, which only the Japanese symbol table defines
+        return name.startsWith("Katakana") || "EndOfSentence".equals(name) ? "ja" : "en";
+    }
+
+    /**
+     * Create the configuration of a validator.
+     *
+     * @param name           validator name
+     * @param suggestionFile dictionary file for SuggestExpression
+     * @return validator configuration
+     */
+    static ValidatorConfiguration create(String name, Path suggestionFile) {
+        ValidatorConfiguration config = new ValidatorConfiguration(name);
+        if ("SuggestExpression".equals(name)) {
+            config.addAttribute("dict", suggestionFile.toString());
+        }
+        return config;
+    }
+
+    /**
+     * Write a dictionary for SuggestExpression to a temporary file.
+     *
+     * @return dictionary file, which should be deleted by the caller
+     * @throws IOException when failed to write the file
+     */
+    static Path createSuggestionFile() throws IOException {
+        Path file = Files.createTempFile("redpen-benchmark", ".tsv");
+        Files.write(file, Arrays.asList("utilize\tuse", "so-called\tknown as", "very very\tvery"),
+                StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,297 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPenException;
+import cc.redpen.SampleDocumentGenerator;
+import cc.redpen.model.Document;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Paragraph;
+import cc.redpen.model.Section;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.DocumentParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generate synthetic documents for the benchmarks.
+ * <p>
+ * The documents are generated from a fixed seed, so every run measures the same input
+ * and the results can be compared across runs. The sentences contain typical errors
+ * (doubled words, misspellings, long sentences etc.) so that the validators report
+ * errors as they do for real documents.
+ */
+public final class CorpusGenerator {
+    /**
+     * Seed used by the benchmarks.
+     */
+    public static final long DEFAULT_SEED = 2014L;
+
+    private static final int PARAGRAPHS_PER_SECTION = 3;
+    private static final int SENTENCES_PER_PARAGRAPH = 5;
+    private static final int ITEMS_PER_SECTION = 3;
+
+    private static final String[] EN_WORDS = {
+            "the", "document", "validator", "checks", "a", "sentence", "in", "each", "section",
+            "and", "reports", "errors", "to", "writers", "of", "technical", "manuals", "with",
+            "many", "paragraphs", "it", "is", "easy", "configure", "tool", "for", "our", "team",
+            "system", "server", "data", "input", "output", "file", "program", "language",
+            "example", "result", "number", "list", "value", "user", "memory", "network"
+    };
+
+    private static final String[] EN_NOISE = {
+            "the the", "teh", "don't", "1000000", "(see appendix)", "\"quoted\"", "utilize",
+            "Gekioko pun pun maru", "very very", "so-called", "e.g.", "ASCII"
+    };
+
+    private static final String[] JA_SUBJECTS = {
+            "システム", "コンピュータ", "ユーザー", "サーバ", "データベース", "インデックス", "プログラム"
+    };
+
+    private static final String[] JA_OBJECTS = {
+            "文章", "ファイル", "データ", "メモリ", "ネットワーク", "インターフェース", "インタフェース", "エラー"
+    };
+
+    private static final String[] JA_PREDICATES = {
+            "を検査する", "を読み込んだ", "を出力します", "を更新しなければならない", "を利用することができる",
+            "を削除した", "を変換する"
+    };
+
+    private final String lang;
+    private final Random random;
+
+    /**
+     * Constructor.
+     *
+     * @param lang language of the generated sentences ("en" or "ja")
+     * @param seed random seed
+     */
+    public CorpusGenerator(String lang, long seed) {
+        if (!"en".equals(lang) && !"ja".equals(lang)) {
+            throw new IllegalArgumentException("Unsupported language: " + lang);
+        }
+        this.lang = lang;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Get the language of the generated sentences.
+     *
+     * @return language
+     */
+    public String getLang() {
+        return lang;
+    }
+
+    /**
+     * Generate sentences.
+     *
+     * @param count number of sentences
+     * @return sentences
+     */
+    public List<String> generateSentences(int count) {
+        List<String> sentences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sentences.add(nextSentence());
+        }
+        return sentences;
+    }
+
+    /**
+     * Generate a document in the given syntax.
+     * Each section has a header, paragraphs and a list.
+     *
+     * @param type     document syntax
+     * @param sections number of sections
+     * @return document text
+     */
+    public String generateText(DocumentParser.Type type, int sections) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sections; i++) {
+            appendHeader(text, type, i);
+            for (int j = 0; j < PARAGRAPHS_PER_SECTION; j++) {
+                for (int k = 0; k < SENTENCES_PER_PARAGRAPH; k++) {
+                    text.append(nextSentence()).append('\n');
+                }
+                text.append('\n');
+            }
+            for (int j = 0; j < ITEMS_PER_SECTION; j++) {
+                appendListItem(text, type);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Generate a wiki document like an export of a wiki site, which has nested
+     * headers, inline markup, links, comments and numbered lists.
+     *
+     * @param sections number of sections
+     * @return document text
+     */
+    public String generateWikiExport(int sections) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sections; i++) {
+            text.append('h').append(1 + i % 3).append(". ");
+            text.append(nextMarkedUpSentence()).append("\n\n");
+            for (int j = 0; j < PARAGRAPHS_PER_SECTION; j++) {
+                for (int k = 0; k < SENTENCES_PER_PARAGRAPH; k++) {
+                    text.append(nextMarkedUpSentence()).append('\n');
+                }
+                text.append('\n');
+            }
+            if (random.nextInt(4) == 0) {
+                text.append("[!--\n").append(nextSentence()).append("\n--]\n");
+            }
+            for (int j = 0; j < ITEMS_PER_SECTION; j++) {
+                text.append(random.nextBoolean() ? "- " : "# ").append(nextMarkedUpSentence()).append('\n');
+                if (random.nextInt(3) == 0) {
+                    text.append("-- ").append(nextMarkedUpSentence()).append('\n');
+                }
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    private String nextMarkedUpSentence() {
+        String sentence = nextSentence();
+        switch (random.nextInt(6)) {
+            case 0:
+                return "**" + sentence.substring(0, sentence.length() - 1) + "**.";
+            case 1:
+                return "//" + sentence.substring(0, sentence.length() - 1) + "//.";
+            case 2:
+                return sentence.substring(0, sentence.length() - 1)
+                        + " [[the manual|http://redpen.cc/docs/" + random.nextInt(100) + "]].";
+            default:
+                return sentence;
+        }
+    }
+
+    /**
+     * Generate a document and parse it with {@link cc.redpen.SampleDocumentGenerator}.
+     *
+     * @param type     document syntax
+     * @param sections number of sections
+     * @return parsed document collection
+     * @throws RedPenException when failed to parse the document
+     */
+    public DocumentCollection generateCollection(DocumentParser.Type type, int sections)
+            throws RedPenException {
+        return SampleDocumentGenerator.generateOneFileDocument(generateText(type, sections), type, lang);
+    }
+
+    /**
+     * Generate tokenized sentences.
+     *
+     * @param count number of sentences
+     * @return sentences in a parsed document
+     * @throws RedPenException when failed to parse the sentences
+     */
+    public List<Sentence> generateParsedSentences(int count) throws RedPenException {
+        StringBuilder text = new StringBuilder();
+        for (String sentence : generateSentences(count)) {
+            text.append(sentence).append("\n\n");
+        }
+        DocumentCollection collection = SampleDocumentGenerator.generateOneFileDocument(
+                text.toString(), DocumentParser.Type.PLAIN, lang);
+        List<Sentence> sentences = new ArrayList<>(count);
+        for (Document document : collection) {
+            for (Section section : document) {
+                for (Paragraph paragraph : section.getParagraphs()) {
+                    for (Sentence sentence : paragraph.getSentences()) {
+                        sentences.add(sentence);
+                    }
+                }
+            }
+        }
+        return sentences;
+    }
+
+    private void appendHeader(StringBuilder text, DocumentParser.Type type, int index) {
+        String header = "ja".equals(lang) ? "第" + (index + 1) + "章" : "Chapter " + (index + 1);
+        switch (type) {
+            case WIKI:
+                text.append("h1. ").append(header).append("\n\n");
+                break;
+            case MARKDOWN:
+            case COMMONMARK:
+                text.append("# ").append(header).append("\n\n");
+                break;
+            default:
+                text.append(header).append("\n\n");
+        }
+    }
+
+    private void appendListItem(StringBuilder text, DocumentParser.Type type) {
+        switch (type) {
+            case WIKI:
+                text.append("- ");
+                break;
+            case MARKDOWN:
+            case COMMONMARK:
+                text.append("- ");
+                break;
+            default:
+                break;
+        }
+        text.append(nextSentence()).append('\n');
+    }
+
+    private String nextSentence() {
+        return "ja".equals(lang) ? nextJapaneseSentence() : nextEnglishSentence();
+    }
+
+    private String nextEnglishSentence() {
+        StringBuilder sentence = new StringBuilder();
+        // mostly short sentences with a long one once in a while
+        int length = random.nextInt(10) == 0 ? 30 + random.nextInt(20) : 5 + random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            String word = random.nextInt(12) == 0
+                    ? EN_NOISE[random.nextInt(EN_NOISE.length)]
+                    : EN_WORDS[random.nextInt(EN_WORDS.length)];
+            if (i == 0 && random.nextInt(8) != 0) {
+                word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+            }
+            if (i > 0) {
+                sentence.append(random.nextInt(6) == 0 ? ", " : " ");
+            }
+            sentence.append(word);
+        }
+        return sentence.append('.').toString();
+    }
+
+    private String nextJapaneseSentence() {
+        StringBuilder sentence = new StringBuilder();
+        int clauses = 1 + random.nextInt(3);
+        for (int i = 0; i < clauses; i++) {
+            if (i > 0) {
+                sentence.append('、');
+            }
+            sentence.append(JA_SUBJECTS[random.nextInt(JA_SUBJECTS.length)])
+                    .append(random.nextBoolean() ? "は" : "が")
+                    .append(JA_OBJECTS[random.nextInt(JA_OBJECTS.length)])
+                    .append(JA_PREDICATES[random.nextInt(JA_PREDICATES.length)]);
+        }
+        return sentence.append('。').toString();
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPen;
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.distributor.FakeResultDistributor;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.parser.DocumentParser;
+import cc.redpen.validator.ValidationError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end validation of parsed documents with all the sentence validators
+ * for English and the section validators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedPenBenchmark {
+    private static final String[] SECTION_VALIDATORS = {"SectionLength", "ParagraphNumber", "ParagraphStartWith"};
+
+    @Param({"PLAIN", "WIKI", "MARKDOWN", "COMMONMARK"})
+    public DocumentParser.Type type;
+
+    @Param({"10", "100"})
+    public int sections;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private Path suggestionFile;
+    private RedPen redPen;
+    private DocumentCollection documents;
+
+    @Setup
+    public void setUp() throws IOException, RedPenException {
+        suggestionFile = BenchmarkValidators.createSuggestionFile();
+        Configuration.Builder configBuilder = new Configuration.Builder().setSymbolTable("en");
+        for (String name : BenchmarkValidators.SENTENCE_VALIDATORS) {
+            if ("en".equals(BenchmarkValidators.getLang(name))) {
+                configBuilder.addValidatorConfig(BenchmarkValidators.create(name, suggestionFile));
+            }
+        }
+        for (String name : SECTION_VALIDATORS) {
+            configBuilder.addValidatorConfig(BenchmarkValidators.create(name, suggestionFile));
+        }
+        redPen = new RedPen.Builder()
+                .setConfiguration(configBuilder.build())
+                .setResultDistributor(new FakeResultDistributor())
+                .setParallelism(parallelism)
+                .build();
+        documents = new CorpusGenerator("en", CorpusGenerator.DEFAULT_SEED).generateCollection(type, sections);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        redPen.close();
+        Files.deleteIfExists(suggestionFile);
+    }
+
+    @Benchmark
+    public List<ValidationError> check() {
+        return redPen.check(documents);
+    }
+}
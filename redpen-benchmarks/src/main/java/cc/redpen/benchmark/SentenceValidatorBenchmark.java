@@ -0,0 +1,94 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.model.Sentence;
+import cc.redpen.validator.Validator;
+import cc.redpen.validator.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of each sentence validator. Each invocation validates {@link #SENTENCES}
+ * tokenized sentences; the parsing is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SentenceValidatorBenchmark {
+    private static final int SENTENCES = 200;
+
+    /**
+     * Name of the parameter selecting the validator. Unless it is given with "-p",
+     * {@link BenchmarkRunner} measures all the {@link BenchmarkValidators#SENTENCE_VALIDATORS}.
+     */
+    static final String VALIDATOR_NAME = "validatorName";
+
+    @Param({})
+    public String validatorName;
+
+    private Path suggestionFile;
+    private Validator<Sentence> validator;
+    private List<Sentence> sentences;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException, RedPenException {
+        String lang = BenchmarkValidators.getLang(validatorName);
+        suggestionFile = BenchmarkValidators.createSuggestionFile();
+        Configuration configuration = new Configuration.Builder().setSymbolTable(lang).build();
+        validator = (Validator<Sentence>) ValidatorFactory.getInstance(
+                BenchmarkValidators.create(validatorName, suggestionFile), configuration.getSymbolTable());
+        sentences = new CorpusGenerator(lang, CorpusGenerator.DEFAULT_SEED).generateParsedSentences(SENTENCES);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        validator.close();
+        Files.deleteIfExists(suggestionFile);
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        for (Sentence sentence : sentences) {
+            blackhole.consume(validator.validate(sentence));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.tokenizer.RedPenTokenizer;
+import cc.redpen.tokenizer.TokenizerRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the tokenizers registered in {@link TokenizerRegistry}. Every tokenizer
+ * tokenizes the same corpus of each language, and each invocation tokenizes
+ * {@link #SENTENCES} sentences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+    private static final int SENTENCES = 100;
+
+    @Param({"WhiteSpace", "Japanese", "NGram"})
+    public String tokenizerName;
+
+    @Param({"en", "ja"})
+    public String lang;
+
+    private RedPenTokenizer tokenizer;
+    private List<String> sentences;
+
+    @Setup
+    public void setUp() {
+        tokenizer = TokenizerRegistry.getInstance().get(tokenizerName);
+        sentences = new CorpusGenerator(lang, CorpusGenerator.DEFAULT_SEED).generateSentences(SENTENCES);
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole blackhole) {
+        for (String sentence : sentences) {
+            blackhole.consume(tokenizer.tokenize(sentence));
+        }
+    }
+
+    @Benchmark
+    public void tokenizeBatch(Blackhole blackhole) {
+        blackhole.consume(tokenizer.tokenize(sentences));
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.parser.DocumentParser;
+import cc.redpen.parser.DocumentParserFactory;
+import cc.redpen.tokenizer.WhiteSpaceTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the wiki parser on large exports with inline markup, links and comments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WikiParserBenchmark {
+    @Param({"100", "1000"})
+    public int sections;
+
+    private Configuration configuration;
+    private byte[] document;
+
+    @Setup
+    public void setUp() {
+        configuration = new Configuration.Builder().setSymbolTable("en").build();
+        document = new CorpusGenerator("en", CorpusGenerator.DEFAULT_SEED)
+                .generateWikiExport(sections).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public DocumentCollection parse() throws RedPenException {
+        DocumentCollection.Builder builder = new DocumentCollection.Builder(new WhiteSpaceTokenizer());
+        DocumentParser parser = DocumentParserFactory.generate(DocumentParser.Type.WIKI, configuration, builder);
+        parser.generateDocument(new ByteArrayInputStream(document));
+        return builder.build();
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.RedPenException;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.ListBlock;
+import cc.redpen.model.Section;
+import cc.redpen.parser.DocumentParser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class CorpusGeneratorTest {
+    @Test
+    public void testListsAreParsed() throws RedPenException {
+        for (DocumentParser.Type type : new DocumentParser.Type[]{
+                DocumentParser.Type.WIKI, DocumentParser.Type.MARKDOWN, DocumentParser.Type.COMMONMARK}) {
+            DocumentCollection collection = new CorpusGenerator("en", CorpusGenerator.DEFAULT_SEED)
+                    .generateCollection(type, 3);
+            int listElements = 0;
+            for (Section section : collection.getDocument(0)) {
+                for (ListBlock listBlock : section.getListBlocks()) {
+                    listElements += listBlock.getNumberOfListElements();
+                }
+            }
+            assertTrue(type + " corpus has no list", listElements > 0);
+        }
+    }
+}
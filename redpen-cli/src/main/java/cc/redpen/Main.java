@@ -21,14 +21,13 @@ import cc.redpen.config.Configuration;
 import cc.redpen.distributor.ResultDistributor;
 import cc.redpen.distributor.ResultDistributorFactory;
 import cc.redpen.formatter.Formatter;
-import cc.redpen.model.DocumentCollection;
+import cc.redpen.metrics.Metrics;
 import cc.redpen.parser.DocumentParser;
-import cc.redpen.validator.ValidationError;
 import org.apache.commons.cli.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
+import java.nio.charset.Charset;
 
 /**
  * Class containing main method called from command line.
@@ -42,6 +41,8 @@ public final class Main {
 
     private static final int EDEFAULT_LIMIT = 1;
 
+    private static final int DOCUMENT_QUEUE_DEPTH = 16;
+
     private Main() {
         super();
     }
@@ -52,6 +53,17 @@ public final class Main {
      * @throws RedPenException
      */
     public static void main(String[] args) throws RedPenException {
+        System.exit(run(args));
+    }
+
+    /**
+     * Run RedPen with the command line arguments.
+     *
+     * @param args arguments
+     * @return exit status; 1 when the errors are more than the limit, -1 when the arguments are invalid
+     * @throws RedPenException when failed to validate the input files
+     */
+    static int run(String... args) throws RedPenException {
         Options options = new Options();
         options.addOption("h", "help", false, "Displays this help information and exits");
 
@@ -79,6 +91,34 @@ public final class Main {
         OptionBuilder.withArgName("LIMIT NUMBER");
         options.addOption(OptionBuilder.create("l"));
 
+        OptionBuilder.withLongOpt("encoding");
+        OptionBuilder.withDescription("Input file encoding (default: UTF-8)");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("ENCODING");
+        options.addOption(OptionBuilder.create("e"));
+
+        OptionBuilder.withLongOpt("threads");
+        OptionBuilder.withDescription("Number of threads to parse input files (default: 1)");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("THREADS");
+        options.addOption(OptionBuilder.create("t"));
+
+        OptionBuilder.withLongOpt("parallelism");
+        OptionBuilder.withDescription("Number of threads to validate input documents (default: 1)");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("THREADS");
+        options.addOption(OptionBuilder.create());
+
+        OptionBuilder.withLongOpt("sentence-cache");
+        OptionBuilder.withDescription("Reuse the results of up to SIZE distinct sentences repeated in input files");
+        OptionBuilder.hasArg();
+        OptionBuilder.withArgName("SIZE");
+        options.addOption(OptionBuilder.create());
+
+        OptionBuilder.withLongOpt("profile");
+        OptionBuilder.withDescription("Prints the time spent by parsing and each validator");
+        options.addOption(OptionBuilder.create());
+
         options.addOption("v", "version", false,
             "Displays version information and exits");
 
@@ -89,23 +129,26 @@ public final class Main {
         } catch (ParseException e) {
             LOG.error("Error occurred in parsing command line options ");
             printHelp(options);
-            System.exit(-1);
+            return -1;
         }
 
         String inputFormat = "plain";
         String configFileName = "";
         String resultFormat = "plain";
         int limit = EDEFAULT_LIMIT;
+        int threads = 1;
+        int parallelism = 1;
+        SentenceCache sentenceCache = null;
         DocumentParser.Type parserType;
         Formatter.Type outputFormat;
 
         if (commandLine.hasOption("h")) {
             printHelp(options);
-            System.exit(0);
+            return 0;
         }
         if (commandLine.hasOption("v")) {
             System.out.println(VERSION);
-            System.exit(0);
+            return 0;
         }
         if (commandLine.hasOption("f")) {
             inputFormat = commandLine.getOptionValue("f");
@@ -119,6 +162,28 @@ public final class Main {
         if (commandLine.hasOption("l")) {
             limit = Integer.valueOf(commandLine.getOptionValue("l"));
         }
+        if (commandLine.hasOption("t")) {
+            threads = Integer.valueOf(commandLine.getOptionValue("t"));
+            if (threads < 1) {
+                LOG.error("The number of threads must be positive: \"{}\"", threads);
+                return -1;
+            }
+        }
+        if (commandLine.hasOption("parallelism")) {
+            parallelism = Integer.valueOf(commandLine.getOptionValue("parallelism"));
+            if (parallelism < 1) {
+                LOG.error("The parallelism must be positive: \"{}\"", parallelism);
+                return -1;
+            }
+        }
+        if (commandLine.hasOption("sentence-cache")) {
+            int cacheSize = Integer.valueOf(commandLine.getOptionValue("sentence-cache"));
+            if (cacheSize < 1) {
+                LOG.error("The size of sentence cache must be positive: \"{}\"", cacheSize);
+                return -1;
+            }
+            sentenceCache = new SentenceCache(cacheSize);
+        }
 
         String[] inputFileNames = commandLine.getArgs();
 
@@ -126,34 +191,49 @@ public final class Main {
         Configuration conf = configLoader.loadConfiguration(configFileName);
         if (conf == null) {
             LOG.error("Failed to initialize the RedPen configuration.");
-            System.exit(-1);
+            return -1;
+        }
+        if (commandLine.hasOption("e")) {
+            String encoding = commandLine.getOptionValue("e");
+            try {
+                conf = new Configuration.Builder(conf)
+                    .setInputCharset(Charset.forName(encoding))
+                    .build();
+            } catch (IllegalArgumentException e) {
+                LOG.error("Unsupported input encoding: \"{}\"", encoding);
+                return -1;
+            }
         }
 
         parserType = DocumentParser.Type.valueOf(inputFormat.toUpperCase());
         outputFormat = Formatter.Type.valueOf(resultFormat.toUpperCase());
 
-        DocumentCollection documentCollection =
-            DocumentGenerator.generate(inputFileNames, conf, parserType);
-
-        if (documentCollection == null) {
-            LOG.error("Failed to create a DocumentCollection object");
-            System.exit(-1);
-        }
         ResultDistributor distributor =
             ResultDistributorFactory.createDistributor(outputFormat, System.out);
 
-        RedPen redPen = new RedPen.Builder()
-            .setConfiguration(conf)
-            .setResultDistributor(distributor)
-            .build();
-
-        List<ValidationError> errors = redPen.check(documentCollection);
-        if (errors.size() > limit) {
-            LOG.error("The number of errors \"{}\" is larger than specified (limit is \"{}\").", errors.size(), limit);
-            System.exit(1);
-        } else {
-            System.exit(0);
+        Metrics metrics = commandLine.hasOption("profile") ? new Metrics() : null;
+
+        int errorCount;
+        try (RedPen redPen = new RedPen.Builder()
+                 .setConfiguration(conf)
+                 .setResultDistributor(distributor)
+                 .setParallelism(parallelism)
+                 .setMetrics(metrics)
+                 .setSentenceCache(sentenceCache)
+                 .build();
+             DocumentStream documentStream = DocumentGenerator.stream(
+                 inputFileNames, conf, parserType, DOCUMENT_QUEUE_DEPTH, metrics, threads, sentenceCache)) {
+            errorCount = redPen.check(documentStream);
+            if (metrics != null) {
+                // the results may be written to stdout, so the profile goes to stderr
+                System.err.print(redPen.getMetricsSnapshot().format());
+            }
+        }
+        if (errorCount > limit) {
+            LOG.error("The number of errors \"{}\" is larger than specified (limit is \"{}\").", errorCount, limit);
+            return 1;
         }
+        return 0;
     }
 
     private static void printHelp(Options opt) {
@@ -20,6 +20,15 @@ package cc.redpen;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
 public class MainTest {
 
     @Ignore("Enable this to run basic validation test during development ")
@@ -45,4 +54,45 @@ public class MainTest {
         Main.main(new String[] { "-v" });
     }
 
+    @Test
+    public void testContractionIsCountedOverAllInputFiles() throws Exception {
+        String conf = createFile(".xml", "<redpen-conf>\n"
+                + "    <validator-list>\n"
+                + "        <validator name=\"Contraction\"/>\n"
+                + "    </validator-list>\n"
+                + "    <symbol-table lang=\"en\"/>\n"
+                + "</redpen-conf>\n");
+        // the contractions are errors only because the other file has more non-contracted forms
+        String contracted = createFile(".txt", "Can't stop, won't stop, don't stop.\n");
+        String nonContracted = createFile(".txt", "He is a doctor. She is a nurse. We are friends.\n");
+
+        assertEquals(3, countErrors("-c", conf, "-l", "10", contracted, nonContracted));
+        assertEquals(3, countErrors("-c", conf, "-l", "10", nonContracted, contracted));
+        assertEquals(3, countErrors("-c", conf, "-l", "10", "--parallelism", "2", contracted, nonContracted));
+    }
+
+    private static int countErrors(String... args) throws RedPenException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(output, true));
+        try {
+            assertEquals(0, Main.run(args));
+        } finally {
+            System.setOut(stdout);
+        }
+        int count = 0;
+        for (String line : new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+            if (line.startsWith("ValidationError[Contraction]")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String createFile(String suffix, String content) throws IOException {
+        File file = File.createTempFile("redpen-main", suffix);
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file.getAbsolutePath();
+    }
 }
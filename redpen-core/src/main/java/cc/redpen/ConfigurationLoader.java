@@ -20,6 +20,7 @@ package cc.redpen;
 import cc.redpen.config.Configuration;
 import cc.redpen.config.Symbol;
 import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.tokenizer.TokenizerRegistry;
 import cc.redpen.util.SAXErrorHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +36,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 
 import static cc.redpen.config.Configuration.Builder;
 
@@ -103,6 +105,17 @@ public class ConfigurationLoader {
         configBuilder = new Configuration.Builder();
         Element rootElement = getRootNode(doc, "redpen-conf");
 
+        // extract the charset of input documents
+        String inputEncoding = rootElement.getAttribute("input-encoding");
+        if (!inputEncoding.isEmpty()) {
+            try {
+                configBuilder.setInputCharset(Charset.forName(inputEncoding));
+            } catch (IllegalArgumentException e) {
+                LOG.error("Unsupported input encoding: " + inputEncoding);
+                return null;
+            }
+        }
+
         // extract validator configurations
         NodeList validatorConfigElementList =
                 getSpecifiedNodeList(rootElement, "validator-list");
@@ -126,7 +139,13 @@ public class ConfigurationLoader {
         } else {
             extractSymbolConfig(symbolTableConfigElementList);
         }
-        return configBuilder.build();
+        Configuration configuration = configBuilder.build();
+        String tokenizer = configuration.getSymbolTable().getTokenizer();
+        if (tokenizer != null && !TokenizerRegistry.getInstance().contains(tokenizer)) {
+            LOG.error("There is no such tokenizer: \"" + tokenizer + "\"");
+            return null;
+        }
+        return configuration;
     }
 
     private void extractValidatorConfigurations(NodeList validatorElementList) {
@@ -172,6 +191,11 @@ public class ConfigurationLoader {
                 = symbolTableConfigElementList.item(0).
                 getAttributes().getNamedItem("lang").getNodeValue();
         configBuilder.setSymbolTable(language);
+        Node tokenizer = symbolTableConfigElementList.item(0).
+                getAttributes().getNamedItem("tokenizer");
+        if (tokenizer != null) {
+            configBuilder.setTokenizer(tokenizer.getNodeValue());
+        }
 
         NodeList symbolTableElementList =
                 getSpecifiedNodeList((Element)
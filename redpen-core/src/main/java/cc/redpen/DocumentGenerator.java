@@ -18,9 +18,13 @@
 package cc.redpen;
 
 import cc.redpen.config.Configuration;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.metrics.Timer;
+import cc.redpen.model.Document;
 import cc.redpen.model.DocumentCollection;
 import cc.redpen.parser.DocumentParser;
 import cc.redpen.parser.DocumentParserFactory;
+import cc.redpen.tokenizer.TokenizerRegistry;
 
 /**
  * Generate DocumentCollection object loading input file.
@@ -41,15 +45,154 @@ public final class DocumentGenerator {
     static DocumentCollection generate(String[] inputFileNames,
                                        Configuration configuration,
                                        DocumentParser.Type format) throws RedPenException {
+        return generate(inputFileNames, configuration, format, null);
+    }
+
+    /**
+     * Generate DocumentCollection from input file, recording the time to parse
+     * and tokenize.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param metrics        metrics to record, or null to disable the recording
+     * @return a generated DocumentCollection object
+     */
+    static DocumentCollection generate(String[] inputFileNames,
+                                       Configuration configuration,
+                                       DocumentParser.Type format,
+                                       Metrics metrics) throws RedPenException {
         DocumentCollection.Builder documentBuilder =
-                new DocumentCollection.Builder(configuration.getSymbolTable().getLang());
+                new DocumentCollection.Builder(
+                        TokenizerRegistry.getInstance().getTokenizer(configuration.getSymbolTable()))
+                        .setMetrics(metrics);
         DocumentParser parser = DocumentParserFactory.generate(format,
                 configuration, documentBuilder);
 
+        Timer parseTimer = metrics == null ? null : metrics.getTimer(Metrics.PARSE);
         for (String inputFileName : inputFileNames) {
+            long start = System.nanoTime();
             parser.generateDocument(inputFileName);
+            if (parseTimer != null) {
+                parseTimer.record(System.nanoTime() - start);
+            }
         }
         // @TODO extract summary information to validate documentCollection effectively
         return documentBuilder.build();
     }
+
+    /**
+     * Generate DocumentCollection from input files, parsing the files concurrently.
+     * The documents are in the same order as the input files.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param metrics        metrics to record, or null to disable the recording
+     * @param threads        number of threads to parse the files, 1 to parse them sequentially
+     * @return a generated DocumentCollection object
+     */
+    static DocumentCollection generate(String[] inputFileNames,
+                                       Configuration configuration,
+                                       DocumentParser.Type format,
+                                       Metrics metrics,
+                                       int threads) throws RedPenException {
+        if (threads <= 1) {
+            return generate(inputFileNames, configuration, format, metrics);
+        }
+        DocumentCollection documentCollection = new DocumentCollection();
+        try (DocumentParsePool parsePool = new DocumentParsePool(
+                inputFileNames, configuration, format, threads, metrics, null)) {
+            while (parsePool.hasNext()) {
+                for (Document document : parsePool.take()) {
+                    documentCollection.addDocument(document);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedPenException("Interrupted while parsing input files", e);
+        }
+        return documentCollection;
+    }
+
+    /**
+     * Generate a stream of documents from input files. The files are parsed in a
+     * background thread, and at most queueDepth parsed documents wait for validation.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param queueDepth     maximum number of parsed documents waiting to be taken
+     * @return a stream of documents
+     */
+    static DocumentStream stream(String[] inputFileNames,
+                                 Configuration configuration,
+                                 DocumentParser.Type format,
+                                 int queueDepth) {
+        return stream(inputFileNames, configuration, format, queueDepth, null);
+    }
+
+    /**
+     * Generate a stream of documents from input files, recording the time to parse
+     * and tokenize.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param queueDepth     maximum number of parsed documents waiting to be taken
+     * @param metrics        metrics to record, or null to disable the recording
+     * @return a stream of documents
+     */
+    static DocumentStream stream(String[] inputFileNames,
+                                 Configuration configuration,
+                                 DocumentParser.Type format,
+                                 int queueDepth,
+                                 Metrics metrics) {
+        return stream(inputFileNames, configuration, format, queueDepth, metrics, 1);
+    }
+
+    /**
+     * Generate a stream of documents from input files, parsing the files concurrently.
+     * The documents are taken in the same order as the input files.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param queueDepth     maximum number of parsed documents waiting to be taken
+     * @param metrics        metrics to record, or null to disable the recording
+     * @param threads        number of threads to parse the files, 1 to parse them sequentially
+     * @return a stream of documents
+     */
+    static DocumentStream stream(String[] inputFileNames,
+                                 Configuration configuration,
+                                 DocumentParser.Type format,
+                                 int queueDepth,
+                                 Metrics metrics,
+                                 int threads) {
+        return stream(inputFileNames, configuration, format, queueDepth, metrics, threads, null);
+    }
+
+    /**
+     * Generate a stream of documents from input files, reusing the tokens of the
+     * sentences in the cache.
+     *
+     * @param inputFileNames input file name
+     * @param configuration  configuration configuration
+     * @param format         input file format
+     * @param queueDepth     maximum number of parsed documents waiting to be taken
+     * @param metrics        metrics to record, or null to disable the recording
+     * @param threads        number of threads to parse the files, 1 to parse them sequentially
+     * @param sentenceCache  cache of sentences, or null to disable the cache
+     * @return a stream of documents
+     */
+    static DocumentStream stream(String[] inputFileNames,
+                                 Configuration configuration,
+                                 DocumentParser.Type format,
+                                 int queueDepth,
+                                 Metrics metrics,
+                                 int threads,
+                                 SentenceCache sentenceCache) {
+        return new DocumentStream(inputFileNames, configuration, format, queueDepth, metrics, threads,
+                sentenceCache);
+    }
 }
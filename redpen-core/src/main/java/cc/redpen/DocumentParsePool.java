@@ -0,0 +1,177 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.Configuration;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.metrics.Timer;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.parser.DocumentParser;
+import cc.redpen.parser.DocumentParserFactory;
+import cc.redpen.tokenizer.RedPenTokenizer;
+import cc.redpen.tokenizer.TokenizerRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parse input files concurrently, and return the parsed documents in input order.
+ * <p>
+ * Each worker thread reuses one parser and builder for the files it parses, and all
+ * of them share the tokenizer of the configuration in
+ * {@link cc.redpen.tokenizer.TokenizerRegistry}.
+ * At most two files per thread are parsed ahead of the file being taken, so the
+ * number of documents held in memory does not grow with the number of input files.
+ * This class is not thread safe; the documents are taken on one thread.
+ */
+final class DocumentParsePool implements AutoCloseable {
+    private final String[] inputFileNames;
+    private final Configuration configuration;
+    private final DocumentParser.Type format;
+    private final Metrics metrics;
+    private final SentenceCache sentenceCache;
+    private final RedPenTokenizer tokenizer;
+    private final Timer parseTimer;
+    private final ForkJoinPool pool;
+    private final int maxPending;
+    private final Deque<Future<DocumentCollection>> pending = new ArrayDeque<>();
+    private final ThreadLocal<Worker> workers = new ThreadLocal<>();
+    private int submitted = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param inputFileNames input file names
+     * @param configuration  configuration
+     * @param format         input file format
+     * @param threads        number of worker threads
+     * @param metrics        metrics to record, or null to disable the recording
+     * @param sentenceCache  cache of sentences, or null to disable the cache
+     */
+    DocumentParsePool(String[] inputFileNames,
+                      Configuration configuration,
+                      DocumentParser.Type format,
+                      int threads,
+                      Metrics metrics,
+                      SentenceCache sentenceCache) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        this.inputFileNames = inputFileNames;
+        this.configuration = configuration;
+        this.format = format;
+        this.metrics = metrics;
+        this.sentenceCache = sentenceCache;
+        this.tokenizer = TokenizerRegistry.getInstance().getTokenizer(configuration.getSymbolTable());
+        this.parseTimer = metrics == null ? null : metrics.getTimer(Metrics.PARSE);
+        this.pool = new ForkJoinPool(threads);
+        this.maxPending = threads * 2;
+    }
+
+    /**
+     * Whether there are files not taken yet.
+     *
+     * @return true when {@link #take()} returns documents
+     */
+    boolean hasNext() {
+        return submitted < inputFileNames.length || !pending.isEmpty();
+    }
+
+    /**
+     * Take the documents of the next input file, waiting until the file is parsed.
+     *
+     * @return documents of the next input file
+     * @throws RedPenException      when failed to parse the file
+     * @throws InterruptedException when interrupted while waiting
+     */
+    DocumentCollection take() throws RedPenException, InterruptedException {
+        while (submitted < inputFileNames.length && pending.size() < maxPending) {
+            String inputFileName = inputFileNames[submitted++];
+            pending.add(pool.submit(() -> parse(inputFileName)));
+        }
+        Future<DocumentCollection> next = pending.poll();
+        if (next == null) {
+            throw new IllegalStateException("No more input files");
+        }
+        try {
+            return next.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RedPenException) {
+                throw (RedPenException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RedPenException((Exception) cause);
+        }
+    }
+
+    private DocumentCollection parse(String inputFileName) throws RedPenException {
+        Worker worker = workers.get();
+        if (worker == null) {
+            worker = new Worker(new DocumentCollection.Builder(tokenizer)
+                    .setMetrics(metrics).setSentenceCache(sentenceCache));
+            workers.set(worker);
+        }
+        long start = System.nanoTime();
+        try {
+            worker.getParser().generateDocument(inputFileName);
+        } catch (RedPenException | RuntimeException e) {
+            // drop the partial document of the failed file
+            worker.builder.buildAndReset();
+            throw e;
+        }
+        if (parseTimer != null) {
+            parseTimer.record(System.nanoTime() - start);
+        }
+        return worker.builder.buildAndReset();
+    }
+
+    /**
+     * Stop parsing the remaining input files.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        pending.clear();
+    }
+
+    /**
+     * Parser and builder reused for the files parsed on a worker thread, so that the
+     * buffers of the line reader are allocated once per thread.
+     */
+    private final class Worker {
+        private final DocumentCollection.Builder builder;
+        private DocumentParser parser;
+
+        private Worker(DocumentCollection.Builder builder) {
+            this.builder = builder;
+        }
+
+        private DocumentParser getParser() throws RedPenException {
+            if (parser == null) {
+                parser = DocumentParserFactory.generate(format, configuration, builder);
+            }
+            return parser;
+        }
+    }
+}
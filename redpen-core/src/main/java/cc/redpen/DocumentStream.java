@@ -0,0 +1,227 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.Configuration;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.metrics.Timer;
+import cc.redpen.model.Document;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.parser.DocumentParser;
+import cc.redpen.parser.DocumentParserFactory;
+import cc.redpen.tokenizer.RedPenTokenizer;
+import cc.redpen.tokenizer.TokenizerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Stream of documents parsed in a background thread.
+ * <p>
+ * Input files are parsed one by one, or concurrently on worker threads, and the
+ * generated documents are handed to the consumer in input order through a bounded
+ * queue, so the number of documents held in memory is limited by the queue depth
+ * instead of the number of input files.
+ * A document is not referred from the stream after it is taken.
+ */
+public final class DocumentStream implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(DocumentStream.class);
+
+    private static final Item END = new Item(null, null);
+
+    private final BlockingQueue<Item> queue;
+    private final Thread producer;
+    private boolean finished = false;
+
+    DocumentStream(String[] inputFileNames,
+                   Configuration configuration,
+                   DocumentParser.Type format,
+                   int queueDepth,
+                   Metrics metrics,
+                   int threads,
+                   SentenceCache sentenceCache) {
+        this(queueDepth, producer(inputFileNames, configuration, format, metrics, threads, sentenceCache));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param queueDepth maximum number of documents waiting to be taken
+     * @param producer   task to put the documents, run in a background thread
+     */
+    DocumentStream(int queueDepth, Producer producer) {
+        if (queueDepth < 1) {
+            throw new IllegalArgumentException("Queue depth must be positive: " + queueDepth);
+        }
+        this.queue = new ArrayBlockingQueue<>(queueDepth);
+        this.producer = new Thread(() -> run(producer), "redpen-document-stream");
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    private static Producer producer(String[] inputFileNames,
+                                     Configuration configuration,
+                                     DocumentParser.Type format,
+                                     Metrics metrics,
+                                     int threads,
+                                     SentenceCache sentenceCache) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        return threads == 1
+                ? stream -> produce(stream, inputFileNames, configuration, format, metrics, sentenceCache)
+                : stream -> produceInParallel(stream, inputFileNames, configuration, format, metrics,
+                        threads, sentenceCache);
+    }
+
+    /**
+     * Run the producer, and put the end of the stream or the failure so that the
+     * consumer never waits forever, even when the producer throws an Error.
+     */
+    private void run(Producer producer) {
+        try {
+            producer.produce(this);
+            queue.put(END);
+        } catch (InterruptedException e) {
+            LOG.info("Document stream is closed before all the documents are parsed");
+        } catch (Throwable e) {
+            LOG.error("Failed to parse input documents", e);
+            offerFailure(e instanceof RedPenException ? (RedPenException) e
+                    : new RedPenException("Failed to parse input documents: " + e, e));
+        }
+    }
+
+    private static void produce(DocumentStream stream,
+                                String[] inputFileNames,
+                                Configuration configuration,
+                                DocumentParser.Type format,
+                                Metrics metrics,
+                                SentenceCache sentenceCache) throws RedPenException, InterruptedException {
+        Timer parseTimer = metrics == null ? null : metrics.getTimer(Metrics.PARSE);
+        RedPenTokenizer tokenizer =
+                TokenizerRegistry.getInstance().getTokenizer(configuration.getSymbolTable());
+        // one parser is reused for all the files, and the documents are taken file by file
+        DocumentCollection.Builder documentBuilder = new DocumentCollection.Builder(tokenizer)
+                .setMetrics(metrics).setSentenceCache(sentenceCache);
+        DocumentParser parser = DocumentParserFactory.generate(format,
+                configuration, documentBuilder);
+        for (String inputFileName : inputFileNames) {
+            long start = System.nanoTime();
+            parser.generateDocument(inputFileName);
+            if (parseTimer != null) {
+                parseTimer.record(System.nanoTime() - start);
+            }
+            for (Document document : documentBuilder.buildAndReset()) {
+                stream.put(document);
+            }
+        }
+    }
+
+    private static void produceInParallel(DocumentStream stream,
+                                          String[] inputFileNames,
+                                          Configuration configuration,
+                                          DocumentParser.Type format,
+                                          Metrics metrics,
+                                          int threads,
+                                          SentenceCache sentenceCache)
+            throws RedPenException, InterruptedException {
+        try (DocumentParsePool parsePool = new DocumentParsePool(
+                inputFileNames, configuration, format, threads, metrics, sentenceCache)) {
+            while (parsePool.hasNext()) {
+                for (Document document : parsePool.take()) {
+                    stream.put(document);
+                }
+            }
+        }
+    }
+
+    /**
+     * Put a document, waiting while the queue is full.
+     *
+     * @param document document
+     * @throws InterruptedException when the stream is closed while waiting
+     */
+    void put(Document document) throws InterruptedException {
+        queue.put(new Item(document, null));
+    }
+
+    private void offerFailure(RedPenException e) {
+        try {
+            queue.put(new Item(null, e));
+        } catch (InterruptedException ignore) {
+            // the consumer has closed the stream
+        }
+    }
+
+    /**
+     * Take the next document, waiting until it is parsed.
+     *
+     * @return next document, or null when all the documents have been taken
+     * @throws RedPenException when failed to parse an input file
+     */
+    public Document take() throws RedPenException {
+        if (finished) {
+            return null;
+        }
+        Item item;
+        try {
+            item = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedPenException("Interrupted while waiting for a document", e);
+        }
+        if (item.error != null) {
+            finished = true;
+            throw item.error;
+        }
+        if (item == END) {
+            finished = true;
+        }
+        return item.document;
+    }
+
+    /**
+     * Stop parsing the remaining input files.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        producer.interrupt();
+        queue.clear();
+    }
+
+    /**
+     * Task which puts the documents to the stream.
+     */
+    @FunctionalInterface
+    interface Producer {
+        void produce(DocumentStream stream) throws RedPenException, InterruptedException;
+    }
+
+    private static final class Item {
+        private final Document document;
+        private final RedPenException error;
+
+        private Item(Document document, RedPenException error) {
+            this.document = document;
+            this.error = error;
+        }
+    }
+}
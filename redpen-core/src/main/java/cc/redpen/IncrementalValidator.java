@@ -0,0 +1,424 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.Configuration;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.model.Document;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Paragraph;
+import cc.redpen.model.Section;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.DocumentParser;
+import cc.redpen.parser.DocumentParserFactory;
+import cc.redpen.tokenizer.RedPenTokenizer;
+import cc.redpen.tokenizer.TokenizerRegistry;
+import cc.redpen.validator.ValidationError;
+import cc.redpen.validator.Validator;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validate a plain text document incrementally while it is edited.
+ * <p>
+ * A paragraph boundary where the parser has no pending text is a point from which
+ * the rest of the text is parsed independently. After an edit, the text is parsed
+ * again from the last such boundary before the edit up to the first one after the
+ * edit at which the parser reaches the same state as before; the paragraphs out of
+ * the range are kept with their offsets and line numbers shifted.
+ * <p>
+ * Errors of the sentence validators are kept per sentence, and reused for the kept
+ * sentences and for the parsed sentences whose content is not changed. Validators
+ * which are not context-free ({@link Validator#isContextFree()}) are reset, and the
+ * pre-processors are applied to the whole text before they are run on every sentence
+ * again. Section validators are run again
+ * on the edited section; a plain text document has a single section.
+ * This class is not thread safe.
+ */
+public final class IncrementalValidator {
+    // number of boundaries tried before parsing the rest of the text
+    private static final int MAX_RESYNC_ATTEMPTS = 3;
+
+    private final RedPen redPen;
+    // the text is already decoded, so it is passed to the parser in UTF-8 regardless of input-encoding
+    private final Configuration parserConfiguration;
+    private final RedPenTokenizer tokenizer;
+    private final boolean[] contextFree;
+
+    /**
+     * Constructor.
+     *
+     * @param redPen RedPen whose configuration and validators are used
+     */
+    public IncrementalValidator(RedPen redPen) {
+        this.redPen = redPen;
+        this.parserConfiguration = new Configuration.Builder(redPen.getConfiguration())
+                .setInputCharset(StandardCharsets.UTF_8)
+                .build();
+        this.tokenizer = TokenizerRegistry.getInstance().getTokenizer(
+                redPen.getConfiguration().getSymbolTable());
+        List<Validator<Sentence>> validators = redPen.getSentenceValidators();
+        this.contextFree = new boolean[validators.size()];
+        for (int i = 0; i < validators.size(); i++) {
+            contextFree[i] = validators.get(i).isContextFree();
+        }
+    }
+
+    /**
+     * Parse and validate the whole text.
+     *
+     * @param text plain text
+     * @return result, which is passed to {@link #revalidate} on the next edit
+     * @throws RedPenException when failed to parse the text
+     */
+    public Result validate(String text) throws RedPenException {
+        Document parsed = parse(text);
+        Layout layout = new Layout();
+        scan(text, 0, text.length(), 0, layout);
+        Section section = parsed.getSection(0);
+        checkLayout(section, layout);
+
+        Map<Sentence, List<List<ValidationError>>> sentenceErrors = new IdentityHashMap<>();
+        RedPen.forEachSentence(section, sentence -> sentenceErrors.put(sentence, validateContextFree(sentence)));
+        return assemble(text, parsed, layout, sentenceErrors);
+    }
+
+    /**
+     * Validate the text after an edit, parsing and validating only the edited part.
+     * <p>
+     * NOTE: the sentences and the errors kept from the previous result are moved to
+     * the returned result; the previous result should not be used after this call.
+     *
+     * @param previous result of the text before the edit
+     * @param edit     edit of the text
+     * @return result of the edited text
+     * @throws RedPenException when failed to parse the text
+     */
+    public Result revalidate(Result previous, TextEdit edit) throws RedPenException {
+        String text = edit.apply(previous.text);
+        int offset = edit.getOffset();
+        int removedEnd = offset + edit.getRemovedLength();
+        int delta = edit.getLengthDelta();
+        int[] starts = previous.paragraphStarts;
+        int count = starts.length;
+
+        // last boundary before the edit
+        int first = 0;
+        for (int k = count - 1; k > 0; k--) {
+            if (previous.cleanStarts[k] && (starts[k] < offset
+                    || (starts[k] == offset && previous.text.charAt(offset - 1) == '\n'))) {
+                first = k;
+                break;
+            }
+        }
+        int start = starts[first];
+        int startLine = previous.paragraphLines[first];
+
+        // first boundary after the edit where the parser state is the same as before
+        Document parsed = null;
+        int last = count;
+        int attempts = 0;
+        for (int k = first + 1; k < count && attempts < MAX_RESYNC_ATTEMPTS; k++) {
+            if (!previous.cleanStarts[k] || starts[k] - 1 < removedEnd) {
+                continue;
+            }
+            Document candidate = parse(text.substring(start, starts[k] + delta));
+            attempts++;
+            Section candidateSection = candidate.getSection(0);
+            Paragraph lastParagraph = candidateSection.getParagraph(
+                    candidateSection.getNumberOfParagraphs() - 1);
+            if (lastParagraph.getNumberOfSentences() == 0) {
+                parsed = candidate;
+                last = k;
+                break;
+            }
+        }
+        int end = last < count ? starts[last] + delta : text.length();
+        if (parsed == null) {
+            parsed = parse(text.substring(start));
+        }
+        Layout parsedLayout = new Layout();
+        int endLine = scan(text, start, end, startLine, parsedLayout);
+        List<Paragraph> parsedParagraphs = parsed.getSection(0).getParagraphs();
+        checkLayout(parsed.getSection(0), parsedLayout);
+        int lineDelta = last < count ? endLine - previous.paragraphLines[last] : 0;
+
+        Section previousSection = previous.document.getSection(0);
+        List<Paragraph> previousParagraphs = previousSection.getParagraphs();
+        Section section = new Section(0, previousSection.getHeaderContents());
+        Layout layout = new Layout();
+        Map<Sentence, List<List<ValidationError>>> sentenceErrors = new IdentityHashMap<>();
+        for (Sentence header : previousSection.getHeaderContents()) {
+            sentenceErrors.put(header, previous.sentenceErrors.get(header));
+        }
+        for (int k = 0; k < first; k++) {
+            Paragraph paragraph = previousParagraphs.get(k);
+            section.appendParagraph(paragraph);
+            layout.add(starts[k], previous.paragraphLines[k]);
+            for (Sentence sentence : paragraph.getSentences()) {
+                sentenceErrors.put(sentence, previous.sentenceErrors.get(sentence));
+            }
+        }
+
+        // sentences replaced by the parsed paragraphs, by content
+        Map<String, Deque<Sentence>> replaced = new HashMap<>();
+        for (int k = first; k < last; k++) {
+            for (Sentence sentence : previousParagraphs.get(k).getSentences()) {
+                replaced.computeIfAbsent(keyOf(sentence), key -> new ArrayDeque<>()).add(sentence);
+            }
+        }
+        int parsedCount = last < count ? parsedParagraphs.size() - 1 : parsedParagraphs.size();
+        for (int i = 0; i < parsedCount; i++) {
+            Paragraph paragraph = parsedParagraphs.get(i);
+            section.appendParagraph(paragraph);
+            layout.add(parsedLayout.starts[i], parsedLayout.lines[i]);
+            for (Sentence sentence : paragraph.getSentences()) {
+                shift(sentence, start, startLine);
+                Deque<Sentence> sameContent = replaced.get(keyOf(sentence));
+                Sentence unchanged = sameContent == null ? null : sameContent.poll();
+                if (unchanged == null) {
+                    sentenceErrors.put(sentence, validateContextFree(sentence));
+                } else {
+                    List<List<ValidationError>> errors = previous.sentenceErrors.get(unchanged);
+                    moveErrors(errors, sentence, sentence.position - unchanged.position);
+                    sentenceErrors.put(sentence, errors);
+                }
+            }
+        }
+
+        for (int k = last; k < count; k++) {
+            Paragraph paragraph = previousParagraphs.get(k);
+            section.appendParagraph(paragraph);
+            layout.add(starts[k] + delta, previous.paragraphLines[k] + lineDelta);
+            for (Sentence sentence : paragraph.getSentences()) {
+                shift(sentence, delta, lineDelta);
+                List<List<ValidationError>> errors = previous.sentenceErrors.get(sentence);
+                moveErrors(errors, sentence, lineDelta);
+                sentenceErrors.put(sentence, errors);
+            }
+        }
+
+        Document document = new Document();
+        document.setFileName(previous.document.getFileName());
+        document.appendSection(section);
+        return assemble(text, document, layout, sentenceErrors);
+    }
+
+    private Document parse(String text) throws RedPenException {
+        Metrics metrics = redPen.getMetrics();
+        DocumentCollection.Builder builder = new DocumentCollection.Builder(tokenizer).setMetrics(metrics);
+        DocumentParser parser = DocumentParserFactory.generate(
+                DocumentParser.Type.PLAIN, parserConfiguration, builder);
+        long startTime = System.nanoTime();
+        Document document = parser.generateDocument(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        if (metrics != null) {
+            metrics.getTimer(Metrics.PARSE).record(System.nanoTime() - startTime);
+        }
+        return document;
+    }
+
+    /**
+     * Run the validators independent of the other sentences.
+     *
+     * @return errors per validator, null for the validators depending on the other sentences
+     */
+    private List<List<ValidationError>> validateContextFree(Sentence sentence) {
+        List<Validator<Sentence>> validators = redPen.getSentenceValidators();
+        List<List<ValidationError>> errors = new ArrayList<>(validators.size());
+        for (int i = 0; i < validators.size(); i++) {
+            errors.add(contextFree[i] ? redPen.runValidator(validators.get(i), sentence) : null);
+        }
+        return errors;
+    }
+
+    /**
+     * Run the section validators and the validators depending on the other sentences,
+     * and collect the errors in the same order as {@link RedPen#check(DocumentCollection)}.
+     */
+    private Result assemble(String text, Document document, Layout layout,
+                            Map<Sentence, List<List<ValidationError>>> sentenceErrors) {
+        Section section = document.getSection(0);
+        List<Validator<Sentence>> validators = redPen.getSentenceValidators();
+        redPen.restart(document);
+        List<ValidationError> errors = new ArrayList<>(redPen.validateSection(section));
+        RedPen.forEachSentence(section, sentence -> {
+            List<List<ValidationError>> cached = sentenceErrors.get(sentence);
+            for (int i = 0; i < validators.size(); i++) {
+                errors.addAll(contextFree[i] ? cached.get(i) : redPen.runValidator(validators.get(i), sentence));
+            }
+        });
+        errors.sort(Comparator.comparingInt(ValidationError::getLineNumber));
+        for (ValidationError error : errors) {
+            error.setFileName(document.getFileName());
+        }
+        return new Result(text, document, layout, sentenceErrors, errors);
+    }
+
+    private static void shift(Sentence sentence, int offsetDelta, int lineDelta) {
+        sentence.position += lineDelta;
+        if (sentence.startOffset >= 0) {
+            sentence.startOffset += offsetDelta;
+            sentence.endOffset += offsetDelta;
+        }
+    }
+
+    private static void moveErrors(List<List<ValidationError>> errors, Sentence sentence, int lineDelta) {
+        for (List<ValidationError> validatorErrors : errors) {
+            if (validatorErrors == null) {
+                continue;
+            }
+            for (ValidationError error : validatorErrors) {
+                error.setSentence(sentence);
+                error.setLineNumber(error.getLineNumber() + lineDelta);
+            }
+        }
+    }
+
+    private static String keyOf(Sentence sentence) {
+        return (sentence.isFirstSentence ? '1' : '0') + sentence.content;
+    }
+
+    /**
+     * Find the paragraphs in the text as the plain text parser does; a paragraph
+     * starts at the beginning of the range and next to every empty line.
+     *
+     * @return line number at the end of the range
+     */
+    private static int scan(String text, int start, int end, int line, Layout layout) {
+        layout.add(start, line);
+        int lineStart = start;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                boolean empty = i == lineStart;
+                i += c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n' ? 2 : 1;
+                line++;
+                lineStart = i;
+                if (empty) {
+                    layout.add(i, line);
+                }
+            } else {
+                i++;
+            }
+        }
+        return lineStart < end ? line + 1 : line;
+    }
+
+    private static void checkLayout(Section section, Layout layout) {
+        if (section.getNumberOfParagraphs() != layout.size) {
+            throw new IllegalStateException("Parsed " + section.getNumberOfParagraphs()
+                    + " paragraphs while " + layout.size + " paragraphs are found in the text");
+        }
+    }
+
+    /**
+     * Start offsets and line numbers of paragraphs.
+     */
+    private static final class Layout {
+        private int[] starts = new int[16];
+        private int[] lines = new int[16];
+        private int size = 0;
+
+        private void add(int start, int line) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                lines = Arrays.copyOf(lines, size * 2);
+            }
+            starts[size] = start;
+            lines[size] = line;
+            size++;
+        }
+    }
+
+    /**
+     * Parsed and validated text.
+     */
+    public static final class Result {
+        private final String text;
+        private final Document document;
+        private final int[] paragraphStarts;
+        private final int[] paragraphLines;
+        // whether the parser has no pending text at the beginning of each paragraph
+        private final boolean[] cleanStarts;
+        private final Map<Sentence, List<List<ValidationError>>> sentenceErrors;
+        private final List<ValidationError> errors;
+
+        private Result(String text, Document document, Layout layout,
+                       Map<Sentence, List<List<ValidationError>>> sentenceErrors,
+                       List<ValidationError> errors) {
+            this.text = text;
+            this.document = document;
+            this.paragraphStarts = Arrays.copyOf(layout.starts, layout.size);
+            this.paragraphLines = Arrays.copyOf(layout.lines, layout.size);
+            this.sentenceErrors = sentenceErrors;
+            this.errors = Collections.unmodifiableList(errors);
+
+            // the pending text at a boundary would be the head of the next sentence
+            List<Paragraph> paragraphs = document.getSection(0).getParagraphs();
+            this.cleanStarts = new boolean[paragraphs.size()];
+            int nextSentenceStart = Integer.MAX_VALUE;
+            for (int k = paragraphs.size() - 1; k >= 0; k--) {
+                List<Sentence> sentences = paragraphs.get(k).getSentences();
+                if (!sentences.isEmpty()) {
+                    nextSentenceStart = sentences.get(0).startOffset;
+                }
+                cleanStarts[k] = nextSentenceStart >= paragraphStarts[k];
+            }
+        }
+
+        /**
+         * Get the validated text.
+         *
+         * @return text
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Get the document parsed from the text.
+         *
+         * @return document
+         */
+        public Document getDocument() {
+            return document;
+        }
+
+        /**
+         * Get the validation errors, sorted by line number.
+         *
+         * @return list of validation errors
+         */
+        public List<ValidationError> getErrors() {
+            return errors;
+        }
+    }
+}
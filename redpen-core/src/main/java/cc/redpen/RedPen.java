@@ -21,6 +21,9 @@ import cc.redpen.config.Configuration;
 import cc.redpen.config.ValidatorConfiguration;
 import cc.redpen.distributor.DefaultResultDistributor;
 import cc.redpen.distributor.ResultDistributor;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.metrics.MetricsSnapshot;
+import cc.redpen.metrics.Timer;
 import cc.redpen.model.Document;
 import cc.redpen.model.DocumentCollection;
 import cc.redpen.model.ListBlock;
@@ -39,24 +42,51 @@ import java.io.InputStream;
 import java.io.PrintStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * Validate all input files using appended Validators.
  */
-public class RedPen extends Validator<Document> {
+public class RedPen extends Validator<Document> implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(RedPen.class);
 
     private final List<Validator<Document>> validators = new ArrayList<>();
     private final List<Validator<Section>> sectionValidators = new ArrayList<>();
     private final List<Validator<Sentence>> sentenceValidators = new ArrayList<>();
+    private final List<PreProcessor<Sentence>> preprocessors = new ArrayList<>();
     private final ResultDistributor distributor;
     private final Configuration configuration;
-
-    private RedPen(Configuration configuration, ResultDistributor distributor) throws RedPenException {
+    private final int parallelism;
+    private final Metrics metrics;
+    private final Map<Validator<?>, Timer> validatorTimers = new IdentityHashMap<>();
+    private final SentenceCache sentenceCache;
+    private final String fingerprint;
+    // indexes of the sentence validators in the configuration, used as keys of the cache
+    private final Map<Validator<?>, Integer> validatorIndexes = new IdentityHashMap<>();
+    private final ValidatorSet allValidators =
+            new ValidatorSet(validators, sectionValidators, sentenceValidators);
+    // validators split by isThreadSafe(), used when documents are validated in parallel
+    private final ValidatorSet sharedValidators = new ValidatorSet();
+    private final ValidatorSet confinedValidators = new ValidatorSet();
+
+    private RedPen(Configuration configuration, ResultDistributor distributor, int parallelism,
+                   Metrics metrics, SentenceCache sentenceCache) throws RedPenException {
         this.configuration = configuration;
         this.distributor = distributor;
+        this.parallelism = parallelism;
+        this.metrics = metrics;
+        this.sentenceCache = sentenceCache;
+        this.fingerprint = sentenceCache == null ? null : SentenceCache.fingerprint(configuration);
         loadValidators();
     }
 
@@ -85,6 +115,33 @@ public class RedPen extends Validator<Document> {
         return this.configuration;
     }
 
+    /**
+     * Get the number of worker threads used to validate documents.
+     *
+     * @return parallelism, 1 when documents are validated sequentially
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Get the metrics recorded by this instance.
+     *
+     * @return metrics, or null when metrics are disabled
+     */
+    public Metrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Take a snapshot of the invocation counts, latencies and errors of the validators.
+     *
+     * @return snapshot, which has no timers when metrics are disabled
+     */
+    public MetricsSnapshot getMetricsSnapshot() {
+        return metrics == null ? MetricsSnapshot.empty() : metrics.snapshot();
+    }
+
     /**
      * Load validators written in the configuration file.
      */
@@ -100,19 +157,33 @@ public class RedPen extends Validator<Document> {
             Validator<?> validator = ValidatorFactory.getInstance(
                     config, configuration.getSymbolTable());
             Type type = getParameterizedClass(validator);
+            if (metrics != null) {
+                validatorTimers.put(validator, metrics.getTimer(validator.getClass().getSimpleName()));
+            }
 
             if (type == Sentence.class) {
+                validatorIndexes.put(validator, sentenceValidators.size());
                 this.sentenceValidators.add((Validator<Sentence>) validator);
+                if (validator instanceof PreProcessor) {
+                    this.preprocessors.add((PreProcessor<Sentence>) validator);
+                }
             } else if (type == Section.class) {
                 this.sectionValidators.add((Validator<Section>) validator);
             } else {
                 throw new IllegalStateException("No validator for " + type + " block.");
             }
         }
+        allValidators.split(sharedValidators, confinedValidators);
     }
 
     /**
      * Validate the input document collection.
+     * <p>
+     * Each document is validated in a single traversal of its tree; document validators,
+     * section validators and sentence validators are applied while walking the sections.
+     * When pre-processors are configured, they are applied to the whole collection
+     * before the traversal, so that every pre-processor has finished on a sentence
+     * before any validator sees it.
      *
      * @param documentCollection input document collection generated by Parser
      * @return list of validation errors
@@ -120,166 +191,345 @@ public class RedPen extends Validator<Document> {
     public List<ValidationError> check(DocumentCollection documentCollection) {
         distributor.flushHeader();
         List<ValidationError> errors = new ArrayList<>();
-        runDocumentValidators(documentCollection, errors);
-        runSectionValidators(documentCollection, errors);
-        runSentenceValidators(documentCollection, errors);
+        runPreProcessors(documentCollection);
+        if (parallelism > 1 && documentCollection.size() > 1) {
+            runValidatorsInParallel(documentCollection, errors);
+        } else {
+            for (Document document : documentCollection) {
+                List<ValidationError> documentErrors =
+                        validateDocumentTree(document, allValidators);
+                flushDocumentErrors(document, documentErrors);
+                errors.addAll(documentErrors);
+            }
+        }
         distributor.flushFooter();
         return errors;
     }
 
-    private List<ValidationError> runDocumentValidators(
-            DocumentCollection documentCollection,
-            List<ValidationError> errors) {
-        for (Document document : documentCollection) {
-            errors = validateDocument(document);
-            for (ValidationError error : errors) {
-                error.setFileName(document.getFileName());
-                flushError(error);
+    /**
+     * Validate the documents in the stream as they arrive. Errors are flushed to
+     * the result distributor and are not retained, so every document can be
+     * garbage collected after it is validated. When the parallelism is larger than 1,
+     * the documents are validated concurrently and the errors are flushed in
+     * document order.
+     * <p>
+     * NOTE: pre-processors have to see the whole input before validation, so when
+     * they are configured, all the documents are taken from the stream first and
+     * validated as a collection.
+     *
+     * @param documentStream stream of documents
+     * @return the number of validation errors
+     * @throws RedPenException when failed to generate a document
+     */
+    public int check(DocumentStream documentStream) throws RedPenException {
+        if (!preprocessors.isEmpty()) {
+            return check(takeAll(documentStream)).size();
+        }
+        distributor.flushHeader();
+        try {
+            if (parallelism > 1) {
+                return validateStreamInParallel(documentStream);
+            }
+            int errorCount = 0;
+            Document document;
+            while ((document = documentStream.take()) != null) {
+                List<ValidationError> documentErrors =
+                        validateDocumentTree(document, allValidators);
+                flushDocumentErrors(document, documentErrors);
+                errorCount += documentErrors.size();
             }
+            return errorCount;
+        } finally {
+            distributor.flushFooter();
         }
-        return errors;
     }
 
-    private void flushError(ValidationError error) {
-        /**
-         * When the flush of input error is failed, the output process continues skipping the failed error.
-         */
-        try {
-            distributor.flushError(error);
-        } catch (RedPenException e) {
-            LOG.error("Failed to flush error: " + error.toString());
-            LOG.error("Skipping to flush this error...");
+    private static DocumentCollection takeAll(DocumentStream documentStream) throws RedPenException {
+        DocumentCollection documentCollection = new DocumentCollection();
+        Document document;
+        while ((document = documentStream.take()) != null) {
+            documentCollection.addDocument(document);
         }
+        return documentCollection;
     }
 
-    private List<ValidationError> runSectionValidators(
-            DocumentCollection documentCollection,
-            List<ValidationError> errors) {
-        for (Document document : documentCollection) {
-            for (Section section : document) {
-                List<ValidationError> newErrors = validateSection(section);
-                for (ValidationError error : newErrors) {
-                    error.setFileName(document.getFileName());
-                    flushError(error);
+    /**
+     * Validate the documents in the stream concurrently. At most two documents per
+     * thread are validated ahead of the document being flushed, and the validators
+     * which are not thread safe run on the calling thread in document order.
+     */
+    private int validateStreamInParallel(DocumentStream documentStream) throws RedPenException {
+        int maxPending = parallelism * 2;
+        Deque<Document> documents = new ArrayDeque<>();
+        Deque<Future<List<ValidationError>>> futures = new ArrayDeque<>();
+        int errorCount = 0;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Document document;
+            while ((document = documentStream.take()) != null) {
+                Document submitted = document;
+                documents.add(submitted);
+                futures.add(pool.submit(() -> validateDocumentTree(submitted, sharedValidators)));
+                if (futures.size() >= maxPending) {
+                    errorCount += flushNextDocument(documents, futures);
                 }
-                errors.addAll(newErrors);
             }
+            while (!futures.isEmpty()) {
+                errorCount += flushNextDocument(documents, futures);
+            }
+        } finally {
+            pool.shutdownNow();
         }
-        return errors;
+        return errorCount;
     }
 
-    private List<ValidationError> runSentenceValidators(
-            DocumentCollection documentCollection,
-            List<ValidationError> errors) {
-        runSentencePreProcessorsToDocumentCollection(documentCollection, errors);
-        runSentenceValidatorsToDocumentCollection(documentCollection, errors);
-        return errors;
+    private int flushNextDocument(Deque<Document> documents,
+                                  Deque<Future<List<ValidationError>>> futures) {
+        Document document = documents.poll();
+        List<ValidationError> documentErrors = new ArrayList<>(waitFor(futures.poll()));
+        if (!confinedValidators.isEmpty()) {
+            documentErrors.addAll(validateDocumentTree(document, confinedValidators));
+        }
+        flushDocumentErrors(document, documentErrors);
+        return documentErrors.size();
     }
 
-    private void runSentencePreProcessorsToDocumentCollection(
-            DocumentCollection documentCollection, List<ValidationError> errors) {
-        for (Document document : documentCollection) {
-            for (Section section : document) {
-                applySentencePreProcessorsToSection(document, section);
+    /**
+     * Validate the documents concurrently. The validators which are not thread safe run
+     * on the calling thread in document order. The errors are flushed and returned
+     * ordered by document and then by line number.
+     */
+    private void runValidatorsInParallel(DocumentCollection documentCollection,
+                                         List<ValidationError> errors) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<List<ValidationError>>> futures = new ArrayList<>();
+            for (Document document : documentCollection) {
+                futures.add(pool.submit(() -> validateDocumentTree(document, sharedValidators)));
             }
+
+            int i = 0;
+            for (Document document : documentCollection) {
+                List<ValidationError> documentErrors = new ArrayList<>(waitFor(futures.get(i++)));
+                if (!confinedValidators.isEmpty()) {
+                    documentErrors.addAll(validateDocumentTree(document, confinedValidators));
+                }
+                flushDocumentErrors(document, documentErrors);
+                errors.addAll(documentErrors);
+            }
+        } finally {
+            pool.shutdown();
         }
     }
 
-    private void applySentencePreProcessorsToSection(Document document, Section section) {
-        // apply paragraphs
-        for (Paragraph paragraph : section.getParagraphs()) {
-            preprocessSentences(paragraph.getSentences());
+    /**
+     * Apply the pre-processors to every sentence in the collection.
+     */
+    private void runPreProcessors(DocumentCollection documentCollection) {
+        if (preprocessors.isEmpty()) {
+            return;
         }
-        // apply to section header
-        preprocessSentences(section.getHeaderContents());
-        // apply to lists
-        for (ListBlock listBlock : section.getListBlocks()) {
-            for (ListElement listElement : listBlock.getListElements()) {
-                preprocessSentences(listElement.getSentences());
-            }
+        for (Document document : documentCollection) {
+            runPreProcessors(document);
         }
     }
 
-    private void preprocessSentences(List<Sentence> sentences) {
-        for (Validator<Sentence> sentenceValidator : sentenceValidators) {
-            Class<?> clazz = sentenceValidator.getClass();
-            if (clazz.getInterfaces().length > 0 &&
-                    clazz.getInterfaces()[0].equals(cc.redpen.validator.PreProcessor.class)) {
-                PreProcessor<Sentence> preprocessor = (PreProcessor<Sentence>) sentenceValidator;
-                for (Sentence sentence : sentences) {
-                    preprocessor.preprocess(sentence);
-                }
-            }
+    private void runPreProcessors(Document document) {
+        if (preprocessors.isEmpty()) {
+            return;
+        }
+        for (Section section : document) {
+            forEachSentence(section, this::preprocess);
         }
     }
 
-    private void runSentenceValidatorsToDocumentCollection(
-            DocumentCollection documentCollection, List<ValidationError> errors) {
-        for (Document document : documentCollection) {
-            for (Section section : document) {
-                List<ValidationError> newErrors =
-                        applySentenceValidationsToSection(document, section);
-                errors.addAll(newErrors);
+    /**
+     * Run the validators on a document in one traversal.
+     *
+     * @param document   input
+     * @param validators validators to apply
+     * @return errors of the document
+     */
+    private List<ValidationError> validateDocumentTree(Document document, ValidatorSet validators) {
+        List<ValidationError> errors = validateDocument(document, validators.documentValidators);
+        for (Section section : document) {
+            errors.addAll(validateSection(section, validators.sectionValidators));
+            if (!validators.sentenceValidators.isEmpty()) {
+                forEachSentence(section, sentence -> errors.addAll(
+                        validateSentence(sentence, validators.sentenceValidators)));
             }
         }
+        return errors;
     }
 
-    private List<ValidationError> applySentenceValidationsToSection(
-            Document document, Section section) {
-        List<ValidationError> newErrors = new ArrayList<>();
-        // apply paragraphs
-        for (Paragraph paragraph : section.getParagraphs()) {
-            newErrors.addAll(validateParagraph(paragraph));
+    private void flushDocumentErrors(Document document, List<ValidationError> documentErrors) {
+        documentErrors.sort(Comparator.comparingInt(ValidationError::getLineNumber));
+        for (ValidationError error : documentErrors) {
+            error.setFileName(document.getFileName());
+            flushError(error);
         }
+    }
 
-        // apply to section header
-        newErrors.addAll(validateSentences(section.getHeaderContents()));
-
-        // apply to lists
+    /**
+     * Visit the sentences in a section; paragraphs first, then the section header and lists.
+     */
+    static void forEachSentence(Section section, Consumer<Sentence> action) {
+        for (Paragraph paragraph : section.getParagraphs()) {
+            paragraph.getSentences().forEach(action);
+        }
+        section.getHeaderContents().forEach(action);
         for (ListBlock listBlock : section.getListBlocks()) {
             for (ListElement listElement : listBlock.getListElements()) {
-                newErrors.addAll(validateSentences(listElement.getSentences()));
+                listElement.getSentences().forEach(action);
             }
         }
-        for (ValidationError error : newErrors) {
-            error.setFileName(document.getFileName());
-            flushError(error);
+    }
+
+    private static List<ValidationError> waitFor(Future<List<ValidationError>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating documents", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Failed to validate document", e.getCause());
         }
-        return newErrors;
     }
 
-    private List<ValidationError> validateDocument(Document document) {
+    private void flushError(ValidationError error) {
+        /**
+         * When the flush of input error is failed, the output process continues skipping the failed error.
+         */
+        try {
+            distributor.flushError(error);
+        } catch (RedPenException e) {
+            LOG.error("Failed to flush error: " + error.toString());
+            LOG.error("Skipping to flush this error...");
+        }
+    }
+
+    private List<ValidationError> validateDocument(Document document,
+                                                   List<Validator<Document>> documentValidators) {
         List<ValidationError> errors = new ArrayList<>();
-        for (Validator<Document> validator : validators) {
-            errors.addAll(validator.validate(document));
+        for (Validator<Document> validator : documentValidators) {
+            errors.addAll(runValidator(validator, document));
         }
         return errors;
     }
 
-    private List<ValidationError> validateSection(Section section) {
+    /**
+     * Get the sentence validators in the configured order.
+     */
+    List<Validator<Sentence>> getSentenceValidators() {
+        return sentenceValidators;
+    }
+
+    /**
+     * Reset the validators and apply the pre-processors to the document, so that the
+     * document is validated as by a new instance.
+     */
+    void restart(Document document) {
+        validators.forEach(Validator::reset);
+        sectionValidators.forEach(Validator::reset);
+        sentenceValidators.forEach(Validator::reset);
+        runPreProcessors(document);
+    }
+
+    /**
+     * Apply the pre-processors to a sentence.
+     */
+    private void preprocess(Sentence sentence) {
+        for (PreProcessor<Sentence> preprocessor : preprocessors) {
+            preprocessor.preprocess(sentence);
+        }
+    }
+
+    List<ValidationError> validateSection(Section section) {
+        return validateSection(section, sectionValidators);
+    }
+
+    private List<ValidationError> validateSection(Section section,
+                                                  List<Validator<Section>> sectionValidators) {
         List<ValidationError> errors = new ArrayList<>();
         for (Validator<Section> sectionValidator : sectionValidators) {
-            errors.addAll(sectionValidator.validate(section));
+            errors.addAll(runValidator(sectionValidator, section));
         }
         return errors;
     }
 
-    private List<ValidationError> validateParagraph(Paragraph paragraph) {
+    private List<ValidationError> validateSentence(Sentence sentence,
+                                                   List<Validator<Sentence>> sentenceValidators) {
         List<ValidationError> errors = new ArrayList<>();
-        errors.addAll(validateSentences(paragraph.getSentences()));
+        SentenceCache.Errors cachedErrors = sentenceCache == null ? null
+                : sentenceCache.getErrors(fingerprint, getDictionaryVersion(), sentence,
+                this.sentenceValidators.size());
+        for (Validator<Sentence> sentenceValidator : sentenceValidators) {
+            if (cachedErrors == null || !sentenceValidator.isContextFree()) {
+                errors.addAll(runValidator(sentenceValidator, sentence));
+                continue;
+            }
+            int index = validatorIndexes.get(sentenceValidator);
+            List<ValidationError> validatorErrors = cachedErrors.get(index);
+            if (validatorErrors == null) {
+                validatorErrors = runValidator(sentenceValidator, sentence);
+                cachedErrors.put(index, validatorErrors);
+            }
+            errors.addAll(validatorErrors);
+        }
         return errors;
     }
 
-    private List<ValidationError> validateSentences(List<Sentence> sentences) {
-        List<ValidationError> errors = new ArrayList<>();
+    /**
+     * Get the version of the shared dictionaries of the loaded validators; the errors
+     * cached before a dictionary is reloaded are not reused.
+     *
+     * @return version of the shared dictionaries
+     */
+    @Override
+    public long getDictionaryVersion() {
+        long version = 0;
+        for (Validator<Document> validator : validators) {
+            version = 31 * version + validator.getDictionaryVersion();
+        }
+        for (Validator<Section> sectionValidator : sectionValidators) {
+            version = 31 * version + sectionValidator.getDictionaryVersion();
+        }
         for (Validator<Sentence> sentenceValidator : sentenceValidators) {
-            for (Sentence sentence : sentences) {
-                errors.addAll(sentenceValidator.validate(sentence));
-            }
+            version = 31 * version + sentenceValidator.getDictionaryVersion();
+        }
+        return version;
+    }
+
+    /**
+     * Apply a validator, recording the elapsed time and the errors when metrics are enabled.
+     */
+    <E> List<ValidationError> runValidator(Validator<E> validator, E block) {
+        if (metrics == null) {
+            return validator.validate(block);
         }
+        long start = System.nanoTime();
+        List<ValidationError> errors = validator.validate(block);
+        validatorTimers.get(validator).record(System.nanoTime() - start, errors.size());
         return errors;
     }
 
+    /**
+     * Release the resources, such as shared dictionaries, held by the validators.
+     * RedPen should not be used after it is closed.
+     */
+    @Override
+    public void close() {
+        sectionValidators.forEach(Validator::close);
+        sentenceValidators.forEach(Validator::close);
+        super.close();
+    }
+
     /**
      * Run validation.
      *
@@ -327,6 +577,48 @@ public class RedPen extends Validator<Document> {
                 '}';
     }
 
+    /**
+     * Validators of each block type applied in a traversal of a document.
+     */
+    private static final class ValidatorSet {
+        private final List<Validator<Document>> documentValidators;
+        private final List<Validator<Section>> sectionValidators;
+        private final List<Validator<Sentence>> sentenceValidators;
+
+        private ValidatorSet() {
+            this(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        }
+
+        private ValidatorSet(List<Validator<Document>> documentValidators,
+                             List<Validator<Section>> sectionValidators,
+                             List<Validator<Sentence>> sentenceValidators) {
+            this.documentValidators = documentValidators;
+            this.sectionValidators = sectionValidators;
+            this.sentenceValidators = sentenceValidators;
+        }
+
+        private boolean isEmpty() {
+            return documentValidators.isEmpty() && sectionValidators.isEmpty()
+                    && sentenceValidators.isEmpty();
+        }
+
+        /**
+         * Add the thread safe validators to shared, and the others to confined.
+         */
+        private void split(ValidatorSet shared, ValidatorSet confined) {
+            split(documentValidators, shared.documentValidators, confined.documentValidators);
+            split(sectionValidators, shared.sectionValidators, confined.sectionValidators);
+            split(sentenceValidators, shared.sentenceValidators, confined.sentenceValidators);
+        }
+
+        private static <E> void split(List<Validator<E>> validators,
+                                      List<Validator<E>> shared, List<Validator<E>> confined) {
+            for (Validator<E> validator : validators) {
+                (validator.isThreadSafe() ? shared : confined).add(validator);
+            }
+        }
+    }
+
     /**
      * Builder for {@link cc.redpen.RedPen}.
      */
@@ -338,6 +630,12 @@ public class RedPen extends Validator<Document> {
                 new PrintStream(System.out)
         );
 
+        private int parallelism = 1;
+
+        private Metrics metrics;
+
+        private SentenceCache sentenceCache;
+
         public Builder setConfiguration(Configuration configuration) {
             this.configuration = configuration;
             return this;
@@ -362,11 +660,52 @@ public class RedPen extends Validator<Document> {
             return this;
         }
 
+        /**
+         * Set the number of worker threads to validate documents.
+         * When the value is larger than 1, documents are validated concurrently.
+         *
+         * @param parallelism number of worker threads
+         * @return this builder
+         */
+        public Builder setParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Record the invocation counts, latencies and errors of the validators.
+         * Pass the same metrics to {@link DocumentGenerator} to record parsing and
+         * tokenization as well.
+         *
+         * @param metrics metrics to record, or null to disable the recording
+         * @return this builder
+         */
+        public Builder setMetrics(Metrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Reuse the errors of the context-free validators for sentences of the same
+         * content in the cache. Pass the same cache to {@link DocumentGenerator} to
+         * reuse the tokens as well.
+         *
+         * @param sentenceCache cache of sentences, or null to disable the cache
+         * @return this builder
+         */
+        public Builder setSentenceCache(SentenceCache sentenceCache) {
+            this.sentenceCache = sentenceCache;
+            return this;
+        }
+
         public RedPen build() throws RedPenException {
             if (configuration == null) {
                 throw new IllegalStateException("Configuration not set.");
             }
-            return new RedPen(configuration, distributor);
+            return new RedPen(configuration, distributor, parallelism, metrics, sentenceCache);
         }
     }
 }
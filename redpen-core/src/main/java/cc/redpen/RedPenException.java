@@ -44,7 +44,7 @@ public class RedPenException extends Exception {
      * @param message error message
      * @param cause   error cause
      */
-    public RedPenException(String message, Exception cause) {
+    public RedPenException(String message, Throwable cause) {
         super(message, cause);
     }
 
@@ -0,0 +1,332 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.Configuration;
+import cc.redpen.config.Symbol;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.model.Sentence;
+import cc.redpen.tokenizer.RedPenTokenizer;
+import cc.redpen.tokenizer.TokenElement;
+import cc.redpen.tokenizer.TokenizerRegistry;
+import cc.redpen.validator.ValidationError;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Cache of the tokens and the validation errors of sentences, so that sentences
+ * repeated in many documents (e.g. license headers) are tokenized and validated once.
+ * <p>
+ * Sentences are looked up by content. Tokens are stored per tokenizer class, and
+ * errors are stored per configuration fingerprint (see {@link #fingerprint}) and
+ * version of the shared dictionaries for the context-free validators
+ * ({@link cc.redpen.validator.Validator#isContextFree()}), so that the errors found
+ * before a user dictionary is reloaded are not reused.
+ * The least recently used entries are evicted when the number of entries exceeds
+ * the maximum. This class is thread safe; a cache can be shared by RedPen instances
+ * of different configurations.
+ */
+public final class SentenceCache {
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries maximum number of entries
+     */
+    public SentenceCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Maximum number of entries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SentenceCache.Entry> eldest) {
+                return size() > SentenceCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Compute the fingerprint of a configuration. Configurations of the same fingerprint
+     * load the same validators, and the validators produce the same errors for a sentence.
+     * The default locale is included since the error messages are localized with it,
+     * and so is the tokenizer since the errors depend on the tokens.
+     *
+     * @param configuration configuration
+     * @return fingerprint
+     */
+    public static String fingerprint(Configuration configuration) {
+        StringBuilder description = new StringBuilder();
+        description.append(Locale.getDefault()).append('\n');
+        description.append(configuration.getSymbolTable().getLang()).append('\n');
+        description.append(TokenizerRegistry.getInstance().getTokenizer(configuration.getSymbolTable())
+                .getClass().getName()).append('\n');
+        for (Symbol symbol : new TreeMap<>(configuration.getSymbolTable().getSymbolDictionary()).values()) {
+            description.append(symbol.getName()).append('=').append(symbol.getValue())
+                    .append(symbol.getInvalidSymbols())
+                    .append(symbol.isNeedBeforeSpace()).append(symbol.isNeedAfterSpace()).append('\n');
+        }
+        for (ValidatorConfiguration validatorConfiguration : configuration.getValidatorConfigs()) {
+            describe(validatorConfiguration, description);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder fingerprint = new StringBuilder();
+            for (byte b : digest.digest(description.toString().getBytes(StandardCharsets.UTF_8))) {
+                fingerprint.append(String.format("%02x", b));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void describe(ValidatorConfiguration configuration, StringBuilder description) {
+        description.append(configuration.getConfigurationName()).append('{');
+        for (String name : new TreeSet<>(configuration.getAttributes())) {
+            description.append(name).append('=').append(configuration.getAttribute(name)).append(';');
+        }
+        for (ValidatorConfiguration child : configuration.getChildren()) {
+            describe(child, description);
+        }
+        description.append("}\n");
+    }
+
+    /**
+     * Tokenize a sentence, or return the cached tokens of the same content.
+     *
+     * @param tokenizer tokenizer
+     * @param content   content of the sentence
+     * @return tokens, which should not be modified
+     */
+    public List<TokenElement> tokenize(RedPenTokenizer tokenizer, String content) {
+        Key key = new Key(tokenizer.getClass().getName(), 0, content, false);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hitCount++;
+                return entry.tokens;
+            }
+            missCount++;
+        }
+        List<TokenElement> tokens = Collections.unmodifiableList(tokenizer.tokenize(content));
+        synchronized (this) {
+            entries.put(key, new Entry(tokens, null));
+        }
+        return tokens;
+    }
+
+    /**
+     * Tokenize sentences, reusing the cached tokens of the same contents. The sentences
+     * not in the cache are tokenized in a batch with {@link RedPenTokenizer#tokenize(List)}.
+     *
+     * @param tokenizer tokenizer
+     * @param contents  contents of the sentences
+     * @return tokens of each sentence, which should not be modified
+     */
+    public List<List<TokenElement>> tokenize(RedPenTokenizer tokenizer, List<String> contents) {
+        String tokenizerName = tokenizer.getClass().getName();
+        List<List<TokenElement>> tokens = new ArrayList<>(Collections.nCopies(contents.size(), null));
+        List<Integer> misses = new ArrayList<>();
+        List<String> missContents = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < contents.size(); i++) {
+                Entry entry = entries.get(new Key(tokenizerName, 0, contents.get(i), false));
+                if (entry != null) {
+                    hitCount++;
+                    tokens.set(i, entry.tokens);
+                } else {
+                    missCount++;
+                    misses.add(i);
+                    missContents.add(contents.get(i));
+                }
+            }
+        }
+        if (misses.isEmpty()) {
+            return tokens;
+        }
+        List<List<TokenElement>> missTokens = tokenizer.tokenize(missContents);
+        synchronized (this) {
+            for (int i = 0; i < misses.size(); i++) {
+                List<TokenElement> sentenceTokens = Collections.unmodifiableList(missTokens.get(i));
+                tokens.set(misses.get(i), sentenceTokens);
+                entries.put(new Key(tokenizerName, 0, missContents.get(i), false), new Entry(sentenceTokens, null));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Get the cached errors of the validators for a sentence.
+     *
+     * @param fingerprint       fingerprint of the configuration
+     * @param dictionaryVersion version of the shared dictionaries of the validators
+     * @param sentence          sentence
+     * @param validators        number of sentence validators in the configuration
+     * @return cached errors, which are filled while the sentence is validated
+     */
+    synchronized Errors getErrors(String fingerprint, long dictionaryVersion, Sentence sentence, int validators) {
+        Key key = new Key(fingerprint, dictionaryVersion, sentence.content, sentence.isFirstSentence);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            entry = new Entry(null, new ArrayList<>(Collections.nCopies(validators, null)));
+            entries.put(key, entry);
+        } else {
+            hitCount++;
+        }
+        return new Errors(entry.errors, sentence);
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of lookups which found an entry.
+     *
+     * @return number of hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get the number of lookups which did not find an entry.
+     *
+     * @return number of misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Errors of the validators for a sentence.
+     */
+    final class Errors {
+        private final List<List<ValidationError>> errors;
+        private final Sentence sentence;
+
+        private Errors(List<List<ValidationError>> errors, Sentence sentence) {
+            this.errors = errors;
+            this.sentence = sentence;
+        }
+
+        /**
+         * Get the errors of a validator found in a sentence of the same content.
+         *
+         * @param validator index of the validator in the configuration
+         * @return errors for the sentence, or null when the validator has not been run
+         */
+        List<ValidationError> get(int validator) {
+            List<ValidationError> cached;
+            synchronized (SentenceCache.this) {
+                cached = errors.get(validator);
+            }
+            if (cached == null) {
+                return null;
+            }
+            List<ValidationError> copies = new ArrayList<>(cached.size());
+            for (ValidationError error : cached) {
+                copies.add(error.copyFor(sentence));
+            }
+            return copies;
+        }
+
+        /**
+         * Store the errors of a validator found in the sentence.
+         *
+         * @param validator        index of the validator in the configuration
+         * @param validatorErrors errors found in the sentence
+         */
+        void put(int validator, List<ValidationError> validatorErrors) {
+            List<ValidationError> copies = new ArrayList<>(validatorErrors.size());
+            for (ValidationError error : validatorErrors) {
+                copies.add(error.copyFor(sentence));
+            }
+            synchronized (SentenceCache.this) {
+                errors.set(validator, copies);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final List<TokenElement> tokens;
+        private final List<List<ValidationError>> errors;
+
+        private Entry(List<TokenElement> tokens, List<List<ValidationError>> errors) {
+            this.tokens = tokens;
+            this.errors = errors;
+        }
+    }
+
+    private static final class Key {
+        private final String fingerprint;
+        private final long dictionaryVersion;
+        private final String content;
+        private final boolean firstSentence;
+
+        private Key(String fingerprint, long dictionaryVersion, String content, boolean firstSentence) {
+            this.fingerprint = fingerprint;
+            this.dictionaryVersion = dictionaryVersion;
+            this.content = content;
+            this.firstSentence = firstSentence;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (firstSentence != key.firstSentence) return false;
+            if (dictionaryVersion != key.dictionaryVersion) return false;
+            if (!content.equals(key.content)) return false;
+            return fingerprint.equals(key.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = content.hashCode();
+            result = 31 * result + fingerprint.hashCode();
+            result = 31 * result + Long.hashCode(dictionaryVersion);
+            result = 31 * result + (firstSentence ? 1 : 0);
+            return result;
+        }
+    }
+}
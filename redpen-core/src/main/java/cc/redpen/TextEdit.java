@@ -0,0 +1,106 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+/**
+ * Edit of a text, which replaces a range of the text with another text.
+ */
+public final class TextEdit {
+    private final int offset;
+    private final int removedLength;
+    private final String insertedText;
+
+    /**
+     * Constructor.
+     *
+     * @param offset        offset of the edited range in the text before the edit
+     * @param removedLength number of characters removed from the offset
+     * @param insertedText  text inserted at the offset
+     */
+    public TextEdit(int offset, int removedLength, String insertedText) {
+        if (offset < 0 || removedLength < 0) {
+            throw new IllegalArgumentException(
+                    "Invalid edit range: offset " + offset + ", removed length " + removedLength);
+        }
+        if (insertedText == null) {
+            throw new IllegalArgumentException("Inserted text is null");
+        }
+        this.offset = offset;
+        this.removedLength = removedLength;
+        this.insertedText = insertedText;
+    }
+
+    /**
+     * Get the offset of the edited range.
+     *
+     * @return offset in the text before the edit
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the number of removed characters.
+     *
+     * @return removed length
+     */
+    public int getRemovedLength() {
+        return removedLength;
+    }
+
+    /**
+     * Get the inserted text.
+     *
+     * @return inserted text
+     */
+    public String getInsertedText() {
+        return insertedText;
+    }
+
+    /**
+     * Get the change of the text length by the edit.
+     *
+     * @return inserted length minus removed length
+     */
+    public int getLengthDelta() {
+        return insertedText.length() - removedLength;
+    }
+
+    /**
+     * Apply the edit to a text.
+     *
+     * @param text text before the edit
+     * @return text after the edit
+     */
+    public String apply(String text) {
+        if (offset + removedLength > text.length()) {
+            throw new IllegalArgumentException("Edit range [" + offset + ", "
+                    + (offset + removedLength) + ") is out of the text of length " + text.length());
+        }
+        return text.substring(0, offset) + insertedText + text.substring(offset + removedLength);
+    }
+
+    @Override
+    public String toString() {
+        return "TextEdit{" +
+                "offset=" + offset +
+                ", removedLength=" + removedLength +
+                ", insertedText='" + insertedText + '\'' +
+                '}';
+    }
+}
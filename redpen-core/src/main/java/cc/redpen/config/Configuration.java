@@ -21,6 +21,8 @@ import cc.redpen.symbol.AbstractSymbols;
 import cc.redpen.symbol.DefaultSymbols;
 import cc.redpen.symbol.JapaneseSymbols;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,9 +30,15 @@ import java.util.List;
  * Contains Settings used throughout {@link cc.redpen.RedPen}.
  */
 public final class Configuration {
+    /**
+     * Charset of input documents used when not specified.
+     */
+    public static final Charset DEFAULT_INPUT_CHARSET = StandardCharsets.UTF_8;
+
     private final SymbolTable symbolTable;
     private final List<ValidatorConfiguration> validatorConfigs =
             new ArrayList<>();
+    private final Charset inputCharset;
 
     /**
      * Constructor.
@@ -44,6 +52,7 @@ public final class Configuration {
             this.symbolTable = builder.symbolTable;
         }
         this.validatorConfigs.addAll(builder.validatorConfigs);
+        this.inputCharset = builder.inputCharset;
     }
 
     /**
@@ -64,6 +73,15 @@ public final class Configuration {
         return validatorConfigs;
     }
 
+    /**
+     * Get charset of input documents.
+     *
+     * @return charset
+     */
+    public Charset getInputCharset() {
+        return inputCharset;
+    }
+
     /**
      * Builder class of Configuration.
      */
@@ -71,6 +89,25 @@ public final class Configuration {
         private final List<ValidatorConfiguration> validatorConfigs =
                 new ArrayList<>();
         private SymbolTable symbolTable;
+        private Charset inputCharset = DEFAULT_INPUT_CHARSET;
+
+        /**
+         * Constructor.
+         */
+        public Builder() {
+            super();
+        }
+
+        /**
+         * Constructor to modify the settings of a configuration.
+         *
+         * @param base configuration to copy the settings
+         */
+        public Builder(Configuration base) {
+            this.symbolTable = base.symbolTable;
+            this.validatorConfigs.addAll(base.validatorConfigs);
+            this.inputCharset = base.inputCharset;
+        }
 
         private static SymbolTable loadLanguageDefaultSymbolTable(
                 String lang) {
@@ -97,6 +134,18 @@ public final class Configuration {
             return this;
         }
 
+        /**
+         * Select the tokenizer of the symbol table, which should be set beforehand.
+         *
+         * @param tokenizer name of the tokenizer registered in
+         *                  {@link cc.redpen.tokenizer.TokenizerRegistry}
+         * @return builder
+         */
+        public Builder setTokenizer(String tokenizer) {
+            this.symbolTable.setTokenizer(tokenizer);
+            return this;
+        }
+
         public Builder setSymbol(Symbol symbol) {
             this.symbolTable.override(symbol);
             return this;
@@ -113,6 +162,11 @@ public final class Configuration {
             return this;
         }
 
+        public Builder setInputCharset(Charset charset) {
+            this.inputCharset = charset;
+            return this;
+        }
+
         public Builder addValidatorConfig(ValidatorConfiguration config) {
             validatorConfigs.add(config);
             return this;
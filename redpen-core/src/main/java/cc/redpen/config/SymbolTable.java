@@ -28,6 +28,7 @@ public final class SymbolTable {
     private final Map<String, Symbol> symbolDictionary;
     private final Map<String, Symbol> valueDictionary;
     private String lang;
+    private String tokenizer;
 
     /**
      * Constructor.
@@ -125,4 +126,22 @@ public final class SymbolTable {
         this.lang = lang;
     }
 
+    /**
+     * Get the name of the tokenizer.
+     *
+     * @return name of the tokenizer, null when the default tokenizer of the language is used
+     */
+    public String getTokenizer() {
+        return tokenizer;
+    }
+
+    /**
+     * Set the name of the tokenizer registered in {@link cc.redpen.tokenizer.TokenizerRegistry}.
+     *
+     * @param tokenizer name of the tokenizer, null to use the default tokenizer of the language
+     */
+    public void setTokenizer(String tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
 }
@@ -0,0 +1,68 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collection of named timers recording where the time of a run is spent.
+ * <p>
+ * Metrics are disabled unless an instance is given to {@link cc.redpen.RedPen.Builder}
+ * or to the document builder; the instrumented code then only checks for a null
+ * timer. This class is thread safe.
+ */
+public final class Metrics {
+    /**
+     * Timer of parsing input files. Since sentences are tokenized while a file is
+     * parsed, the time includes {@link #TOKENIZE}.
+     */
+    public static final String PARSE = "parse";
+
+    /**
+     * Timer of tokenizing sentences.
+     */
+    public static final String TOKENIZE = "tokenize";
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Get the timer with the given name, creating it when it does not exist.
+     *
+     * @param name timer name
+     * @return timer
+     */
+    public Timer getTimer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Take a snapshot of all the timers.
+     *
+     * @return snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        List<TimerSnapshot> snapshots = new ArrayList<>(timers.size());
+        for (Timer timer : timers.values()) {
+            snapshots.add(timer.snapshot());
+        }
+        return new MetricsSnapshot(snapshots);
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of {@link Metrics}.
+ */
+public final class MetricsSnapshot {
+    private static final MetricsSnapshot EMPTY = new MetricsSnapshot(Collections.<TimerSnapshot>emptyList());
+
+    private static final String ROW_FORMAT = "%-40s %10s %12s %10s %10s %10s %10s %10s %8s%n";
+
+    private final List<TimerSnapshot> timers;
+
+    MetricsSnapshot(List<TimerSnapshot> timers) {
+        List<TimerSnapshot> sorted = new ArrayList<>(timers);
+        sorted.sort(Comparator.comparingLong(TimerSnapshot::getTotalNanos).reversed()
+                .thenComparing(TimerSnapshot::getName));
+        this.timers = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Get the snapshot without timers, which is returned when metrics are disabled.
+     *
+     * @return empty snapshot
+     */
+    public static MetricsSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Get the snapshots of the timers, the most time consuming first.
+     *
+     * @return timer snapshots
+     */
+    public List<TimerSnapshot> getTimers() {
+        return timers;
+    }
+
+    /**
+     * Get the snapshot of a timer.
+     *
+     * @param name timer name
+     * @return timer snapshot, empty when the timer has not been used
+     */
+    public Optional<TimerSnapshot> getTimer(String name) {
+        return timers.stream().filter(timer -> timer.getName().equals(name)).findFirst();
+    }
+
+    /**
+     * Format the snapshot as a human readable table. Times are in milliseconds
+     * for the total and in microseconds for the others.
+     *
+     * @return profile report
+     */
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(ROW_FORMAT, "name", "count", "total(ms)", "mean(us)",
+                "p50(us)", "p90(us)", "p99(us)", "max(us)", "errors"));
+        for (TimerSnapshot timer : timers) {
+            report.append(String.format(ROW_FORMAT, timer.getName(), timer.getCount(),
+                    String.format("%.3f", timer.getTotalNanos() / 1e6),
+                    micros(timer.getMeanNanos()),
+                    micros(timer.getPercentileNanos(50)),
+                    micros(timer.getPercentileNanos(90)),
+                    micros(timer.getPercentileNanos(99)),
+                    micros(timer.getMaxNanos()),
+                    timer.getErrorCount()));
+        }
+        return report.toString();
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1e3);
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{" +
+                "timers=" + timers +
+                '}';
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.metrics;
+
+/**
+ * Immutable snapshot of a {@link Timer}.
+ */
+public final class TimerSnapshot {
+    private final String name;
+    private final long count;
+    private final long totalNanos;
+    private final long errorCount;
+    private final long maxNanos;
+    private final long[] histogram;
+
+    TimerSnapshot(String name, long count, long totalNanos, long errorCount, long maxNanos,
+                  long[] histogram) {
+        this.name = name;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.errorCount = errorCount;
+        this.maxNanos = maxNanos;
+        this.histogram = histogram;
+    }
+
+    /**
+     * Get the name of the timer.
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of recorded invocations.
+     *
+     * @return invocation count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the cumulative time of the invocations.
+     *
+     * @return total time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Get the number of errors produced by the invocations.
+     *
+     * @return error count
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Get the mean time of an invocation.
+     *
+     * @return mean time in nanoseconds, 0 when nothing is recorded
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Get the longest time of an invocation.
+     *
+     * @return max time in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Get a percentile of the invocation time.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return time in nanoseconds, 0 when nothing is recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long recorded = 0;
+        for (long bucketCount : histogram) {
+            recorded += bucketCount;
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(recorded * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return Math.min(Timer.upperBoundOf(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "TimerSnapshot{" +
+                "name='" + name + '\'' +
+                ", count=" + count +
+                ", totalNanos=" + totalNanos +
+                ", errorCount=" + errorCount +
+                ", maxNanos=" + maxNanos +
+                '}';
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Instrumentation of parsing, tokenization and validation is provided.
+ */
+package cc.redpen.metrics;
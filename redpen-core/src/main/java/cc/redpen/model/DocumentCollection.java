@@ -17,11 +17,15 @@
  */
 package cc.redpen.model;
 
-import cc.redpen.tokenizer.JapaneseTokenizer;
+import cc.redpen.SentenceCache;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.metrics.Timer;
 import cc.redpen.tokenizer.RedPenTokenizer;
-import cc.redpen.tokenizer.WhiteSpaceTokenizer;
+import cc.redpen.tokenizer.TokenElement;
+import cc.redpen.tokenizer.TokenizerRegistry;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -93,20 +97,66 @@ public final class DocumentCollection implements Iterable<Document> {
 
         private DocumentCollection collection;
 
+        private Timer tokenizeTimer;
+
+        private SentenceCache sentenceCache;
+
         public Builder() {
             this.collection = new DocumentCollection();
-            this.tokenizer = new WhiteSpaceTokenizer();
+            this.tokenizer = TokenizerRegistry.getInstance().getDefault("en");
         }
 
+        /**
+         * Constructor with the default tokenizer of the language.
+         *
+         * @param lang language
+         */
         public Builder(String lang) {
             this.collection = new DocumentCollection();
-            switch (lang) {
-                case "ja":
-                    this.tokenizer = new JapaneseTokenizer();
-                    break;
-                default:
-                    this.tokenizer = new WhiteSpaceTokenizer();
-            }
+            this.tokenizer = TokenizerRegistry.getInstance().getDefault(lang);
+        }
+
+        /**
+         * Constructor with the tokenizer to split sentences into tokens.
+         * Sentences are tokenized when their tokens are requested first, possibly by
+         * validators running in parallel, so the tokenizer should be thread safe.
+         *
+         * @param tokenizer tokenizer
+         */
+        public Builder(RedPenTokenizer tokenizer) {
+            this.collection = new DocumentCollection();
+            this.tokenizer = tokenizer;
+        }
+
+        /**
+         * Get the tokenizer used by this builder.
+         *
+         * @return tokenizer
+         */
+        public RedPenTokenizer getTokenizer() {
+            return tokenizer;
+        }
+
+        /**
+         * Record the time to tokenize sentences.
+         *
+         * @param metrics metrics to record, or null to disable the recording
+         * @return builder
+         */
+        public Builder setMetrics(Metrics metrics) {
+            this.tokenizeTimer = metrics == null ? null : metrics.getTimer(Metrics.TOKENIZE);
+            return this;
+        }
+
+        /**
+         * Reuse the tokens of sentences of the same content in the cache.
+         *
+         * @param sentenceCache cache of sentences, or null to disable the cache
+         * @return builder
+         */
+        public Builder setSentenceCache(SentenceCache sentenceCache) {
+            this.sentenceCache = sentenceCache;
+            return this;
         }
 
         /**
@@ -118,6 +168,19 @@ public final class DocumentCollection implements Iterable<Document> {
             return collection;
         }
 
+        /**
+         * Return the built DocumentCollection object, and start a new collection, so
+         * that the builder and the parser using it can be reused for the next input
+         * without retaining the documents built so far.
+         *
+         * @return built document
+         */
+        public DocumentCollection buildAndReset() {
+            DocumentCollection built = collection;
+            collection = new DocumentCollection();
+            return built;
+        }
+
         /**
          * Return last Document object.
          * NOTE: This method is created to follow the Parser class api.
@@ -250,6 +313,25 @@ public final class DocumentCollection implements Iterable<Document> {
          * is the first sentence of a paragraph.
          */
         public Builder addSentence(Sentence sentence) {
+            appendSentence(sentence);
+            LazyTokens.attach(getSentenceTokenizer(), tokenizeTimer, Collections.singletonList(sentence));
+            return this;
+        }
+
+        /**
+         * Add sentences, such as the sentences of a paragraph, to document.
+         * The sentences are tokenized in a batch.
+         *
+         * @param sentences sentences
+         * @return builder
+         */
+        public Builder addSentences(List<Sentence> sentences) {
+            sentences.forEach(this::appendSentence);
+            LazyTokens.attach(getSentenceTokenizer(), tokenizeTimer, new ArrayList<>(sentences));
+            return this;
+        }
+
+        private void appendSentence(Sentence sentence) {
             if (collection.size() == 0) {
                 throw new IllegalStateException("DocumentCollection does no have any document");
             }
@@ -269,8 +351,24 @@ public final class DocumentCollection implements Iterable<Document> {
             if (lastParagraph.getNumberOfSentences() == 1) {
                 sentence.isFirstSentence = true;
             }
-            sentence.tokens = tokenizer.tokenize(sentence.content);
-            return this;
+        }
+
+        private RedPenTokenizer getSentenceTokenizer() {
+            if (sentenceCache == null) {
+                return tokenizer;
+            }
+            SentenceCache cache = sentenceCache;
+            return new RedPenTokenizer() {
+                @Override
+                public List<TokenElement> tokenize(String content) {
+                    return cache.tokenize(tokenizer, content);
+                }
+
+                @Override
+                public List<List<TokenElement>> tokenize(List<String> contents) {
+                    return cache.tokenize(tokenizer, contents);
+                }
+            };
         }
 
         /**
@@ -0,0 +1,80 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.model;
+
+import cc.redpen.metrics.Timer;
+import cc.redpen.tokenizer.RedPenTokenizer;
+import cc.redpen.tokenizer.TokenElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pending tokenization of sentences added to a paragraph together. The sentences
+ * are tokenized in a batch when the tokens of any of them are requested first.
+ */
+final class LazyTokens {
+    private final RedPenTokenizer tokenizer;
+    private final Timer tokenizeTimer;
+    private List<Sentence> sentences;
+
+    private LazyTokens(RedPenTokenizer tokenizer, Timer tokenizeTimer, List<Sentence> sentences) {
+        this.tokenizer = tokenizer;
+        this.tokenizeTimer = tokenizeTimer;
+        this.sentences = sentences;
+    }
+
+    /**
+     * Make the sentences tokenized in a batch when the tokens of any of them are requested first.
+     *
+     * @param tokenizer     tokenizer
+     * @param tokenizeTimer timer to record the time to tokenize, or null
+     * @param sentences     sentences to tokenize, which are not modified afterwards
+     */
+    static void attach(RedPenTokenizer tokenizer, Timer tokenizeTimer, List<Sentence> sentences) {
+        LazyTokens lazyTokens = new LazyTokens(tokenizer, tokenizeTimer, sentences);
+        for (Sentence sentence : sentences) {
+            sentence.setLazyTokens(lazyTokens);
+        }
+    }
+
+    synchronized void tokenize() {
+        if (sentences == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<List<TokenElement>> tokens;
+        if (sentences.size() == 1) {
+            tokens = Collections.singletonList(tokenizer.tokenize(sentences.get(0).content));
+        } else {
+            List<String> contents = new ArrayList<>(sentences.size());
+            for (Sentence sentence : sentences) {
+                contents.add(sentence.content);
+            }
+            tokens = tokenizer.tokenize(contents);
+        }
+        if (tokenizeTimer != null) {
+            tokenizeTimer.record(System.nanoTime() - start);
+        }
+        for (int i = 0; i < sentences.size(); i++) {
+            sentences.get(i).setTokens(tokens.get(i));
+        }
+        sentences = null;
+    }
+}
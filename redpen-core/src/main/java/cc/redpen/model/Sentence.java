@@ -40,6 +40,18 @@ public final class Sentence {
      */
     public int position;
 
+    /**
+     * Offset of the first character of the sentence in the input document,
+     * -1 when the parser does not record offsets.
+     */
+    public int startOffset;
+
+    /**
+     * Offset next to the last character of the sentence in the input document,
+     * -1 when the parser does not record offsets.
+     */
+    public int endOffset;
+
     /**
      * Flag for knowing if the sentence is the first sentence
      * of a block, such as paragraph, list, header.
@@ -47,11 +59,14 @@ public final class Sentence {
     public boolean isFirstSentence;
 
     /**
-     * A list of tokens.
-     *
-     * Note: the contents of the tokens are added in DocumentCollectionBuilder
+     * A list of tokens, null until the pending tokenization is done.
      */
-    public List<TokenElement> tokens;
+    private volatile List<TokenElement> tokens;
+
+    /**
+     * Tokenization of the sentence not done yet.
+     */
+    private volatile LazyTokens lazyTokens;
 
     /**
      * Constructor.
@@ -63,8 +78,62 @@ public final class Sentence {
         super();
         this.content = sentenceContent;
         this.position = sentencePosition;
+        this.startOffset = -1;
+        this.endOffset = -1;
         this.isFirstSentence = false;
         this.links = new ArrayList<>();
         this.tokens = new ArrayList<>();
     }
+
+    /**
+     * Constructor.
+     *
+     * @param sentenceContent  content of sentence
+     * @param sentencePosition sentence position
+     * @param startOffset      offset of the first character in the input document
+     * @param endOffset        offset next to the last character in the input document
+     */
+    public Sentence(String sentenceContent, int sentencePosition, int startOffset, int endOffset) {
+        this(sentenceContent, sentencePosition);
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /**
+     * Get the tokens of the sentence. Sentences created by DocumentCollection.Builder
+     * are tokenized when the tokens are requested first.
+     *
+     * @return a list of tokens
+     */
+    public List<TokenElement> getTokens() {
+        List<TokenElement> result = tokens;
+        if (result == null) {
+            LazyTokens pending = lazyTokens;
+            if (pending != null) {
+                pending.tokenize();
+            }
+            result = tokens;
+        }
+        return result;
+    }
+
+    /**
+     * Set the tokens of the sentence.
+     *
+     * @param tokens a list of tokens
+     */
+    public void setTokens(List<TokenElement> tokens) {
+        this.tokens = tokens;
+        this.lazyTokens = null;
+    }
+
+    /**
+     * Defer the tokenization until the tokens are requested.
+     *
+     * @param lazyTokens pending tokenization including the sentence
+     */
+    void setLazyTokens(LazyTokens lazyTokens) {
+        this.lazyTokens = lazyTokens;
+        this.tokens = null;
+    }
 }
@@ -27,6 +27,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,6 +41,8 @@ public abstract class BaseDocumentParser implements DocumentParser {
             BaseDocumentParser.class);
     protected DocumentCollection.Builder builder;
     private SentenceExtractor sentenceExtractor;
+    private Charset charset = Configuration.DEFAULT_INPUT_CHARSET;
+    private LineReader lineReader;
 
     @Override
     public Document generateDocument(String fileName)
@@ -47,8 +51,8 @@ public abstract class BaseDocumentParser implements DocumentParser {
             throw new RedPenException("input file was not specified.");
         }
         Document document ;
-        try (InputStream inputStream = new FileInputStream(fileName)) {
-            document = this.generateDocument(inputStream);
+        try (LineReader reader = getLineReader().open(Paths.get(fileName))) {
+            document = this.generateDocument(reader);
                 if (document != null) {
                     document.setFileName(fileName);
                 }
@@ -58,6 +62,27 @@ public abstract class BaseDocumentParser implements DocumentParser {
         return document;
     }
 
+    @Override
+    public Document generateDocument(InputStream is)
+            throws RedPenException {
+        if (is == null) {
+            throw new RedPenException("input stream is null");
+        }
+        try (LineReader reader = getLineReader().open(is)) {
+            return this.generateDocument(reader);
+        }
+    }
+
+    /**
+     * Given a line reader, return Document instance from the lines.
+     *
+     * @param reader line reader opened for the input
+     * @return a generated file content
+     * @throws cc.redpen.RedPenException if Parser failed to parse input.
+     */
+    protected abstract Document generateDocument(LineReader reader)
+            throws RedPenException;
+
     /**
      * Given configuration , return basic configuration settings.
      *
@@ -81,6 +106,8 @@ public abstract class BaseDocumentParser implements DocumentParser {
 
         this.sentenceExtractor = new SentenceExtractor(periods, rightQuotations);
         this.builder = documentBuilder;
+        this.charset = configuration.getInputCharset();
+        this.lineReader = null;
     }
 
     private List<String> extractRightQuotations(SymbolTable symbolTable) {
@@ -142,22 +169,27 @@ public abstract class BaseDocumentParser implements DocumentParser {
      *
      * @param is InputStream using to parse
      * @return BufferedReader created from InputStream
-     * @throws cc.redpen.RedPenException if InputStream is not
-     *                                   supported UTF-8 encoding
+     * @throws cc.redpen.RedPenException if InputStream is null
      */
     protected BufferedReader createReader(InputStream is)
             throws RedPenException {
         if (is == null) {
             throw new RedPenException("input stream is null");
         }
-        BufferedReader br;
-        try {
-            br = new BufferedReader(new InputStreamReader(is, "UTF-8"));
-        } catch (UnsupportedEncodingException e) {
-            throw new RedPenException(
-                    "does not support UTF-8 encoding", e);
+        return new BufferedReader(new InputStreamReader(is, charset));
+    }
+
+    /**
+     * Get the line reader of the parser, which decodes the input in the configured charset.
+     * The reader is reused for every input.
+     *
+     * @return line reader
+     */
+    protected LineReader getLineReader() {
+        if (lineReader == null) {
+            lineReader = new LineReader(charset);
         }
-        return br;
+        return lineReader;
     }
 
     /**
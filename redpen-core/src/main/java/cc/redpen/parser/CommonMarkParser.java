@@ -0,0 +1,80 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import cc.redpen.RedPenException;
+import cc.redpen.model.Document;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.markdown.CommonMarkSerializer;
+import org.commonmark.ext.autolink.AutolinkExtension;
+import org.commonmark.node.Node;
+import org.commonmark.parser.IncludeSourceSpans;
+import org.commonmark.parser.Parser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parser for Markdown format based on a CommonMark parser.<br/>
+ * <p>
+ * The parser runs in linear time of the input, and generates documents of the
+ * same structure as {@link MarkdownParser}.
+ * <p>
+ * CommonMark Spec @see http://spec.commonmark.org/
+ */
+public class CommonMarkParser extends BaseDocumentParser {
+
+    private final Parser parser = Parser.builder()
+            .extensions(Collections.singletonList(AutolinkExtension.create()))
+            .includeSourceSpans(IncludeSourceSpans.BLOCKS_AND_INLINES)
+            .build();
+
+    // reused for every document
+    private final TextBuffer text = new TextBuffer();
+
+    CommonMarkParser() {
+        super();
+    }
+
+    @Override
+    protected Document generateDocument(LineReader reader)
+            throws RedPenException {
+        builder.addDocument("");
+
+        try {
+            text.read(reader);
+        } catch (IOException e) {
+            throw new RedPenException(e);
+        }
+
+        List<Sentence> headers = new ArrayList<>();
+        headers.add(new Sentence("", 0));
+        builder.addSection(0, headers);
+
+        String source = text.toString();
+        Node root = parser.parse(source);
+        CommonMarkSerializer serializer =
+                new CommonMarkSerializer(builder, source,
+                        text.getLineEnds(), text.getLineCount(),
+                        this.getSentenceExtractor());
+        serializer.toFileContent(root);
+        return builder.getLastDocument();
+    }
+}
@@ -76,7 +76,12 @@ public interface DocumentParser {
         /**
          * markdown parser.
          */
-        MARKDOWN
+        MARKDOWN,
+
+        /**
+         * markdown parser based on a CommonMark parser.
+         */
+        COMMONMARK
 
     }
 }
@@ -53,6 +53,9 @@ public final class DocumentParserFactory {
             case MARKDOWN:
                 docparser = new MarkdownParser();
                 break;
+            case COMMONMARK:
+                docparser = new CommonMarkParser();
+                break;
             default:
                 throw new RedPenException("Specified parser type not exist: "
                         + parserType);
@@ -0,0 +1,276 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Line reader decoding the input with a reusable {@link CharsetDecoder}.
+ * <p>
+ * Large files are memory-mapped, and the other inputs are read through a
+ * direct byte buffer. The buffers and the decoder are reused when the reader
+ * is opened for the next input, so a parser keeps one reader for all the
+ * documents it parses. A line is returned as a view of the decoded characters
+ * instead of a new String; the view is valid until the next call of
+ * {@link #readLine()}.
+ * <p>
+ * Lines are terminated by "\n", "\r" or "\r\n" as {@link java.io.BufferedReader}
+ * does, and malformed input is replaced with the replacement character as
+ * {@link java.io.InputStreamReader} does. This class is not thread safe.
+ */
+public final class LineReader implements Closeable {
+    /**
+     * Files larger than this size are memory-mapped.
+     */
+    static final long MAP_THRESHOLD = 1024 * 1024;
+
+    private static final int BYTE_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_CHAR_BUFFER_SIZE = 8 * 1024;
+
+    private final CharsetDecoder decoder;
+    private final ByteBuffer directBuffer = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+    private ByteBuffer bytes;
+    private ReadableByteChannel channel;
+    private boolean ownsChannel;
+    private boolean endOfInput;
+    private boolean flushed;
+
+    private char[] chars = new char[INITIAL_CHAR_BUFFER_SIZE];
+    private CharBuffer decoded = CharBuffer.wrap(chars);
+    private CharBuffer line = CharBuffer.wrap(chars);
+    // decoded characters not returned yet are chars[position, limit)
+    private int position;
+    private int limit;
+    // offset of chars[0] in the input
+    private long base;
+    private long lineOffset;
+
+    /**
+     * Constructor.
+     *
+     * @param charset charset of the input
+     */
+    public LineReader(Charset charset) {
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Start reading a file. Files larger than {@link #MAP_THRESHOLD} are memory-mapped.
+     *
+     * @param file input file
+     * @return this reader
+     * @throws IOException when failed to open the file
+     */
+    public LineReader open(Path file) throws IOException {
+        close();
+        FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+        if (fileChannel.size() > MAP_THRESHOLD && fileChannel.size() <= Integer.MAX_VALUE) {
+            try {
+                // the mapping stays valid after the channel is closed
+                ByteBuffer mapped = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+                reset(mapped, null, false);
+            } finally {
+                fileChannel.close();
+            }
+        } else {
+            reset(null, fileChannel, true);
+        }
+        return this;
+    }
+
+    /**
+     * Start reading a stream. The stream is not closed by this reader.
+     *
+     * @param stream input stream
+     * @return this reader
+     */
+    public LineReader open(InputStream stream) {
+        close();
+        reset(null, Channels.newChannel(stream), false);
+        return this;
+    }
+
+    private void reset(ByteBuffer mapped, ReadableByteChannel input, boolean closeInput) {
+        decoder.reset();
+        if (mapped != null) {
+            bytes = mapped;
+            channel = null;
+            endOfInput = true;
+        } else {
+            directBuffer.clear();
+            directBuffer.flip();
+            bytes = directBuffer;
+            channel = input;
+            endOfInput = false;
+        }
+        ownsChannel = closeInput;
+        flushed = false;
+        position = 0;
+        limit = 0;
+        base = 0;
+        lineOffset = 0;
+    }
+
+    /**
+     * Read the next line without the line terminator.
+     *
+     * @return view of the line valid until the next call, or null at the end of the input
+     * @throws IOException when failed to read the input
+     */
+    public CharSequence readLine() throws IOException {
+        if (bytes == null) {
+            return null;
+        }
+        int scanned = position;
+        while (true) {
+            for (int i = scanned; i < limit; i++) {
+                char c = chars[i];
+                if (c == '\n' || c == '\r') {
+                    if (c == '\r' && i + 1 == limit) {
+                        // need the next character to find "\r\n"; the buffer may be compacted
+                        int relative = i - position;
+                        decodeMore();
+                        i = position + relative;
+                    }
+                    int start = position;
+                    int next = i + 1;
+                    if (c == '\r' && next < limit && chars[next] == '\n') {
+                        next++;
+                    }
+                    return returnLine(start, i, next);
+                }
+            }
+            int consumed = limit - position;
+            if (!decodeMore()) {
+                if (limit > position) {
+                    return returnLine(position, limit, limit);
+                }
+                return null;
+            }
+            scanned = position + consumed;
+        }
+    }
+
+    /**
+     * Copy the characters of the line returned last into the array.
+     *
+     * @param dst      destination array
+     * @param dstBegin offset in the destination array
+     */
+    public void getLineChars(char[] dst, int dstBegin) {
+        System.arraycopy(chars, line.position(), dst, dstBegin, line.remaining());
+    }
+
+    /**
+     * Get the offset of the line returned last, in characters from the start of the input.
+     *
+     * @return offset of the first character of the line
+     */
+    public long getLineOffset() {
+        return lineOffset;
+    }
+
+    private CharSequence returnLine(int start, int end, int next) {
+        lineOffset = base + start;
+        position = next;
+        line.clear();
+        line.position(start);
+        line.limit(end);
+        return line;
+    }
+
+    /**
+     * Decode more characters, compacting and growing the character buffer when needed.
+     *
+     * @return false when there is no more character
+     */
+    private boolean decodeMore() throws IOException {
+        if (flushed) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(chars, position, chars, 0, limit - position);
+            base += position;
+            limit -= position;
+            position = 0;
+        }
+        // keep room for a surrogate pair
+        if (chars.length - limit < 2) {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+            decoded = CharBuffer.wrap(chars);
+            line = CharBuffer.wrap(chars);
+        }
+        decoded.clear();
+        decoded.position(limit);
+        int before = limit;
+        while (true) {
+            CoderResult result = decoder.decode(bytes, decoded, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            limit = decoded.position();
+            if (limit > before || result.isOverflow()) {
+                return limit > before;
+            }
+            if (endOfInput) {
+                decoder.flush(decoded);
+                limit = decoded.position();
+                flushed = true;
+                return limit > before;
+            }
+            bytes.compact();
+            int read = channel.read(bytes);
+            bytes.flip();
+            if (read < 0) {
+                endOfInput = true;
+            }
+        }
+    }
+
+    /**
+     * Close the input opened from a file. The reader can be opened again for another input.
+     */
+    @Override
+    public void close() {
+        bytes = null;
+        if (channel != null && ownsChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // nothing to do for the input already read
+            }
+        }
+        channel = null;
+    }
+}
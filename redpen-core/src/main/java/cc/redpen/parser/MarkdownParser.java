@@ -26,9 +26,7 @@ import org.pegdown.ParsingTimeoutException;
 import org.pegdown.PegDownProcessor;
 import org.pegdown.ast.RootNode;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -44,29 +42,20 @@ public class MarkdownParser extends BaseDocumentParser {
                     + Extensions.AUTOLINKS
                     + Extensions.FENCED_CODE_BLOCKS);
 
+    // reused for every document; pegdown is given a copy of the text
+    private final TextBuffer text = new TextBuffer();
+
     MarkdownParser() {
         super();
     }
 
     @Override
-    public Document generateDocument(InputStream inputStream)
+    protected Document generateDocument(LineReader reader)
             throws RedPenException {
         builder.addDocument("");
 
-        StringBuilder sb = new StringBuilder();
-        String line;
-        int charCount = 0;
-        List<Integer> lineList = new ArrayList<>();
-        BufferedReader br = createReader(inputStream);
-
         try {
-            while ((line = br.readLine()) != null) {
-                sb.append(line);
-                sb.append("\n");
-                // TODO surrogate pair ?
-                charCount += line.length() + 1;
-                lineList.add(charCount);
-            }
+            text.read(reader);
         } catch (IOException e) {
             throw new RedPenException(e);
         }
@@ -76,12 +65,12 @@ public class MarkdownParser extends BaseDocumentParser {
             headers.add(new Sentence("", 0));
             builder.addSection(0, headers);
 
-            // TODO create document after parsing... overhead...
             RootNode rootNode =
-                    pegDownProcessor.parseMarkdown(sb.toString().toCharArray());
+                    pegDownProcessor.parseMarkdown(text.toCharArray());
             ToFileContentSerializer serializer =
                     new ToFileContentSerializer(builder,
-                            lineList, this.getSentenceExtractor());
+                            text.getLineEnds(), text.getLineCount(),
+                            this.getSentenceExtractor());
             serializer.toFileContent(rootNode);
         } catch (ParsingTimeoutException e) {
             throw new RedPenException("Failed to parse timeout: ", e);
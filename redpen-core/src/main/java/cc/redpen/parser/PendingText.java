@@ -0,0 +1,150 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import cc.redpen.model.Sentence;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Text which is not terminated by a full stop yet.
+ * <p>
+ * Parsers append fragments of the input document (e.g. lines without line breaks,
+ * or inline text of markup) with the offset of each fragment in the document.
+ * The offsets are kept to map the positions in the concatenated text back to the
+ * document, so that the extracted sentences carry their document offsets.
+ */
+public final class PendingText {
+    private final StringBuilder text = new StringBuilder();
+    private int[] fragmentStarts = new int[8];
+    private int[] fragmentOffsets = new int[8];
+    private int fragmentCount = 0;
+
+    /**
+     * Get the length of the text.
+     *
+     * @return length of the text
+     */
+    public int length() {
+        return text.length();
+    }
+
+    /**
+     * Append a fragment of the input document.
+     *
+     * @param fragment       text to append
+     * @param documentOffset offset of the fragment in the input document
+     */
+    public void append(CharSequence fragment, int documentOffset) {
+        if (fragment.length() == 0) {
+            return;
+        }
+        if (fragmentCount == fragmentStarts.length) {
+            fragmentStarts = Arrays.copyOf(fragmentStarts, fragmentCount * 2);
+            fragmentOffsets = Arrays.copyOf(fragmentOffsets, fragmentCount * 2);
+        }
+        fragmentStarts[fragmentCount] = text.length();
+        fragmentOffsets[fragmentCount] = documentOffset;
+        fragmentCount++;
+        text.append(fragment);
+    }
+
+    /**
+     * Extract the sentences terminated by full stops, and remove them from the text.
+     *
+     * @param extractor       sentence extractor
+     * @param position        line number of the sentences
+     * @param outputSentences list to which the extracted sentences are added
+     */
+    public void extract(SentenceExtractor extractor, int position, List<Sentence> outputSentences) {
+        int first = outputSentences.size();
+        int rest = extractor.extract(text, 0, text.length(), outputSentences, position);
+        for (int i = first; i < outputSentences.size(); i++) {
+            setDocumentOffsets(outputSentences.get(i));
+        }
+        deleteTo(rest);
+    }
+
+    /**
+     * Create a sentence of the whole text, and clear the text.
+     *
+     * @param position line number of the sentence
+     * @return sentence containing the whole text
+     */
+    public Sentence flush(int position) {
+        Sentence sentence = new Sentence(text.toString(), position, 0, text.length());
+        setDocumentOffsets(sentence);
+        text.setLength(0);
+        fragmentCount = 0;
+        return sentence;
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+
+    private int fragmentAt(int position) {
+        int fragment = Arrays.binarySearch(fragmentStarts, 0, fragmentCount, position);
+        return fragment >= 0 ? fragment : -fragment - 2;
+    }
+
+    private int toDocumentOffset(int position) {
+        int fragment = fragmentAt(position);
+        return fragmentOffsets[fragment] + position - fragmentStarts[fragment];
+    }
+
+    private void setDocumentOffsets(Sentence sentence) {
+        int start = sentence.startOffset;
+        int end = sentence.endOffset;
+        if (start >= text.length()) {
+            sentence.startOffset = -1;
+            sentence.endOffset = -1;
+            return;
+        }
+        sentence.startOffset = toDocumentOffset(start);
+        sentence.endOffset = end > start ? toDocumentOffset(end - 1) + 1 : sentence.startOffset;
+    }
+
+    /**
+     * Remove the text before the position.
+     */
+    private void deleteTo(int position) {
+        if (position == 0) {
+            return;
+        }
+        text.delete(0, position);
+        if (text.length() == 0) {
+            fragmentCount = 0;
+            return;
+        }
+        int kept = 0;
+        for (int i = fragmentAt(position); i < fragmentCount; i++) {
+            if (fragmentStarts[i] < position) {
+                fragmentOffsets[kept] = fragmentOffsets[i] + position - fragmentStarts[i];
+                fragmentStarts[kept] = 0;
+            } else {
+                fragmentOffsets[kept] = fragmentOffsets[i];
+                fragmentStarts[kept] = fragmentStarts[i] - position;
+            }
+            kept++;
+        }
+        fragmentCount = kept;
+    }
+}
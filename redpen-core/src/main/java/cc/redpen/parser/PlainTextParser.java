@@ -23,9 +23,7 @@ import cc.redpen.model.Sentence;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -44,7 +42,7 @@ public final class PlainTextParser extends BaseDocumentParser {
     }
 
     @Override
-    public Document generateDocument(InputStream is)
+    protected Document generateDocument(LineReader reader)
             throws RedPenException {
         builder.addDocument("");
 
@@ -52,21 +50,23 @@ public final class PlainTextParser extends BaseDocumentParser {
         headers.add(new Sentence("", 0));
         builder.addSection(0, headers);
         builder.addParagraph();
-        BufferedReader br = createReader(is);
-        String remain = "";
-        String line;
+        PendingText remain = new PendingText();
+        List<Sentence> sentences = new ArrayList<>();
+        CharSequence line;
         int lineNum = 0;
         try {
-            while ((line = br.readLine()) != null) {
-                int periodPosition =
-                        this.getSentenceExtractor().getSentenceEndPosition(line);
-                if (line.equals("")) {
+            while ((line = reader.readLine()) != null) {
+                if (line.length() == 0) {
                     builder.addParagraph();
-                } else if (periodPosition == -1) {
-                    remain = remain + line;
                 } else {
-                    remain =
-                            this.extractSentences(lineNum, remain + line);
+                    int periodPosition =
+                            this.getSentenceExtractor().getSentenceEndPosition(line);
+                    remain.append(line, (int) reader.getLineOffset());
+                    if (periodPosition != -1) {
+                        sentences.clear();
+                        remain.extract(getSentenceExtractor(), lineNum, sentences);
+                        builder.addSentences(sentences);
+                    }
                 }
                 lineNum++;
             }
@@ -74,25 +74,8 @@ public final class PlainTextParser extends BaseDocumentParser {
             throw new RedPenException(e);
         }
         if (remain.length() > 0) {
-            builder.addSentence(remain, lineNum);
+            builder.addSentence(remain.flush(lineNum));
         }
         return builder.getLastDocument();
     }
-
-    private String extractSentences(int lineNum, String line) {
-        int periodPosition = getSentenceExtractor().getSentenceEndPosition(line);
-        if (periodPosition == -1) {
-            return line;
-        } else {
-            while (true) {
-                builder.addSentence(
-                        line.substring(0, periodPosition + 1), lineNum);
-                line = line.substring(periodPosition + 1, line.length());
-                periodPosition = getSentenceExtractor().getSentenceEndPosition(line);
-                if (periodPosition == -1) {
-                    return line;
-                }
-            }
-        }
-    }
 }
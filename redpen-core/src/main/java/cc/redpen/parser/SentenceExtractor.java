@@ -147,24 +147,36 @@ public final class SentenceExtractor {
      */
     public String extract(String line,
                           List<Sentence> outputSentences, int position) {
-        int periodPosition =
-                endOfSentenceDetector.getSentenceEndPosition(line);
-        if (periodPosition == -1) {
-            return line;
-        } else {
-            while (true) {
-                Sentence sentence = new Sentence(line.substring(0,
-                        periodPosition + 1), position);
-                outputSentences.add(sentence);
-                line = line.substring(periodPosition + 1,
-                        line.length());
-                periodPosition =
-                        endOfSentenceDetector.getSentenceEndPosition(line);
-                if (periodPosition == -1) {
-                    return line;
-                }
-            }
+        int start = 0;
+        for (int periodPosition : endOfSentenceDetector.getSentenceEndPositions(line)) {
+            Sentence sentence = new Sentence(line.substring(start,
+                    periodPosition + 1), position);
+            outputSentences.add(sentence);
+            start = periodPosition + 1;
         }
+        return line.substring(start);
+    }
+
+    /**
+     * Get Sentence lists from a range of the text without copying the range.
+     * The offsets of the extracted sentences are the positions in the text,
+     * and the content of a sentence is the only string created from the text.
+     *
+     * @param text            input text which can contain more than one sentences
+     * @param start           start offset of the range (inclusive)
+     * @param end             end offset of the range (exclusive)
+     * @param outputSentences List of extracted sentences
+     * @param position        line number
+     * @return start offset of the remaining text which is not terminated by a full stop
+     */
+    public int extract(CharSequence text, int start, int end,
+                       List<Sentence> outputSentences, int position) {
+        for (int periodPosition : endOfSentenceDetector.getSentenceEndPositions(text, start, end)) {
+            outputSentences.add(new Sentence(text.subSequence(start, periodPosition + 1).toString(),
+                    position, start, periodPosition + 1));
+            start = periodPosition + 1;
+        }
+        return start;
     }
 
     /**
@@ -173,7 +185,7 @@ public final class SentenceExtractor {
      * @param str input string
      * @return position of full stop when there is a full stop, -1 otherwise
      */
-    public int getSentenceEndPosition(String str) {
+    public int getSentenceEndPosition(CharSequence str) {
         return endOfSentenceDetector.getSentenceEndPosition(str);
     }
 
@@ -0,0 +1,89 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Whole text of an input document, with a line break after every line.
+ * <p>
+ * Used by the parsers which give the whole document to a markup parser.
+ * The buffers are reused for every document read into the instance.
+ */
+final class TextBuffer {
+    private char[] text = new char[8 * 1024];
+    // offsets next to the line breaks of each line in ascending order
+    private int[] lineEnds = new int[256];
+    private int charCount = 0;
+    private int lineCount = 0;
+
+    /**
+     * Read all the lines of the reader, replacing the text read before.
+     *
+     * @param reader line reader
+     * @throws IOException when failed to read the lines
+     */
+    void read(LineReader reader) throws IOException {
+        CharSequence line;
+        charCount = 0;
+        lineCount = 0;
+        while ((line = reader.readLine()) != null) {
+            int lineEnd = charCount + line.length() + 1;
+            if (lineEnd > text.length) {
+                text = Arrays.copyOf(text, Math.max(text.length * 2, lineEnd));
+            }
+            reader.getLineChars(text, charCount);
+            text[lineEnd - 1] = '\n';
+            // TODO surrogate pair ?
+            charCount = lineEnd;
+            if (lineCount == lineEnds.length) {
+                lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+            }
+            lineEnds[lineCount++] = charCount;
+        }
+    }
+
+    /**
+     * Get a copy of the text.
+     *
+     * @return characters of the text
+     */
+    char[] toCharArray() {
+        return Arrays.copyOf(text, charCount);
+    }
+
+    @Override
+    public String toString() {
+        return new String(text, 0, charCount);
+    }
+
+    /**
+     * Get the offsets next to the line breaks; only the first {@link #getLineCount()}
+     * elements are valid.
+     *
+     * @return line end offsets
+     */
+    int[] getLineEnds() {
+        return lineEnds;
+    }
+
+    int getLineCount() {
+        return lineCount;
+    }
+}
@@ -24,13 +24,9 @@ import cc.redpen.model.Sentence;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Parser for wiki formatted file.
@@ -39,35 +35,18 @@ public final class WikiParser extends BaseDocumentParser {
     private static final Logger LOG = LoggerFactory.getLogger(WikiParser.class);
     /**
      * *************************************************************************
-     * patterns to handle wiki syntax.
+     * wiki syntax.
      * *************************************************************************
      */
 
-    private static final Pattern HEADER_PATTERN
-            = Pattern.compile("^h([1-6])\\. (.*)$");
-    private static final Pattern LIST_PATTERN = Pattern.compile("^(-+) (.*)$");
-    private static final Pattern NUMBERED_LIST_PATTERN =
-            Pattern.compile("^(#+) (.*)$");
-    private static final Pattern LINK_PATTERN =
-            Pattern.compile("\\[\\[(.*?)\\]\\]");
-    private static final Pattern BEGIN_COMMENT_PATTERN =
-            Pattern.compile("\\s*^\\[!--");
-    private static final Pattern END_COMMENT_PATTERN =
-            Pattern.compile("--\\]$\\s*");
-    private static final Pattern ITALIC_PATTERN =
-            Pattern.compile("//(.+?)//");
-    private static final Pattern UNDERLINE_PATTERN =
-            Pattern.compile("__(.+?)__");
-    private static final Pattern BOLD_PATTERN =
-            Pattern.compile("\\*\\*(.+?)\\*\\*");
-    private static final Pattern STRIKETHROUGH_PATTERN =
-            Pattern.compile("--(.+?)--");
-    private static final Pattern[] INLINE_PATTERNS = {
-            ITALIC_PATTERN,
-            BOLD_PATTERN,
-            UNDERLINE_PATTERN,
-            STRIKETHROUGH_PATTERN
-    };
+    private static final String BEGIN_COMMENT = "[!--";
+    private static final String END_COMMENT = "--]";
+    // marks of italic, bold, underline and strikethrough, removed in this order
+    private static final char[] INLINE_MARKS = {'/', '*', '_', '-'};
+
+    // level and content start of the last header or list line classified
+    private int markupLevel;
+    private int contentStart;
 
     /**
      * Constructor.
@@ -76,23 +55,74 @@ public final class WikiParser extends BaseDocumentParser {
         super();
     }
 
-    private static boolean check(Pattern p, String target, List<String> head) {
-        Matcher m = p.matcher(target);
-        if (m.matches()) {
-            for (int i = 1; i <= m.groupCount(); i++) {
-                head.add(m.group(i));
-            }
-            return true;
-        } else {
+    /**
+     * Classify a line by the first character. Headers ("h1. ") and list elements
+     * ("- " or "# ") set the level and the start of the content.
+     */
+    private LinePattern classify(CharSequence line) {
+        switch (line.charAt(0)) {
+            case 'h':
+                if (line.length() >= 4 && line.charAt(1) >= '1' && line.charAt(1) <= '6'
+                        && line.charAt(2) == '.' && line.charAt(3) == ' '
+                        && isSingleLine(line, 4)) {
+                    markupLevel = line.charAt(1) - '0';
+                    contentStart = 4;
+                    return LinePattern.HEADER;
+                }
+                return LinePattern.SENTENCE;
+            case '-':
+            case '#':
+                char mark = line.charAt(0);
+                int level = 1;
+                while (level < line.length() && line.charAt(level) == mark) {
+                    level++;
+                }
+                if (level < line.length() && line.charAt(level) == ' '
+                        && isSingleLine(line, level + 1)) {
+                    markupLevel = level;
+                    contentStart = level + 1;
+                    return LinePattern.LIST;
+                }
+                return LinePattern.SENTENCE;
+            case '[':
+                return contentEquals(line, BEGIN_COMMENT) ? LinePattern.COMMENT : LinePattern.SENTENCE;
+            default:
+                return LinePattern.SENTENCE;
+        }
+    }
+
+    private static boolean contentEquals(CharSequence line, String text) {
+        if (line.length() != text.length()) {
             return false;
         }
+        for (int i = 0; i < text.length(); i++) {
+            if (line.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the text contains no line terminator, which is not matched by "." of regex.
+     */
+    private static boolean isSingleLine(CharSequence text, int start) {
+        for (int i = start; i < text.length(); i++) {
+            if (isLineTerminator(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 
     @Override
-    public Document generateDocument(InputStream is)
+    protected Document generateDocument(LineReader reader)
             throws RedPenException {
         builder.addDocument("");
-        BufferedReader br = null;
 
         // for sentences right below the beginning of document
         List<Sentence> headers = new ArrayList<>();
@@ -101,39 +131,36 @@ public final class WikiParser extends BaseDocumentParser {
 
         // begin parsing
         LinePattern prevPattern, currentPattern = LinePattern.VOID;
-        String line;
+        CharSequence line;
         int lineNum = 0;
-        StringBuilder remain = new StringBuilder();
-        br = createReader(is);
+        PendingText remain = new PendingText();
         try {
-            while ((line = br.readLine()) != null) {
+            while ((line = reader.readLine()) != null) {
+                int lineOffset = (int) reader.getLineOffset();
                 prevPattern = currentPattern;
-                List<String> head = new ArrayList<>();
                 if (currentPattern == LinePattern.COMMENT) {
-                    if (check(END_COMMENT_PATTERN, line, head)) {
+                    if (contentEquals(line, END_COMMENT)) {
                         currentPattern = LinePattern.VOID;
                     }
-                } else if (check(HEADER_PATTERN, line, head)) {
-                    currentPattern = LinePattern.HEADER;
-                    appendSection(head, lineNum);
-                } else if (check(LIST_PATTERN, line, head)) {
-                    currentPattern = LinePattern.LIST;
-                    appendListElement(prevPattern, head, lineNum);
-                } else if (check(NUMBERED_LIST_PATTERN, line, head)) {
-                    currentPattern = LinePattern.LIST;
-                    appendListElement(prevPattern, head, lineNum);
-                } else if (check(BEGIN_COMMENT_PATTERN, line, head)) {
-                    if (!check(END_COMMENT_PATTERN, line, head)) { // skip comment
-                        currentPattern = LinePattern.COMMENT;
-                    }
-                } else if (line.equals("")) { // new paragraph content
+                } else if (line.length() == 0) { // new paragraph content
                     builder.addParagraph();
-                } else { // usual sentence.
-                    currentPattern = LinePattern.SENTENCE;
-                    String remainStr = appendSentencesIntoSection(lineNum,
-                            remain.append(line).toString());
-                    remain.delete(0, remain.length());
-                    remain.append(remainStr);
+                } else {
+                    currentPattern = classify(line);
+                    switch (currentPattern) {
+                        case HEADER:
+                            appendSection(line.subSequence(contentStart, line.length()),
+                                    lineNum, lineOffset + contentStart);
+                            break;
+                        case LIST:
+                            appendListElement(prevPattern, line.subSequence(contentStart, line.length()),
+                                    lineNum, lineOffset + contentStart);
+                            break;
+                        case COMMENT: // skip comment
+                            break;
+                        default: // usual sentence.
+                            remain.append(line, lineOffset);
+                            appendSentencesIntoSection(lineNum, remain);
+                    }
                 }
                 lineNum++;
             }
@@ -141,34 +168,36 @@ public final class WikiParser extends BaseDocumentParser {
             throw new RedPenException(e);
         }
         if (remain.length() > 0) {
-            appendLastSentence(lineNum, remain.toString());
+            appendLastSentence(lineNum, remain);
         }
         return builder.getLastDocument();
     }
 
     private void appendListElement(LinePattern prevPattern,
-                                   List<String> head, int lineNum) {
+                                   CharSequence text, int lineNum, int contentOffset) {
         if (prevPattern != LinePattern.LIST) {
             builder.addListBlock();
         }
         List<Sentence> outputSentences = new ArrayList<>();
-        String remainSentence = obtainSentences(0, head.get(1), outputSentences);
-        builder.addListElement(extractListLevel(head.get(0)),
-                outputSentences);
+        PendingText content = new PendingText();
+        content.append(text, contentOffset);
+        obtainSentences(0, content, outputSentences);
+        builder.addListElement(markupLevel, outputSentences);
         // NOTE: for list content without period
-        if (remainSentence != null && remainSentence.length() > 0) {
-            outputSentences.add(new Sentence(remainSentence, lineNum));
+        if (content.length() > 0) {
+            outputSentences.add(content.flush(lineNum));
         }
     }
 
-    private Section appendSection(List<String> head, int lineNum) {
-        Integer level = Integer.valueOf(head.get(0));
+    private Section appendSection(CharSequence text, int lineNum, int contentOffset) {
+        int level = markupLevel;
         List<Sentence> outputSentences = new ArrayList<>();
-        String remainHeader =
-                obtainSentences(lineNum, head.get(1), outputSentences);
+        PendingText content = new PendingText();
+        content.append(text, contentOffset);
+        obtainSentences(lineNum, content, outputSentences);
         // NOTE: for header without period
-        if (remainHeader != null && remainHeader.length() > 0) {
-            outputSentences.add(new Sentence(remainHeader, lineNum));
+        if (content.length() > 0) {
+            outputSentences.add(content.flush(lineNum));
         }
 
         // To deal with header content as a paragraph
@@ -186,8 +215,8 @@ public final class WikiParser extends BaseDocumentParser {
         return currentSection;
     }
 
-    private void appendLastSentence(int lineNum, String remain) {
-        Sentence sentence = new Sentence(remain, lineNum);
+    private void appendLastSentence(int lineNum, PendingText remain) {
+        Sentence sentence = remain.flush(lineNum);
         parseSentence(sentence); // extract inline elements
         builder.addSentence(sentence);
     }
@@ -199,24 +228,92 @@ public final class WikiParser extends BaseDocumentParser {
 
     private void removeTags(Sentence sentence) {
         String content = sentence.content;
-        for (Pattern inlinePattern : INLINE_PATTERNS) {
-            Matcher m = inlinePattern.matcher(content);
-            content = m.replaceAll("$1");
+        for (char mark : INLINE_MARKS) {
+            content = removeTag(content, mark);
         }
         sentence.content = content;
     }
 
+    /**
+     * Replace every "XXtextXX" with "text", where X is the mark and the text is not empty.
+     * The text between the nearest marks is taken from left to right.
+     */
+    private static String removeTag(String content, char mark) {
+        StringBuilder modContent = null;
+        int copied = 0;
+        int begin = indexOfPair(content, mark, 0);
+        while (begin >= 0) {
+            int end = -1;
+            for (int i = begin + 2; i < content.length(); i++) {
+                if (i > begin + 2 && isPair(content, mark, i)) {
+                    end = i;
+                    break;
+                }
+                if (isLineTerminator(content.charAt(i))) {
+                    break;
+                }
+            }
+            if (end < 0) {
+                begin = indexOfPair(content, mark, begin + 1);
+                continue;
+            }
+            if (modContent == null) {
+                modContent = new StringBuilder(content.length());
+            }
+            modContent.append(content, copied, begin).append(content, begin + 2, end);
+            copied = end + 2;
+            begin = indexOfPair(content, mark, copied);
+        }
+        if (modContent == null) {
+            return content;
+        }
+        return modContent.append(content, copied, content.length()).toString();
+    }
+
+    private static int indexOfPair(String content, char mark, int from) {
+        for (int i = content.indexOf(mark, from); i >= 0; i = content.indexOf(mark, i + 1)) {
+            if (isPair(content, mark, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isPair(String content, char mark, int index) {
+        return index + 1 < content.length()
+                && content.charAt(index) == mark && content.charAt(index + 1) == mark;
+    }
+
+    /**
+     * Find the next link "[[...]]" from the index.
+     *
+     * @return start and end of the link, or null when there is no link
+     */
+    private static int[] findLink(String content, int from) {
+        for (int begin = content.indexOf("[[", from); begin >= 0; begin = content.indexOf("[[", begin + 1)) {
+            for (int i = begin + 2; i < content.length(); i++) {
+                if (content.startsWith("]]", i)) {
+                    return new int[]{begin, i + 2};
+                }
+                if (isLineTerminator(content.charAt(i))) {
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
     private void extractLinks(Sentence sentence) {
         StringBuilder modContent = new StringBuilder();
         int start = 0;
-        Matcher m = LINK_PATTERN.matcher(sentence.content);
-        while (m.find()) {
-            String[] tagInternal = m.group(1).split("\\|");
+        int[] link;
+        while ((link = findLink(sentence.content, start)) != null) {
+            String[] tagInternal = sentence.content.substring(link[0] + 2, link[1] - 2).split("\\|");
             String tagURL = null;
             if (tagInternal.length == 1) {
                 tagURL = tagInternal[0].trim();
                 modContent.append(sentence.content.substring(
-                        start, m.start())).append(tagURL.trim());
+                        start, link[0])).append(tagURL.trim());
             } else if (tagInternal.length == 0) {
                 LOG.warn("Invalid link block: vacant block");
                 tagURL = "";
@@ -228,12 +325,12 @@ public final class WikiParser extends BaseDocumentParser {
                 }
                 tagURL = tagInternal[1].trim();
                 StringBuilder buffer = new StringBuilder();
-                buffer.append(sentence.content.substring(start, m.start()));
+                buffer.append(sentence.content.substring(start, link[0]));
                 buffer.append(tagInternal[0].trim());
                 modContent.append(buffer);
             }
             sentence.links.add(tagURL);
-            start = m.end();
+            start = link[1];
         }
 
         if (start > 0) {
@@ -265,27 +362,18 @@ public final class WikiParser extends BaseDocumentParser {
         return true;
     }
 
-    private String obtainSentences(int lineNum, String line,
-                                   List<Sentence> outputSentences) {
-        String remain = getSentenceExtractor().extract(line, outputSentences, lineNum);
+    private void obtainSentences(int lineNum, PendingText text,
+                                 List<Sentence> outputSentences) {
+        text.extract(getSentenceExtractor(), lineNum, outputSentences);
         for (Sentence sentence : outputSentences) {
             parseSentence(sentence); // extract inline elements
         }
-        return remain;
     }
 
-    private String appendSentencesIntoSection(int lineNum, String line) {
+    private void appendSentencesIntoSection(int lineNum, PendingText remain) {
         List<Sentence> outputSentences = new ArrayList<>();
-        String remain = obtainSentences(lineNum, line, outputSentences);
-
-        for (Sentence sentence : outputSentences) {
-            builder.addSentence(sentence);
-        }
-        return remain;
-    }
-
-    private int extractListLevel(String listPrefix) {
-        return listPrefix.length();
+        obtainSentences(lineNum, remain, outputSentences);
+        builder.addSentences(outputSentences);
     }
 
     /**
@@ -27,11 +27,14 @@ final class CandidateSentence {
 
     private String link;
 
+    private int startIndex;
+
     CandidateSentence(int line,
-                      String lineCharacter, String linkCharacter) {
+                      String lineCharacter, String linkCharacter, int start) {
         this.lineNum = line;
         this.sentence = lineCharacter;
         this.link = linkCharacter;
+        this.startIndex = start;
     }
 
     public int getLineNum() {
@@ -46,6 +49,14 @@ final class CandidateSentence {
         this.sentence = text;
     }
 
+    public int getStartIndex() {
+        return startIndex;
+    }
+
+    public void setStartIndex(int start) {
+        this.startIndex = start;
+    }
+
     public String getLink() {
         return link;
     }
@@ -60,6 +71,7 @@ final class CandidateSentence {
                 + "lineNum=" + lineNum
                 + ", sentence='" + sentence + '\''
                 + ", link='" + link + '\''
+                + ", startIndex=" + startIndex
                 + '}';
     }
 }
@@ -0,0 +1,305 @@
+/**
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser.markdown;
+
+import cc.redpen.RedPenException;
+import cc.redpen.model.Document;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.SentenceExtractor;
+import org.commonmark.node.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Add the contents of a CommonMark tree to a document.
+ * <p>
+ * The document has the same structure as the one built by
+ * {@link ToFileContentSerializer} from the pegdown tree of the same text.
+ *
+ * @see <a href="https://github.com/atlassian/commonmark-java">commonmark-java</a>
+ */
+public class CommonMarkSerializer extends AbstractVisitor {
+    private static final Logger LOG =
+            LoggerFactory.getLogger(CommonMarkSerializer.class);
+    private final DocumentCollection.Builder builder;
+    private final String source;
+    private final SentenceCollector collector;
+    // offsets next to the line breaks of each line in ascending order
+    private final int[] lineEnds;
+    private final int lineCount;
+    private int itemDepth = 0;
+    // position of the next inline text; the autolink extension drops the
+    // source spans of the text nodes, so they are searched in the source
+    private int cursorLine = 0;
+    private int cursorOffset = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param docBuilder DocumentBuilder
+     * @param source     markdown text with a line break after every line
+     * @param lineEnds   offsets next to the line breaks of each line in ascending order
+     * @param lineCount  the number of lines, which may be less than the array length
+     * @param extractor  utility object to extract a sentence list
+     */
+    public CommonMarkSerializer(DocumentCollection.Builder docBuilder,
+                                String source, int[] lineEnds, int lineCount,
+                                SentenceExtractor extractor) {
+        this.builder = docBuilder;
+        this.source = source;
+        this.lineEnds = lineEnds;
+        this.lineCount = lineCount;
+        this.collector = new SentenceCollector(docBuilder, extractor);
+    }
+
+    /**
+     * Traverse markdown tree parsed by the CommonMark parser.
+     *
+     * @param astRoot root of the markdown tree, which must have the source spans
+     * @return file content built from the tree
+     * @throws cc.redpen.RedPenException Fail to traverse markdown tree
+     */
+    public Document toFileContent(Node astRoot) throws RedPenException {
+        if (astRoot == null) {
+            LOG.error("Fail to traverse markdown tree.");
+            throw new RedPenException("markdown tree is null");
+        }
+        astRoot.accept(this);
+        return builder.getLastDocument();
+    }
+
+    private void addCandidateSentence(Node node, String text) {
+        List<SourceSpan> spans = node.getSourceSpans();
+        if (!spans.isEmpty()) {
+            moveCursor(spans.get(0));
+        } else {
+            searchCursor(text);
+        }
+        collector.addCandidateSentence(cursorLine, text, null, cursorOffset);
+        cursorOffset += text.length();
+    }
+
+    /**
+     * Move the cursor to the text in the current line, skipping the markup before
+     * the text. The cursor is kept when the text is not found, e.g. escaped text.
+     */
+    private void searchCursor(String text) {
+        int lineEnd = cursorLine < lineCount ? lineEnds[cursorLine] : source.length();
+        for (int i = cursorOffset; i + text.length() < lineEnd; i++) {
+            if (source.startsWith(text, i)) {
+                cursorOffset = i;
+                return;
+            }
+        }
+    }
+
+    private void visitInline(Node node) {
+        List<SourceSpan> spans = node.getSourceSpans();
+        if (!spans.isEmpty()) {
+            moveCursor(spans.get(0));
+        }
+        visitChildren(node);
+        skipSourceSpans(node);
+    }
+
+    private void skipSourceSpans(Node node) {
+        List<SourceSpan> spans = node.getSourceSpans();
+        if (!spans.isEmpty()) {
+            SourceSpan last = spans.get(spans.size() - 1);
+            moveCursor(last);
+            cursorOffset += last.getLength();
+        }
+    }
+
+    private void moveCursor(SourceSpan span) {
+        cursorLine = span.getLineIndex();
+        cursorOffset = lineStart(cursorLine) + span.getColumnIndex();
+    }
+
+    private int lineStart(int lineIndex) {
+        return lineIndex == 0 || lineIndex > lineCount ? 0 : lineEnds[lineIndex - 1];
+    }
+
+    /**
+     * Move the cursor to the content of the next line of the block.
+     */
+    private void moveCursorToNextLine(Node node) {
+        int nextLine = cursorLine + 1;
+        for (Node block = node.getParent(); block != null; block = block.getParent()) {
+            if (block instanceof Block) {
+                for (SourceSpan span : block.getSourceSpans()) {
+                    if (span.getLineIndex() == nextLine) {
+                        moveCursor(span);
+                        return;
+                    }
+                }
+                break;
+            }
+        }
+        cursorLine = nextLine;
+        cursorOffset = lineStart(nextLine);
+    }
+
+    private void moveCursorToBlock(Block block) {
+        List<SourceSpan> spans = block.getSourceSpans();
+        if (!spans.isEmpty()) {
+            moveCursor(spans.get(0));
+        }
+    }
+
+    @Override
+    public void visit(Heading heading) {
+        // 1. remain sentence flush to current section
+        collector.fixSentence();
+
+        // 2. retrieve children for header content create;
+        moveCursorToBlock(heading);
+        visitChildren(heading);
+
+        // 3. create new Section
+        collector.appendSection(heading.getLevel());
+    }
+
+    @Override
+    public void visit(Paragraph paragraph) {
+        // the items of a tight list hold the text without paragraphs in pegdown
+        moveCursorToBlock(paragraph);
+        Node parent = paragraph.getParent();
+        if (parent instanceof ListItem && ((ListBlock) parent.getParent()).isTight()) {
+            visitChildren(paragraph);
+            return;
+        }
+        builder.addParagraph();
+        visitChildren(paragraph);
+        collector.fixSentence();
+    }
+
+    // list part
+    @Override
+    public void visit(BulletList bulletList) {
+        visitList(bulletList);
+    }
+
+    @Override
+    public void visit(OrderedList orderedList) {
+        visitList(orderedList);
+    }
+
+    private void visitList(ListBlock listBlock) {
+        if (itemDepth == 0) {
+            collector.fixSentence();
+            builder.addListBlock();
+        } else {
+            List<Sentence> sentences = collector.createSentenceList();
+            builder.addListElement(itemDepth, sentences);
+        }
+        itemDepth++;
+        visitChildren(listBlock);
+        itemDepth--;
+    }
+
+    @Override
+    public void visit(ListItem listItem) {
+        visitChildren(listItem);
+        List<Sentence> sentences = collector.createSentenceList();
+        if (sentences.size() > 0) {
+            builder.addListElement(itemDepth, sentences);
+        }
+    }
+
+    @Override
+    public void visit(Text text) {
+        addCandidateSentence(text, text.getLiteral());
+    }
+
+    @Override
+    public void visit(SoftLineBreak softLineBreak) {
+        moveCursorToNextLine(softLineBreak);
+    }
+
+    @Override
+    public void visit(HardLineBreak hardLineBreak) {
+        moveCursorToNextLine(hardLineBreak);
+    }
+
+    @Override
+    public void visit(Code code) {
+        addCandidateSentence(code, code.getLiteral());
+        skipSourceSpans(code);
+    }
+
+    @Override
+    public void visit(Emphasis emphasis) {
+        visitInline(emphasis);
+    }
+
+    @Override
+    public void visit(StrongEmphasis strongEmphasis) {
+        visitInline(strongEmphasis);
+    }
+
+    @Override
+    public void visit(Link link) {
+        // pegdown ignores mail links
+        if (link.getDestination().startsWith("mailto:")) {
+            skipSourceSpans(link);
+            return;
+        }
+        int candidates = collector.getCandidateSentenceCount();
+        visitInline(link);
+        // like the pegdown backend, the url is attached to the sentence holding the end of the link text;
+        // a link without text, such as a linked image, is attached to the sentence following it
+        if (collector.getCandidateSentenceCount() > candidates) {
+            collector.getLastCandidateSentence().setLink(link.getDestination());
+        } else {
+            collector.addPendingLink(link.getDestination());
+        }
+    }
+
+    @Override
+    public void visit(Image image) {
+        // the alternative text of images is not validated, as in the pegdown backend
+        skipSourceSpans(image);
+    }
+
+    // code blocks are not prose, and are skipped to match the pegdown backend
+    @Override
+    public void visit(FencedCodeBlock fencedCodeBlock) {
+    }
+
+    @Override
+    public void visit(IndentedCodeBlock indentedCodeBlock) {
+    }
+
+    // raw html is skipped to match the pegdown backend
+    @Override
+    public void visit(HtmlBlock htmlBlock) {
+    }
+
+    @Override
+    public void visit(HtmlInline htmlInline) {
+        skipSourceSpans(htmlInline);
+    }
+
+    @Override
+    public void visit(LinkReferenceDefinition linkReferenceDefinition) {
+        // definitions are resolved by the parser
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser.markdown;
+
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Section;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.PendingText;
+import cc.redpen.parser.SentenceExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collect the inline text of a markdown tree as candidate sentences, and add
+ * the sentences and sections to the document. Shared by the serializers of
+ * the markdown parser backends so that they build the same document structure.
+ */
+final class SentenceCollector {
+    private static final Logger LOG =
+            LoggerFactory.getLogger(SentenceCollector.class);
+    private final DocumentCollection.Builder builder;
+    private final SentenceExtractor sentenceExtractor;
+    private final List<CandidateSentence> candidateSentences = new ArrayList<>();
+
+    SentenceCollector(DocumentCollection.Builder builder, SentenceExtractor sentenceExtractor) {
+        this.builder = builder;
+        this.sentenceExtractor = sentenceExtractor;
+    }
+
+    void addCandidateSentence(int lineNum, String text, String link, int startIndex) {
+        candidateSentences.add(new CandidateSentence(lineNum, text, link, startIndex));
+    }
+
+    /**
+     * Add a link whose text is not a candidate sentence, such as a linked image.
+     * The link is attached to the next sentence extracted from the candidates.
+     *
+     * @param link url of the link
+     */
+    void addPendingLink(String link) {
+        candidateSentences.add(new CandidateSentence(-1, null, link, -1));
+    }
+
+    /**
+     * Get the number of the candidate sentences.
+     *
+     * @return number of candidate sentences
+     */
+    int getCandidateSentenceCount() {
+        return candidateSentences.size();
+    }
+
+    /**
+     * Get the candidate sentence added last.
+     *
+     * @return last candidate sentence
+     */
+    CandidateSentence getLastCandidateSentence() {
+        return candidateSentences.get(candidateSentences.size() - 1);
+    }
+
+    /**
+     * Add the sentences of the candidates to the current paragraph.
+     */
+    void fixSentence() {
+        // 1. remain sentence append currentSection
+        //TODO need line number
+        builder.addSentences(createSentenceList());
+    }
+
+    /**
+     * Create a section whose header is the sentences of the candidates.
+     *
+     * @param level header level
+     */
+    void appendSection(int level) {
+        List<Sentence> headerContents = createSentenceList();
+
+        // To deal with a header content as a paragraph
+        if (headerContents.size() > 0) {
+            headerContents.get(0).isFirstSentence = true;
+        }
+
+        // create new Section
+        Section currentSection = builder.getLastSection();
+        builder.addSection(level, headerContents);
+        //FIXME move this validate process to addChild
+        if (!addChild(currentSection, builder.getLastSection())) {
+            LOG.warn("Failed to add parent for a Section: "
+                    + builder.getLastSection().getHeaderContents().get(0));
+        }
+    }
+
+    /**
+     * Extract sentences from the candidates, and clear the candidates.
+     *
+     * @return list of sentences
+     */
+    List<Sentence> createSentenceList() {
+        List<Sentence> newSentences = new ArrayList<>();
+        PendingText remain = new PendingText();
+        Sentence currentSentence = null;
+        List<String> remainLinks = new ArrayList<>();
+        int lineNum = -1;
+
+        for (CandidateSentence candidateSentence : candidateSentences) {
+            if (candidateSentence.getSentence() == null) {
+                remainLinks.add(candidateSentence.getLink());
+                continue;
+            }
+            lineNum = candidateSentence.getLineNum();
+            // extract sentences in input line
+            List<Sentence> currentSentences = new ArrayList<>();
+            remain.append(candidateSentence.getSentence(),
+                    candidateSentence.getStartIndex());
+            remain.extract(sentenceExtractor, lineNum, currentSentences);
+
+            if (currentSentences.size() > 0) {
+                currentSentence = addExtractedSentences(newSentences,
+                        remainLinks, currentSentences);
+                remainLinks = new ArrayList<>();
+            }
+
+            if (candidateSentence.getLink() == null) {
+                continue;
+            }
+            if (currentSentence != null) {
+                currentSentence.links.add(candidateSentence.getLink());
+            } else {
+                remainLinks.add(candidateSentence.getLink());
+            }
+        }
+        // for remaining
+        if (remain.length() > 0) {
+            Sentence lastSentence = remain.flush(lineNum);
+            lastSentence.links.addAll(remainLinks);
+            newSentences.add(lastSentence);
+        }
+        candidateSentences.clear();
+        return newSentences;
+    }
+
+    private Sentence addExtractedSentences(List<Sentence> newSentences,
+                                           List<String> remainLinks, List<Sentence> currentSentences) {
+        Sentence currentSentence;
+        newSentences.addAll(currentSentences);
+        currentSentence = currentSentences.get(currentSentences.size() - 1);
+        for (String remainLink : remainLinks) {
+            currentSentence.links.add(remainLink);
+        }
+        return currentSentence;
+    }
+
+    //FIXME wikiparser have same method. pull up or expand to utils
+    private static boolean addChild(Section candidate, Section child) {
+        if (candidate.getLevel() < child.getLevel()) {
+            candidate.appendSubSection(child);
+            child.setParentSection(candidate);
+        } else { // search parent
+            Section parent = candidate.getParentSection();
+            while (parent != null) {
+                if (parent.getLevel() < child.getLevel()) {
+                    parent.appendSubSection(child);
+                    child.setParentSection(parent);
+                    break;
+                }
+                parent = parent.getParentSection();
+            }
+            if (parent == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -19,7 +19,6 @@ package cc.redpen.parser.markdown;
 import cc.redpen.RedPenException;
 import cc.redpen.model.Document;
 import cc.redpen.model.DocumentCollection;
-import cc.redpen.model.Section;
 import cc.redpen.model.Sentence;
 import cc.redpen.parser.SentenceExtractor;
 import org.parboiled.common.StringUtils;
@@ -28,7 +27,7 @@ import org.pegdown.ast.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,13 +48,13 @@ public class ToFileContentSerializer implements Visitor {
     private final Map<String, String> abbreviations =
             new HashMap<String, String>();
     private DocumentCollection.Builder builder = null;
-    private SentenceExtractor sentenceExtractor;
+    private final SentenceCollector collector;
     private int itemDepth = 0;
-    private List<Integer> lineList = null;
+    // offsets next to the line breaks of each line in ascending order
+    private int[] lineEnds;
+    private int lineCount;
     // TODO multi period character not supported
     private String period;
-    private List<CandidateSentence> candidateSentences =
-            new ArrayList<CandidateSentence>();
     private Printer printer = new Printer();
 
     /**
@@ -68,9 +67,32 @@ public class ToFileContentSerializer implements Visitor {
     public ToFileContentSerializer(DocumentCollection.Builder docBuilder,
                                    List<Integer> listOfLineNumber,
                                    SentenceExtractor extractor) {
+        this(docBuilder, toArray(listOfLineNumber), listOfLineNumber.size(), extractor);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param docBuilder DocumentBuilder
+     * @param lineEnds   offsets next to the line breaks of each line in ascending order
+     * @param lineCount  the number of lines, which may be less than the array length
+     * @param extractor  utility object to extract a sentence list
+     */
+    public ToFileContentSerializer(DocumentCollection.Builder docBuilder,
+                                   int[] lineEnds, int lineCount,
+                                   SentenceExtractor extractor) {
         this.builder = docBuilder;
-        this.lineList = listOfLineNumber;
-        this.sentenceExtractor = extractor;
+        this.lineEnds = lineEnds;
+        this.lineCount = lineCount;
+        this.collector = new SentenceCollector(docBuilder, extractor);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
     }
 
     protected void visitChildren(SuperNode node) {
@@ -99,33 +121,22 @@ public class ToFileContentSerializer implements Visitor {
         return builder.getLastDocument();
     }
 
-    private void fixSentence() {
-        // 1. remain sentence append currentSection
-        //TODO need line number
-        List<Sentence> sentences = createSentenceList();
-        for (Sentence sentence : sentences) {
-            builder.addSentence(sentence);
-        }
-    }
-
-    private void addCandidateSentence(int lineNum, String text) {
-        addCandidateSentence(lineNum, text, null);
+    private void addCandidateSentence(int startIndex, String text) {
+        addCandidateSentence(startIndex, text, null);
     }
 
-    private void addCandidateSentence(int lineNum, String text, String link) {
-        candidateSentences.add(new CandidateSentence(lineNum, text, link));
+    private void addCandidateSentence(int startIndex, String text, String link) {
+        collector.addCandidateSentence(
+                lineNumberFromStartIndex(startIndex), text, link, startIndex);
     }
 
+    /**
+     * Line number of the index, which is the number of lines ending at or before the index.
+     */
     private int lineNumberFromStartIndex(int startIndex) {
-        int lineNum = 0;
-        // TODO test
-        for (int end : lineList) {
-            if (startIndex < end) {
-                break;
-            }
-            lineNum++;
-        }
-        return lineNum;
+        // line ends are strictly increasing since every line has a line break
+        int found = Arrays.binarySearch(lineEnds, 0, lineCount, startIndex);
+        return found >= 0 ? found + 1 : -found - 1;
     }
 
     private String printChildrenToString(SuperNode node) {
@@ -138,100 +149,6 @@ public class ToFileContentSerializer implements Visitor {
         return result;
     }
 
-    private List<Sentence> createSentenceList() {
-        List<Sentence> newSentences = new ArrayList<>();
-        String remainStr = "";
-        Sentence currentSentence = null;
-        List<String> remainLinks = new ArrayList<>();
-        int lineNum = -1;
-
-        for (CandidateSentence candidateSentence : candidateSentences) {
-            lineNum = candidateSentence.getLineNum();
-            // extract sentences in input line
-            List<Sentence> currentSentences = new ArrayList<>();
-            remainStr = sentenceExtractor.extract(
-                    remainStr + candidateSentence.getSentence(),
-                    currentSentences, lineNum);
-
-            if (currentSentences.size() > 0) {
-                currentSentence = addExtractedSentences(newSentences,
-                        remainLinks, currentSentences);
-                remainLinks = new ArrayList<>();
-            }
-
-            if (candidateSentence.getLink() == null) {
-                continue;
-            }
-            if (currentSentence != null) {
-                currentSentence.links.add(candidateSentence.getLink());
-            } else {
-                remainLinks.add(candidateSentence.getLink());
-            }
-        }
-        // for remaining
-        if (remainStr.length() > 0) {
-            newSentences.add(new Sentence(remainStr, lineNum));
-        }
-        candidateSentences.clear();
-        return newSentences;
-    }
-
-    private Sentence addExtractedSentences(List<Sentence> newSentences,
-                                           List<String> remainLinks, List<Sentence> currentSentences) {
-        Sentence currentSentence;
-        newSentences.addAll(currentSentences);
-        currentSentence = currentSentences.get(currentSentences.size() - 1);
-        for (String remainLink : remainLinks) {
-            currentSentence.links.add(remainLink);
-        }
-        return currentSentence;
-    }
-
-    //FIXME wikiparser have same method. pull up or expand to utils
-    private boolean addChild(Section candidate, Section child) {
-        if (candidate.getLevel() < child.getLevel()) {
-            candidate.appendSubSection(child);
-            child.setParentSection(candidate);
-        } else { // search parent
-            Section parent = candidate.getParentSection();
-            while (parent != null) {
-                if (parent.getLevel() < child.getLevel()) {
-                    parent.appendSubSection(child);
-                    child.setParentSection(parent);
-                    break;
-                }
-                parent = parent.getParentSection();
-            }
-            if (parent == null) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private void appendSection(HeaderNode headerNode) {
-        // 1. remain sentence flush to current section
-        fixSentence();
-
-        // 2. retrieve children for header content create;
-        visitChildren(headerNode);
-        List<Sentence> headerContents = createSentenceList();
-
-        // To deal with a header content as a paragraph
-        if (headerContents.size() > 0) {
-            headerContents.get(0).isFirstSentence = true;
-        }
-
-        // 3. create new Section
-        Section currentSection = builder.getLastSection();
-        builder.addSection(headerNode.getLevel(), headerContents);
-        //FIXME move this validate process to addChild
-        if (!addChild(currentSection, builder.getLastSection())) {
-            LOG.warn("Failed to add parent for a Section: "
-                    + builder.getLastSection().getHeaderContents().get(0));
-        }
-    }
-
     @Override
     public void visit(AbbreviationNode abbreviationNode) {
         // current not implement
@@ -241,8 +158,7 @@ public class ToFileContentSerializer implements Visitor {
     @Override
     public void visit(AutoLinkNode autoLinkNode) {
         // TODO GitHub Markdown Extension
-        addCandidateSentence(
-                lineNumberFromStartIndex(autoLinkNode.getStartIndex()),
+        addCandidateSentence(autoLinkNode.getStartIndex(),
                 autoLinkNode.getText(), autoLinkNode.getText());
     }
 
@@ -253,8 +169,7 @@ public class ToFileContentSerializer implements Visitor {
 
     @Override
     public void visit(CodeNode codeNode) {
-        addCandidateSentence(lineNumberFromStartIndex(
-                codeNode.getStartIndex()), codeNode.getText());
+        addCandidateSentence(codeNode.getStartIndex(), codeNode.getText());
     }
 
     @Override
@@ -269,13 +184,20 @@ public class ToFileContentSerializer implements Visitor {
         // FIXME how to handle url, if linkName includes period character?
         // TODO temporary implementation
         CandidateSentence lastCandidateSentence =
-                candidateSentences.get(candidateSentences.size() - 1);
+                collector.getLastCandidateSentence();
         lastCandidateSentence.setLink(expLinkNode.url);
     }
 
     @Override
     public void visit(HeaderNode headerNode) {
-        appendSection(headerNode);
+        // 1. remain sentence flush to current section
+        collector.fixSentence();
+
+        // 2. retrieve children for header content create;
+        visitChildren(headerNode);
+
+        // 3. create new Section
+        collector.appendSection(headerNode.getLevel());
     }
 
     // list part
@@ -284,10 +206,10 @@ public class ToFileContentSerializer implements Visitor {
         //FIXME test and validate
         // TODO handle bulletListNode and orderdListNode
         if (itemDepth == 0) {
-            fixSentence();
+            collector.fixSentence();
             builder.addListBlock();
         } else {
-            List<Sentence> sentences = createSentenceList();
+            List<Sentence> sentences = collector.createSentenceList();
             builder.addListElement(itemDepth, sentences);
         }
         itemDepth++;
@@ -299,10 +221,10 @@ public class ToFileContentSerializer implements Visitor {
     public void visit(OrderedListNode orderedListNode) {
         // TODO handle bulletListNode and orderdListNode
         if (itemDepth == 0) {
-            fixSentence();
+            collector.fixSentence();
             builder.addListBlock();
         } else {
-            List<Sentence> sentences = createSentenceList();
+            List<Sentence> sentences = collector.createSentenceList();
             builder.addListElement(itemDepth, sentences);
         }
         itemDepth++;
@@ -314,7 +236,7 @@ public class ToFileContentSerializer implements Visitor {
     @Override
     public void visit(ListItemNode listItemNode) {
         visitChildren(listItemNode);
-        List<Sentence> sentences = createSentenceList();
+        List<Sentence> sentences = collector.createSentenceList();
         // TODO for nested ListNode process
         if (sentences != null && sentences.size() > 0) {
             builder.addListElement(itemDepth, sentences);
@@ -326,7 +248,7 @@ public class ToFileContentSerializer implements Visitor {
     public void visit(ParaNode paraNode) {
         builder.addParagraph();
         visitChildren(paraNode);
-        fixSentence();
+        collector.fixSentence();
     }
 
     @Override
@@ -355,20 +277,16 @@ public class ToFileContentSerializer implements Visitor {
             case HRule:
                 break;
             case Apostrophe:
-                addCandidateSentence(
-                        lineNumberFromStartIndex(simpleNode.getStartIndex()), "'");
+                addCandidateSentence(simpleNode.getStartIndex(), "'");
                 break;
             case Ellipsis:
-                addCandidateSentence(
-                        lineNumberFromStartIndex(simpleNode.getStartIndex()), "...");
+                addCandidateSentence(simpleNode.getStartIndex(), "...");
                 break;
             case Emdash:
-                addCandidateSentence(
-                        lineNumberFromStartIndex(simpleNode.getStartIndex()), "–");
+                addCandidateSentence(simpleNode.getStartIndex(), "–");
                 break;
             case Endash:
-                addCandidateSentence(
-                        lineNumberFromStartIndex(simpleNode.getStartIndex()), "—");
+                addCandidateSentence(simpleNode.getStartIndex(), "—");
                 break;
             default:
                 LOG.warn("Illegal SimpleNode:[" + simpleNode.toString() + "]");
@@ -378,9 +296,7 @@ public class ToFileContentSerializer implements Visitor {
     @Override
     public void visit(SpecialTextNode specialTextNode) {
         // TODO to sentence
-        addCandidateSentence(
-                lineNumberFromStartIndex(
-                        specialTextNode.getStartIndex()), specialTextNode.getText());
+        addCandidateSentence(specialTextNode.getStartIndex(), specialTextNode.getText());
     }
 
     @Override
@@ -398,9 +314,7 @@ public class ToFileContentSerializer implements Visitor {
     public void visit(TextNode textNode) {
         // to sentence, if sentence breaker appear
         // append remain sentence, if sentence breaker not appear
-        addCandidateSentence(
-                lineNumberFromStartIndex(
-                        textNode.getStartIndex()), textNode.getText());
+        addCandidateSentence(textNode.getStartIndex(), textNode.getText());
         // for printChildrenToString
         printer.print(textNode.getText());
     }
@@ -439,12 +353,14 @@ public class ToFileContentSerializer implements Visitor {
         // FIXME how to handle url, if linkName include period character?
         // TODO temporary implementation
         CandidateSentence lastCandidateSentence =
-                candidateSentences.get(candidateSentences.size() - 1);
+                collector.getLastCandidateSentence();
         if (StringUtils.isNotEmpty(url)) {
             lastCandidateSentence.setLink(url);
         } else {
             lastCandidateSentence.setSentence(
                     "[" + lastCandidateSentence.getSentence() + "]");
+            lastCandidateSentence.setStartIndex(
+                    lastCandidateSentence.getStartIndex() - 1);
         }
     }
 
@@ -0,0 +1,127 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.tokenizer;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compact store of the tokens of a sentence.
+ * <p>
+ * A token is kept as the offsets of its surface in the sentence and the id of its
+ * features in {@link FeatureTable}, and {@link #get} returns a {@link TokenElement}
+ * view of them. The list is immutable once it is built.
+ */
+final class CompactTokenList extends AbstractList<TokenElement> implements RandomAccess {
+    private final String text;
+    private final FeatureTable featureTable;
+    private int[] offsets;
+    private int[] featureIds;
+    // surfaces which are not a part of the text, allocated only when needed
+    private String[] surfaces;
+    private int size = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param text     tokenized text
+     * @param capacity expected number of tokens
+     */
+    CompactTokenList(String text, int capacity) {
+        this.text = text;
+        this.featureTable = FeatureTable.getInstance();
+        this.offsets = new int[Math.max(capacity, 1) * 2];
+        this.featureIds = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Append a token.
+     *
+     * @param surface   surface of the token
+     * @param start     offset of the surface in the text
+     * @param featureId id of the features in {@link FeatureTable}
+     */
+    void append(String surface, int start, int featureId) {
+        if (start < 0 || !text.startsWith(surface, start)) {
+            if (surfaces == null) {
+                surfaces = new String[Math.max(featureIds.length, size + 1)];
+            } else if (surfaces.length <= size) {
+                surfaces = Arrays.copyOf(surfaces, Math.max(featureIds.length, size + 1));
+            }
+            surfaces[size] = surface;
+            start = 0;
+        }
+        append(start, start + surface.length(), featureId);
+    }
+
+    /**
+     * Append a token whose surface is a part of the text.
+     *
+     * @param start     offset of the first character of the surface in the text
+     * @param end       offset next to the last character of the surface in the text
+     * @param featureId id of the features in {@link FeatureTable}
+     */
+    void append(int start, int end, int featureId) {
+        if (size == featureIds.length) {
+            offsets = Arrays.copyOf(offsets, size * 4);
+            featureIds = Arrays.copyOf(featureIds, size * 2);
+        }
+        offsets[size * 2] = start;
+        offsets[size * 2 + 1] = end;
+        featureIds[size] = featureId;
+        size++;
+    }
+
+    String getSurface(int index) {
+        if (hasExplicitSurface(index)) {
+            return surfaces[index];
+        }
+        return text.substring(offsets[index * 2], offsets[index * 2 + 1]);
+    }
+
+    List<String> getTags(int index) {
+        return featureTable.get(featureIds[index]);
+    }
+
+    int getStartOffset(int index) {
+        return hasExplicitSurface(index) ? -1 : offsets[index * 2];
+    }
+
+    int getEndOffset(int index) {
+        return hasExplicitSurface(index) ? -1 : offsets[index * 2 + 1];
+    }
+
+    private boolean hasExplicitSurface(int index) {
+        return surfaces != null && index < surfaces.length && surfaces[index] != null;
+    }
+
+    @Override
+    public TokenElement get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new TokenElement(this, index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.tokenizer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide table of the part-of-speech features of tokens.
+ * <p>
+ * Each distinct combination of features is interned once and is identified by an
+ * int id, so that tokens hold the id instead of their own list of feature strings.
+ * The features are kept as a single string and split into a list when they are
+ * requested first. The table grows with the number of distinct combinations, which
+ * is bounded by the dictionary of the tokenizer.
+ */
+final class FeatureTable {
+    private static final FeatureTable INSTANCE = new FeatureTable();
+
+    private static final char SEPARATOR = '\u0000';
+
+    /**
+     * Id of the empty features.
+     */
+    static final int EMPTY = 0;
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile Entry[] entries = new Entry[64];
+    private int size = 0;
+
+    FeatureTable() {
+        entries[EMPTY] = new Entry("", Collections.<String>emptyList());
+        ids.put("", EMPTY);
+        size = 1;
+    }
+
+    static FeatureTable getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Find the id of the features interned with the key.
+     *
+     * @param key string identifying the features, such as the features joined by
+     *            the tokenizer; the empty string is the key of {@link #EMPTY}
+     * @return id of the features, or -1 when the key is not interned yet
+     */
+    int find(String key) {
+        Integer id = ids.get(key);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Intern the features with the key.
+     *
+     * @param key      string identifying the features
+     * @param features features, used only when the key is not interned yet
+     * @return id of the features
+     */
+    synchronized int intern(String key, String[] features) {
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        Entry[] current = entries;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = new Entry(join(features), null);
+        entries = current;
+        ids.put(key, size);
+        return size++;
+    }
+
+    /**
+     * Get the features of the id.
+     *
+     * @param id id returned by {@link #intern}
+     * @return unmodifiable list of the features
+     */
+    List<String> get(int id) {
+        return entries[id].decode();
+    }
+
+    /**
+     * Get the number of interned feature combinations.
+     *
+     * @return number of the combinations
+     */
+    int size() {
+        return ids.size();
+    }
+
+    private static String join(String[] features) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < features.length; i++) {
+            if (i > 0) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(features[i]);
+        }
+        return joined.toString();
+    }
+
+    private static final class Entry {
+        private final String joined;
+        private volatile List<String> features;
+
+        private Entry(String joined, List<String> features) {
+            this.joined = joined;
+            this.features = features;
+        }
+
+        private List<String> decode() {
+            List<String> result = features;
+            if (result == null) {
+                result = Collections.unmodifiableList(
+                        Arrays.asList(joined.split(String.valueOf(SEPARATOR), -1)));
+                features = result;
+            }
+            return result;
+        }
+    }
+}
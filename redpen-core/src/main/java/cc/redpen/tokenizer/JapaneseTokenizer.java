@@ -21,23 +21,111 @@ import org.atilika.kuromoji.Token;
 import org.atilika.kuromoji.Tokenizer;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Tokenizer for Japanese text backed by Kuromoji.
+ * <p>
+ * The Kuromoji dictionary is loaded once in the process when the first sentence is
+ * tokenized, and is shared by all the instances. Kuromoji tokenizer is thread safe,
+ * so instances can be shared by parallel workers.
+ */
 public class JapaneseTokenizer implements RedPenTokenizer {
+    private static final JapaneseTokenizer INSTANCE = new JapaneseTokenizer();
 
-    private Tokenizer tokenizer;
+    private static final FeatureTable FEATURES = FeatureTable.getInstance();
 
-    public JapaneseTokenizer() {
-        this.tokenizer = Tokenizer.builder().build();
+    /**
+     * Get the tokenizer shared in the process.
+     *
+     * @return tokenizer
+     */
+    public static JapaneseTokenizer getInstance() {
+        return INSTANCE;
     }
 
+    public JapaneseTokenizer() {}
+
     @Override
     public List<TokenElement> tokenize(String content) {
-        List<TokenElement> tokens = new ArrayList<>();
-        for (Token token : tokenizer.tokenize(content)) {
-            tokens.add(new TokenElement(token.getSurfaceForm(), Arrays.asList(token.getAllFeaturesArray())));
+        List<Token> tokens = Kuromoji.TOKENIZER.tokenize(content);
+        CompactTokenList resultTokens = new CompactTokenList(content, tokens.size());
+        for (Token token : tokens) {
+            append(resultTokens, token, 0);
+        }
+        return resultTokens;
+    }
+
+    /**
+     * Tokenize sentences in a batch. Kuromoji tokenizes text separately at the
+     * ideographic full stop and comma, so consecutive sentences ending with them are
+     * joined and tokenized in one call, which gives the same tokens as separate calls.
+     *
+     * @param sentences input sentences
+     * @return tokens of each sentence
+     */
+    @Override
+    public List<List<TokenElement>> tokenize(List<String> sentences) {
+        List<List<TokenElement>> result = new ArrayList<>(sentences.size());
+        StringBuilder joined = new StringBuilder();
+        int[] starts = new int[sentences.size()];
+        int first = 0;
+        for (int i = 0; i < sentences.size(); i++) {
+            String sentence = sentences.get(i);
+            starts[i] = joined.length();
+            joined.append(sentence);
+            if (i == sentences.size() - 1 || !endsWithSplitMark(sentence)) {
+                tokenizeJoined(joined.toString(), sentences, starts, first, i, result);
+                joined.setLength(0);
+                first = i + 1;
+            }
+        }
+        return result;
+    }
+
+    private static void tokenizeJoined(String joined, List<String> sentences, int[] starts,
+                                       int first, int last, List<List<TokenElement>> result) {
+        if (first == last) {
+            result.add(INSTANCE.tokenize(sentences.get(first)));
+            return;
         }
-        return tokens;
+        List<Token> tokens = Kuromoji.TOKENIZER.tokenize(joined);
+        int index = 0;
+        for (int i = first; i <= last; i++) {
+            int end = index;
+            int limit = i < last ? starts[i + 1] : joined.length();
+            while (end < tokens.size() && tokens.get(end).getPosition() < limit) {
+                end++;
+            }
+            CompactTokenList sentenceTokens = new CompactTokenList(sentences.get(i), end - index);
+            for (; index < end; index++) {
+                append(sentenceTokens, tokens.get(index), starts[i]);
+            }
+            result.add(sentenceTokens);
+        }
+    }
+
+    private static boolean endsWithSplitMark(String sentence) {
+        if (sentence.isEmpty()) {
+            return false;
+        }
+        char last = sentence.charAt(sentence.length() - 1);
+        return last == '。' || last == '、';
+    }
+
+    private static void append(CompactTokenList tokens, Token token, int start) {
+        String features = token.getAllFeatures();
+        int featureId = FEATURES.find(features);
+        if (featureId < 0) {
+            featureId = FEATURES.intern(features, token.getAllFeaturesArray());
+        }
+        tokens.append(token.getSurfaceForm(), token.getPosition() - start, featureId);
+    }
+
+    /**
+     * Holder of the Kuromoji tokenizer, which loads the dictionary on first use.
+     */
+    private static final class Kuromoji {
+        private static final Tokenizer TOKENIZER = Tokenizer.builder().build();
     }
 }
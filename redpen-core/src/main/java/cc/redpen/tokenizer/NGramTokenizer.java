@@ -0,0 +1,92 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.tokenizer;
+
+import java.util.List;
+
+/**
+ * Character n-gram tokenizer for languages without word delimiters, such as Chinese.
+ * <p>
+ * Each run of letters and digits is split into overlapping n-grams of characters,
+ * and a run shorter than n is a single token. Other characters separate the runs.
+ * The tokenizer needs no dictionary, and is much cheaper than a morphological analyzer.
+ */
+public class NGramTokenizer implements RedPenTokenizer {
+    private static final int DEFAULT_N = 2;
+
+    private final int n;
+
+    /**
+     * Constructor of the bigram tokenizer.
+     */
+    public NGramTokenizer() {
+        this(DEFAULT_N);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param n number of the characters in a token
+     */
+    public NGramTokenizer(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("N must be positive: " + n);
+        }
+        this.n = n;
+    }
+
+    @Override
+    public List<TokenElement> tokenize(String content) {
+        CompactTokenList tokens = new CompactTokenList(content, scan(content, null));
+        scan(content, tokens);
+        return tokens;
+    }
+
+    /**
+     * Scan the n-grams of the content.
+     *
+     * @param content content to scan
+     * @param tokens  list to append the n-grams, or null to count them only
+     * @return number of the n-grams
+     */
+    private int scan(String content, CompactTokenList tokens) {
+        int count = 0;
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(content.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(content.charAt(i))) {
+                i++;
+            }
+            if (start == i) {
+                continue;
+            }
+            int last = Math.max(start, i - n);
+            for (int gram = start; gram <= last; gram++) {
+                if (tokens != null) {
+                    tokens.append(gram, Math.min(gram + n, i), FeatureTable.EMPTY);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package cc.redpen.tokenizer;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface RedPenTokenizer {
@@ -27,4 +28,18 @@ public interface RedPenTokenizer {
      * @return a set of tokens in the input sentence
      */
     List<TokenElement> tokenize(String sentence);
+
+    /**
+     * Tokenize input sentences, such as the sentences of a paragraph, in a batch.
+     *
+     * @param sentences input sentences
+     * @return tokens of each input sentence
+     */
+    default List<List<TokenElement>> tokenize(List<String> sentences) {
+        List<List<TokenElement>> tokens = new ArrayList<>(sentences.size());
+        for (String sentence : sentences) {
+            tokens.add(tokenize(sentence));
+        }
+        return tokens;
+    }
 }
@@ -22,40 +22,73 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * Token of a sentence. Tokens of the bundled tokenizers are views of a compact
+ * token store, whose surface and tags are obtained from the store on demand.
+ */
 public final class TokenElement {
     final private String surface;
 
     final private List<String> tags;
 
+    final private CompactTokenList store;
+
+    final private int index;
+
     public TokenElement(String word) {
-        surface = word;
-        tags = Collections.unmodifiableList(new ArrayList<>());
+        this(word, Collections.unmodifiableList(new ArrayList<>()));
     }
 
     public TokenElement(String word, String tag) {
-        surface = word;
-        tags = Collections.unmodifiableList(Arrays.asList(tag));
+        this(word, Arrays.asList(tag));
     }
 
     public TokenElement(String word, List<String> tagList) {
         surface = word;
         tags = Collections.unmodifiableList(tagList);
+        store = null;
+        index = -1;
+    }
+
+    TokenElement(CompactTokenList store, int index) {
+        this.surface = null;
+        this.tags = null;
+        this.store = store;
+        this.index = index;
     }
 
     public String getSurface() {
-        return surface;
+        return store == null ? surface : store.getSurface(index);
     }
 
     public List<String> getTags() {
-        return tags;
+        return store == null ? tags : store.getTags(index);
+    }
+
+    /**
+     * Get the offset of the first character of the token in the sentence.
+     *
+     * @return offset, -1 when the tokenizer does not record offsets
+     */
+    public int getStartOffset() {
+        return store == null ? -1 : store.getStartOffset(index);
+    }
+
+    /**
+     * Get the offset next to the last character of the token in the sentence.
+     *
+     * @return offset, -1 when the tokenizer does not record offsets
+     */
+    public int getEndOffset() {
+        return store == null ? -1 : store.getEndOffset(index);
     }
 
 
     @Override
     public String toString() {
         return "TokenElement{" +
-                "surface='" + surface + '\'' +
-                ", tags=" + tags +
+                "surface='" + getSurface() + '\'' +
+                ", tags=" + getTags() +
                 '}';
     }
 
@@ -66,16 +99,16 @@ public final class TokenElement {
 
         TokenElement that = (TokenElement) o;
 
-        if (surface != null ? !surface.equals(that.surface) : that.surface != null) return false;
-        if (tags != null ? !tags.equals(that.tags) : that.tags != null) return false;
-
-        return true;
+        String surface = getSurface();
+        if (surface != null ? !surface.equals(that.getSurface()) : that.getSurface() != null) return false;
+        return getTags().equals(that.getTags());
     }
 
     @Override
     public int hashCode() {
+        String surface = getSurface();
         int result = surface != null ? surface.hashCode() : 0;
-        result = 31 * result + (tags != null ? tags.hashCode() : 0);
+        result = 31 * result + getTags().hashCode();
         return result;
     }
 }
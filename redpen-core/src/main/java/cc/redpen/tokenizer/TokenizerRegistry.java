@@ -0,0 +1,166 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.tokenizer;
+
+import cc.redpen.config.SymbolTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Process-wide registry of the tokenizers.
+ * <p>
+ * Besides the bundled tokenizers, tokenizers are found with {@link ServiceLoader}:
+ * an implementation of {@link RedPenTokenizer} with a public no-argument constructor
+ * is registered by listing its class name in
+ * META-INF/services/cc.redpen.tokenizer.RedPenTokenizer. Each tokenizer is instantiated
+ * once and shared by all the documents, so it must be thread safe; a plugin which
+ * fails to load is skipped with an error log. A tokenizer is
+ * named after its class name without the "Tokenizer" suffix (e.g. "Japanese" for
+ * JapaneseTokenizer), and can be also looked up by the fully qualified class name.
+ * <p>
+ * The tokenizer is selected with the "tokenizer" attribute of the symbol-table block
+ * in the configuration. When it is not specified, "Japanese" is used for Japanese and
+ * "WhiteSpace" for the other languages.
+ */
+public final class TokenizerRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(TokenizerRegistry.class);
+
+    private static final String SUFFIX = "Tokenizer";
+
+    private static final TokenizerRegistry INSTANCE = new TokenizerRegistry(
+            ServiceLoader.load(RedPenTokenizer.class, TokenizerRegistry.class.getClassLoader()));
+
+    private final Map<String, RedPenTokenizer> tokenizers = new LinkedHashMap<>();
+    private final Map<String, RedPenTokenizer> tokenizersByClassName = new LinkedHashMap<>();
+
+    TokenizerRegistry(Iterable<RedPenTokenizer> plugins) {
+        List<RedPenTokenizer> tokenizers = new ArrayList<>(Arrays.asList(
+                new WhiteSpaceTokenizer(), JapaneseTokenizer.getInstance(), new NGramTokenizer()));
+        Iterator<RedPenTokenizer> iterator = plugins.iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                tokenizers.add(iterator.next());
+            } catch (ServiceConfigurationError e) {
+                // a broken plugin should not prevent the bundled tokenizers from being used
+                LOG.error("Failed to load a tokenizer plugin, skipping it", e);
+            }
+        }
+        for (RedPenTokenizer tokenizer : tokenizers) {
+            String className = tokenizer.getClass().getName();
+            if (tokenizersByClassName.containsKey(className)) {
+                continue;
+            }
+            String name = getName(tokenizer.getClass());
+            if (this.tokenizers.containsKey(name)) {
+                LOG.warn("Tokenizer {} is registered more than once, {} is ignored", name, className);
+                continue;
+            }
+            this.tokenizers.put(name, tokenizer);
+            tokenizersByClassName.put(className, tokenizer);
+            LOG.info("Registered tokenizer {}", name);
+        }
+    }
+
+    /**
+     * Get the registry shared in the process.
+     *
+     * @return registry
+     */
+    public static TokenizerRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    private static String getName(Class<?> clazz) {
+        String name = clazz.getSimpleName();
+        return name.endsWith(SUFFIX) && name.length() > SUFFIX.length()
+                ? name.substring(0, name.length() - SUFFIX.length()) : name;
+    }
+
+    /**
+     * Get the names of the registered tokenizers.
+     *
+     * @return names of the tokenizers
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(tokenizers.keySet());
+    }
+
+    /**
+     * Return whether a tokenizer is registered with the name.
+     *
+     * @param name name or class name of the tokenizer
+     * @return true when the tokenizer is registered
+     */
+    public boolean contains(String name) {
+        return tokenizers.containsKey(name) || tokenizersByClassName.containsKey(name);
+    }
+
+    /**
+     * Get the shared tokenizer of the name.
+     *
+     * @param name name or class name of the tokenizer
+     * @return tokenizer
+     * @throws IllegalArgumentException when no tokenizer is registered with the name
+     */
+    public RedPenTokenizer get(String name) {
+        RedPenTokenizer tokenizer = tokenizers.get(name);
+        if (tokenizer == null) {
+            tokenizer = tokenizersByClassName.get(name);
+        }
+        if (tokenizer == null) {
+            throw new IllegalArgumentException("There is no such tokenizer: " + name);
+        }
+        return tokenizer;
+    }
+
+    /**
+     * Get the shared tokenizer used for a language by default.
+     *
+     * @param lang language
+     * @return tokenizer
+     */
+    public RedPenTokenizer getDefault(String lang) {
+        return get("ja".equals(lang) ? "Japanese" : "WhiteSpace");
+    }
+
+    /**
+     * Get the shared tokenizer selected by a symbol table, or the default one of the
+     * language when the symbol table does not specify a tokenizer.
+     *
+     * @param symbolTable symbol table
+     * @return tokenizer
+     */
+    public RedPenTokenizer getTokenizer(SymbolTable symbolTable) {
+        String name = symbolTable.getTokenizer();
+        return name == null ? getDefault(symbolTable.getLang()) : get(name);
+    }
+}
@@ -17,19 +17,94 @@
  */
 package cc.redpen.tokenizer;
 
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Tokenizer for languages whose words are separated by white spaces.
+ * <p>
+ * Words are separated by white space characters including tabs and no-break spaces.
+ * Punctuation marks at the beginning and the end of a word, such as periods, commas,
+ * quotes and brackets, are not part of the token, while marks inside a word as in
+ * "don't" or "e.g" are kept. Tokens are recorded as offsets into the sentence.
+ */
 public class WhiteSpaceTokenizer implements RedPenTokenizer {
     public WhiteSpaceTokenizer() {}
 
     @Override
     public List<TokenElement> tokenize(String content) {
-        List<TokenElement> resultTokens = new ArrayList<>();
-        String [] words = content.split(" ");
-        for (String word : words) {
-            resultTokens.add(new TokenElement(word));
+        CompactTokenList tokens = new CompactTokenList(content, scan(content, null));
+        scan(content, tokens);
+        return tokens;
+    }
+
+    /**
+     * Scan the words of the content.
+     *
+     * @param content content to scan
+     * @param tokens  list to append the words, or null to count them only
+     * @return number of the words
+     */
+    private static int scan(String content, CompactTokenList tokens) {
+        int count = 0;
+        int length = content.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && isSeparator(content.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !isSeparator(content.charAt(i))) {
+                i++;
+            }
+            int end = i;
+            while (start < end && isPunctuation(content.charAt(start))) {
+                start++;
+            }
+            while (end > start && isPunctuation(content.charAt(end - 1))) {
+                end--;
+            }
+            if (start < end) {
+                if (tokens != null) {
+                    tokens.append(start, end, FeatureTable.EMPTY);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+
+    private static boolean isPunctuation(char c) {
+        switch (c) {
+            case '.':
+            case ',':
+            case ';':
+            case ':':
+            case '!':
+            case '?':
+            case '"':
+            case '\'':
+            case '(':
+            case ')':
+            case '[':
+            case ']':
+            case '{':
+            case '}':
+            case '…': // horizontal ellipsis
+                return true;
+            default:
+                switch (Character.getType(c)) {
+                    case Character.START_PUNCTUATION:
+                    case Character.END_PUNCTUATION:
+                    case Character.INITIAL_QUOTE_PUNCTUATION:
+                    case Character.FINAL_QUOTE_PUNCTUATION:
+                        return true;
+                    default:
+                        return false;
+                }
         }
-        return resultTokens;
     }
 }
@@ -0,0 +1,137 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntBiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * BK-tree, an index of words for the search of similar words.
+ * <p>
+ * The distance function must be a metric (e.g. Levenshtein distance with the same
+ * insertion and deletion costs); thanks to the triangle inequality, a search only
+ * visits the sub-trees which may contain words within the given distance.
+ * This class is not thread safe.
+ */
+public final class BKTree {
+    private final ToIntBiFunction<CharSequence, CharSequence> metric;
+    private Node root;
+    private int size = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param metric distance between two words
+     */
+    public BKTree(ToIntBiFunction<CharSequence, CharSequence> metric) {
+        this.metric = metric;
+    }
+
+    /**
+     * Add a word to the index.
+     *
+     * @param word word to add
+     * @return false when the word is already in the index
+     */
+    public boolean add(String word) {
+        if (root == null) {
+            root = new Node(word, size++);
+            return true;
+        }
+        Node node = root;
+        while (true) {
+            int distance = metric.applyAsInt(node.word, word);
+            if (distance == 0 && node.word.equals(word)) {
+                return false;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word, size++));
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Find the words within the given distance from the query.
+     *
+     * @param query       query word
+     * @param maxDistance maximum distance (inclusive)
+     * @return words in the order they were added
+     */
+    public List<String> search(String query, int maxDistance) {
+        List<Node> found = new ArrayList<>();
+        if (root == null) {
+            return new ArrayList<>();
+        }
+        Deque<Node> candidates = new ArrayDeque<>();
+        candidates.push(root);
+        while (!candidates.isEmpty()) {
+            Node node = candidates.pop();
+            int distance = metric.applyAsInt(node.word, query);
+            if (distance <= maxDistance) {
+                found.add(node);
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    candidates.push(child.getValue());
+                }
+            }
+        }
+        return found.stream()
+                .sorted(Comparator.comparingInt(node -> node.sequence))
+                .map(node -> node.word)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Remove all the words from the index.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Get the number of words in the index.
+     *
+     * @return number of words
+     */
+    public int size() {
+        return size;
+    }
+
+    private static final class Node {
+        private final String word;
+        private final int sequence;
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        private Node(String word, int sequence) {
+            this.word = word;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,486 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of words stored as a sorted front-coded string array.
+ * <p>
+ * Words are sorted in the byte order of their UTF-8 representation and grouped
+ * into blocks; the first word of each block is stored as it is, and the other words
+ * are stored as the length of the prefix shared with the previous word and the
+ * remaining bytes. A lookup is a binary search over the first words of the blocks
+ * followed by a scan of one block. The binary form can be memory-mapped, so the
+ * bundled dictionaries are loaded without parsing and without occupying the heap.
+ * <p>
+ * The bundled word lists are compiled into this format by {@link DictionaryCompiler}
+ * while building RedPen. Instances are thread safe.
+ */
+public final class CompactWordSet extends AbstractSet<String> {
+    private static final Logger LOG = LoggerFactory.getLogger(CompactWordSet.class);
+
+    /**
+     * File extension of compiled dictionaries.
+     */
+    public static final String EXTENSION = ".dict";
+
+    private static final int MAGIC = 0x52505753; // "RPWS"
+    private static final int VERSION = 1;
+    private static final int FLAG_LOWER_CASE = 1;
+    private static final int BLOCK_SIZE = 16;
+    private static final int HEADER_SIZE = 6 * 4;
+
+    private final ByteBuffer buffer;
+    private final int flags;
+    private final int size;
+    private final int maxLength;
+    private final int blockCount;
+    private final int dataStart;
+
+    private CompactWordSet(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a compiled dictionary");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported dictionary version: " + buffer.getInt(4));
+        }
+        this.flags = buffer.getInt(8);
+        this.size = buffer.getInt(12);
+        this.maxLength = buffer.getInt(16);
+        this.blockCount = buffer.getInt(20);
+        this.dataStart = HEADER_SIZE + blockCount * 4;
+    }
+
+    /**
+     * Build a set from the given words.
+     *
+     * @param words     words to store
+     * @param lowerCase whether the words are converted to lower case
+     * @return compact word set
+     */
+    public static CompactWordSet build(Collection<String> words, boolean lowerCase) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(words, lowerCase, out);
+            return new CompactWordSet(ByteBuffer.wrap(out.toByteArray()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Write the given words in the binary form.
+     *
+     * @param words     words to store
+     * @param lowerCase whether the words are converted to lower case;
+     *                  the flag is recorded in the binary form
+     * @param out       output stream
+     * @throws IOException when failed to write
+     */
+    public static void write(Collection<String> words, boolean lowerCase, OutputStream out)
+            throws IOException {
+        List<byte[]> sorted = new ArrayList<>(words.size());
+        for (String word : words) {
+            sorted.add((lowerCase ? word.toLowerCase() : word).getBytes(StandardCharsets.UTF_8));
+        }
+        sorted.sort(CompactWordSet::compare);
+
+        List<byte[]> unique = new ArrayList<>(sorted.size());
+        int maxLength = 0;
+        for (byte[] word : sorted) {
+            if (unique.isEmpty() || compare(unique.get(unique.size() - 1), word) != 0) {
+                unique.add(word);
+                maxLength = Math.max(maxLength, word.length);
+            }
+        }
+
+        int blockCount = (unique.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] blockOffsets = new int[blockCount];
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        byte[] previous = null;
+        for (int i = 0; i < unique.size(); i++) {
+            byte[] word = unique.get(i);
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = data.size();
+                writeVarInt(data, word.length);
+                data.write(word, 0, word.length);
+            } else {
+                int shared = sharedPrefixLength(previous, word);
+                writeVarInt(data, shared);
+                writeVarInt(data, word.length - shared);
+                data.write(word, shared, word.length - shared);
+            }
+            previous = word;
+        }
+
+        DataOutputStream output = new DataOutputStream(out);
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(lowerCase ? FLAG_LOWER_CASE : 0);
+        output.writeInt(unique.size());
+        output.writeInt(maxLength);
+        output.writeInt(blockCount);
+        for (int offset : blockOffsets) {
+            output.writeInt(offset);
+        }
+        data.writeTo(output);
+        output.flush();
+    }
+
+    /**
+     * Memory-map a compiled dictionary file.
+     *
+     * @param path compiled dictionary
+     * @return compact word set
+     * @throws IOException when failed to read the file
+     */
+    public static CompactWordSet map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CompactWordSet(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read a compiled dictionary from a stream.
+     *
+     * @param inputStream compiled dictionary
+     * @return compact word set
+     * @throws IOException when failed to read the stream
+     */
+    public static CompactWordSet read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = inputStream.read(chunk)) != -1) {
+            out.write(chunk, 0, read);
+        }
+        return new CompactWordSet(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    /**
+     * Load a bundled word list. When the compiled form of the word list
+     * (the same path with {@link #EXTENSION}) is on the classpath it is used;
+     * otherwise the text file is parsed.
+     *
+     * @param resourcePath path of the word list (.dat) file in the classpath
+     * @param lowerCase    whether the words are converted to lower case
+     * @return compact word set
+     * @throws IOException when neither the compiled nor the text word list is found
+     */
+    public static CompactWordSet loadResource(String resourcePath, boolean lowerCase)
+            throws IOException {
+        ClassLoader classLoader = CompactWordSet.class.getClassLoader();
+        String compiledPath = compiledResourcePath(resourcePath);
+        URL compiled = classLoader.getResource(compiledPath);
+        if (compiled != null) {
+            CompactWordSet words = loadCompiled(compiled);
+            if (words.isLowerCase() == lowerCase) {
+                return words;
+            }
+            LOG.warn("Compiled dictionary {} does not match the requested case", compiledPath);
+        }
+
+        WordListExtractor extractor = new WordListExtractor();
+        if (lowerCase) {
+            extractor.setToLowerCase();
+        }
+        new ResourceLoader(extractor).loadInternalResource(resourcePath);
+        return build(extractor.get(), lowerCase);
+    }
+
+    private static CompactWordSet loadCompiled(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return map(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                LOG.warn("Failed to map {}, reading it into the heap", url);
+            }
+        }
+        try (InputStream inputStream = url.openStream()) {
+            return read(inputStream);
+        }
+    }
+
+    /**
+     * Get the path of the compiled form of a word list.
+     *
+     * @param resourcePath path of the word list
+     * @return path of the compiled dictionary
+     */
+    public static String compiledResourcePath(String resourcePath) {
+        int extension = resourcePath.lastIndexOf('.');
+        int separator = resourcePath.lastIndexOf('/');
+        String base = extension > separator ? resourcePath.substring(0, extension) : resourcePath;
+        return base + EXTENSION;
+    }
+
+    /**
+     * Return whether the words are converted to lower case.
+     *
+     * @return true when the words are in lower case
+     */
+    public boolean isLowerCase() {
+        return (flags & FLAG_LOWER_CASE) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String) || blockCount == 0) {
+            return false;
+        }
+        byte[] key = ((String) o).getBytes(StandardCharsets.UTF_8);
+        if (key.length > maxLength) {
+            return false;
+        }
+
+        // find the last block whose first word is not larger than the key
+        int low = 0;
+        int high = blockCount - 1;
+        int block = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int position = dataStart + blockOffset(middle);
+            int length = readVarInt(position);
+            int c = compareWithBuffer(key, position + varIntLength(length), length);
+            if (c == 0) {
+                return true;
+            } else if (c > 0) {
+                block = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (block < 0) {
+            return false;
+        }
+        return scanBlock(key, block);
+    }
+
+    /**
+     * Look up the key in a block whose first word is smaller than the key, comparing
+     * the front-coded words in place. The key is compared only with the bytes after
+     * the prefix shared with the previous word, tracking how many leading bytes of
+     * the key the previous word matched.
+     */
+    private boolean scanBlock(byte[] key, int block) {
+        int position = dataStart + blockOffset(block);
+        int wordsInBlock = Math.min(BLOCK_SIZE, size - block * BLOCK_SIZE);
+        // number of leading bytes of the key matched by the previous word
+        int matched = 0;
+        for (int i = 0; i < wordsInBlock; i++) {
+            int shared = 0;
+            if (i > 0) {
+                shared = readVarInt(position);
+                position += varIntLength(shared);
+            }
+            int suffix = readVarInt(position);
+            position += varIntLength(suffix);
+            if (shared < matched) {
+                // the word differs from the previous one where that matched the key,
+                // and it is larger; so are the following words
+                return false;
+            }
+            if (shared > matched) {
+                // the word keeps the byte where the previous word was smaller than the key
+                position += suffix;
+                continue;
+            }
+            int end = position + suffix;
+            while (position < end && matched < key.length
+                    && buffer.get(position) == key[matched]) {
+                position++;
+                matched++;
+            }
+            if (position == end) {
+                if (matched == key.length) {
+                    return true;
+                }
+                // the word is a prefix of the key
+                continue;
+            }
+            if (matched == key.length
+                    || (buffer.get(position) & 0xff) > (key[matched] & 0xff)) {
+                return false;
+            }
+            position = end;
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private final byte[] word = new byte[maxLength];
+            private Cursor cursor;
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int length;
+                if (index % BLOCK_SIZE == 0) {
+                    cursor = new Cursor(dataStart + blockOffset(index / BLOCK_SIZE));
+                    length = readFirstWord(cursor, word);
+                } else {
+                    length = readNextWord(cursor, word);
+                }
+                index++;
+                return new String(word, 0, length, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(String s) {
+        throw new UnsupportedOperationException("CompactWordSet is immutable");
+    }
+
+    private int blockOffset(int block) {
+        return buffer.getInt(HEADER_SIZE + block * 4);
+    }
+
+    private int readFirstWord(Cursor cursor, byte[] word) {
+        int length = readVarInt(cursor.position);
+        cursor.position += varIntLength(length);
+        readBytes(cursor, word, 0, length);
+        return length;
+    }
+
+    private int readNextWord(Cursor cursor, byte[] word) {
+        int shared = readVarInt(cursor.position);
+        cursor.position += varIntLength(shared);
+        int suffix = readVarInt(cursor.position);
+        cursor.position += varIntLength(suffix);
+        readBytes(cursor, word, shared, suffix);
+        return shared + suffix;
+    }
+
+    private void readBytes(Cursor cursor, byte[] destination, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            destination[offset + i] = buffer.get(cursor.position + i);
+        }
+        cursor.position += length;
+    }
+
+    private int readVarInt(int position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(position++);
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private int compareWithBuffer(byte[] key, int position, int length) {
+        int common = Math.min(key.length, length);
+        for (int i = 0; i < common; i++) {
+            int c = (key[i] & 0xff) - (buffer.get(position + i) & 0xff);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return key.length - length;
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        return compare(a, a.length, b, b.length);
+    }
+
+    private static int compare(byte[] a, int lengthA, byte[] b, int lengthB) {
+        int common = Math.min(lengthA, lengthB);
+        for (int i = 0; i < common; i++) {
+            int c = (a[i] & 0xff) - (b[i] & 0xff);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return lengthA - lengthB;
+    }
+
+    private static int sharedPrefixLength(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+        int i = 0;
+        while (i < common && a[i] == b[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Cursor {
+        private int position;
+
+        private Cursor(int position) {
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compile word list (.dat) files into the binary form of {@link CompactWordSet}.
+ * This class is run while building RedPen to precompile the bundled default resources.
+ * <p>
+ * Usage: DictionaryCompiler SOURCE_DIR OUTPUT_DIR [--lowercase RELATIVE_DIR]...
+ * <p>
+ * Every .dat file under SOURCE_DIR is compiled into a .dict file at the same relative
+ * path under OUTPUT_DIR. Words in the files under the directories given with
+ * --lowercase are converted to lower case, as validators loading them do.
+ */
+public final class DictionaryCompiler {
+    private static final String WORD_LIST_EXTENSION = ".dat";
+
+    private DictionaryCompiler() {
+        super();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DictionaryCompiler SOURCE_DIR OUTPUT_DIR [--lowercase RELATIVE_DIR]...");
+            System.exit(1);
+        }
+        List<String> lowerCaseDirectories = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            if ("--lowercase".equals(args[i]) && i + 1 < args.length) {
+                lowerCaseDirectories.add(args[++i]);
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.exit(1);
+            }
+        }
+        compile(Paths.get(args[0]), Paths.get(args[1]), lowerCaseDirectories);
+    }
+
+    /**
+     * Compile all the word lists in a directory.
+     *
+     * @param sourceDirectory      directory containing word lists
+     * @param outputDirectory      directory to write the compiled dictionaries
+     * @param lowerCaseDirectories directories (relative to sourceDirectory) whose words are lower cased
+     * @return the number of compiled files
+     * @throws IOException when failed to read or write a file
+     */
+    public static int compile(Path sourceDirectory, Path outputDirectory,
+                              List<String> lowerCaseDirectories) throws IOException {
+        List<Path> wordLists;
+        try (Stream<Path> files = Files.walk(sourceDirectory)) {
+            wordLists = files
+                    .filter(path -> path.toString().endsWith(WORD_LIST_EXTENSION))
+                    .collect(Collectors.toList());
+        }
+        for (Path wordList : wordLists) {
+            Path relative = sourceDirectory.relativize(wordList);
+            boolean lowerCase = lowerCaseDirectories.stream()
+                    .anyMatch(directory -> relative.startsWith(directory));
+            Path output = outputDirectory.resolve(
+                    CompactWordSet.compiledResourcePath(relative.toString().replace('\\', '/')));
+            compileFile(wordList, output, lowerCase);
+        }
+        return wordLists.size();
+    }
+
+    private static void compileFile(Path wordList, Path output, boolean lowerCase) throws IOException {
+        WordListExtractor extractor = new WordListExtractor();
+        new FileLoader(extractor).loadFile(wordList.toString());
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(output)) {
+            CompactWordSet.write(extractor.get(), lowerCase, out);
+        }
+        System.out.println("Compiled " + wordList + " (" + extractor.get().size() + " words)");
+    }
+}
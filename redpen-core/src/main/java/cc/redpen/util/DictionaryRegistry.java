@@ -0,0 +1,311 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Process-wide registry of word lists shared by validators.
+ * <p>
+ * Validators of every RedPen instance in the process obtain the same immutable
+ * word set for the same dictionary. Each {@link #acquireResource} or {@link #acquireFile}
+ * returns a new {@link Dictionary} handle, and the word set is dropped from the
+ * registry when all the handles are closed. Dictionaries loaded from external files
+ * are reloaded when the file is modified; the modification time is checked at most
+ * once per check interval.
+ */
+public final class DictionaryRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(DictionaryRegistry.class);
+
+    private static final long DEFAULT_CHECK_INTERVAL_MILLIS = 1000;
+
+    private static final DictionaryRegistry INSTANCE =
+            new DictionaryRegistry(DEFAULT_CHECK_INTERVAL_MILLIS);
+
+    private final Map<Key, Entry> entries = new HashMap<>();
+    private final long checkIntervalMillis;
+
+    DictionaryRegistry(long checkIntervalMillis) {
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * Get the registry shared in the process.
+     *
+     * @return registry
+     */
+    public static DictionaryRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Acquire a word list bundled in the classpath.
+     *
+     * @param resourcePath path of the word list in the classpath
+     * @param lowerCase    whether the words are converted to lower case
+     * @return handle of the shared dictionary
+     * @throws IOException when failed to load the word list
+     */
+    public Dictionary acquireResource(String resourcePath, boolean lowerCase) throws IOException {
+        return acquire(new Key(resourcePath, false, lowerCase));
+    }
+
+    /**
+     * Acquire a word list in a file. The file is reloaded when it is modified.
+     *
+     * @param filePath  path of the word list file
+     * @param lowerCase whether the words are converted to lower case
+     * @return handle of the shared dictionary
+     * @throws IOException when failed to load the word list
+     */
+    public Dictionary acquireFile(String filePath, boolean lowerCase) throws IOException {
+        return acquire(new Key(new File(filePath).getAbsolutePath(), true, lowerCase));
+    }
+
+    /**
+     * Register the dictionary and wait until it is loaded. The words are loaded
+     * outside the lock of the registry, so a slow dictionary does not block the
+     * acquisition of the others; the threads acquiring the same dictionary wait
+     * for one load.
+     */
+    private Dictionary acquire(Key key) throws IOException {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(key);
+                entries.put(key, entry);
+            }
+            entry.referenceCount++;
+        }
+        try {
+            entry.awaitLoaded();
+        } catch (IOException | RuntimeException | Error e) {
+            discard(entry);
+            throw e;
+        }
+        return new Dictionary(entry);
+    }
+
+    private synchronized void release(Entry entry) {
+        entry.referenceCount--;
+        if (entry.referenceCount == 0) {
+            entries.remove(entry.key, entry);
+            LOG.info("Released dictionary {}", entry.key.path);
+        }
+    }
+
+    /**
+     * Drop a dictionary which failed to load, so that it is loaded again on next acquisition.
+     */
+    private synchronized void discard(Entry entry) {
+        entry.referenceCount--;
+        entries.remove(entry.key, entry);
+    }
+
+    /**
+     * Get the number of dictionaries in use.
+     *
+     * @return number of dictionaries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static Set<String> load(Key key) throws IOException {
+        if (!key.external) {
+            return CompactWordSet.loadResource(key.path, key.lowerCase);
+        }
+        WordListExtractor extractor = new WordListExtractor();
+        if (key.lowerCase) {
+            extractor.setToLowerCase();
+        }
+        new FileLoader(extractor).loadFile(key.path);
+        return Collections.unmodifiableSet(new HashSet<>(extractor.get()));
+    }
+
+    private final class Entry {
+        private final Key key;
+        private final FutureTask<Set<String>> loading;
+        private int referenceCount = 0;
+        private volatile Set<String> words;
+        private volatile long version = 0;
+        private volatile long lastChecked;
+        private long lastModified;
+
+        private Entry(Key key) {
+            this.key = key;
+            this.loading = new FutureTask<>(() -> {
+                lastModified = key.external ? new File(key.path).lastModified() : 0;
+                lastChecked = System.currentTimeMillis();
+                words = load(key);
+                LOG.info("Loaded dictionary {} ({} words)", key.path, words.size());
+                return words;
+            });
+        }
+
+        /**
+         * Load the words on the calling thread, or wait while another thread loads them.
+         */
+        private void awaitLoaded() throws IOException {
+            loading.run();
+            try {
+                loading.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while loading dictionary " + key.path);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        private Set<String> current() {
+            if (key.external) {
+                long now = System.currentTimeMillis();
+                if (now - lastChecked >= checkIntervalMillis) {
+                    reloadIfModified(now);
+                }
+            }
+            return words;
+        }
+
+        private synchronized void reloadIfModified(long now) {
+            if (now - lastChecked < checkIntervalMillis) {
+                return;
+            }
+            lastChecked = now;
+            long modified = new File(key.path).lastModified();
+            if (modified == lastModified) {
+                return;
+            }
+            try {
+                words = load(key);
+                lastModified = modified;
+                version++;
+                LOG.info("Reloaded modified dictionary {} ({} words)", key.path, words.size());
+            } catch (IOException e) {
+                LOG.error("Failed to reload dictionary " + key.path + ", keeping the loaded words", e);
+            }
+        }
+    }
+
+    /**
+     * Handle of a shared dictionary. The handle is a read-only view of the
+     * current words, and should be closed when it is no longer used.
+     */
+    public final class Dictionary extends AbstractSet<String> implements AutoCloseable {
+        private final Entry entry;
+        private boolean closed = false;
+
+        private Dictionary(Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Get the version of the words, which is incremented on every reload.
+         *
+         * @return version
+         */
+        public long getVersion() {
+            entry.current();
+            return entry.version;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return entry.current().contains(o);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return Collections.unmodifiableSet(entry.current()).iterator();
+        }
+
+        @Override
+        public int size() {
+            return entry.current().size();
+        }
+
+        @Override
+        public void close() {
+            synchronized (DictionaryRegistry.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                release(entry);
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String path;
+        private final boolean external;
+        private final boolean lowerCase;
+
+        private Key(String path, boolean external, boolean lowerCase) {
+            this.path = path;
+            this.external = external;
+            this.lowerCase = lowerCase;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (external != key.external) return false;
+            if (lowerCase != key.lowerCase) return false;
+            return path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = path.hashCode();
+            result = 31 * result + (external ? 1 : 0);
+            result = 31 * result + (lowerCase ? 1 : 0);
+            return result;
+        }
+    }
+}
@@ -17,21 +17,27 @@
  */
 package cc.redpen.util;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Utility class to handle a string.
+ * <p>
+ * The positions covered by the white list words (e.g. "Mr.") are not treated as
+ * the end of sentence. They are marked in a bit set by a single scan of the input
+ * with an automaton over the white list, so a line is processed in linear time
+ * regardless of the number of white list words.
  */
 public final class EndOfSentenceDetector {
+    private static final int[] NO_POSITIONS = new int[0];
 
-
-    private List<String> whiteList;
-    private Pattern pattern;
+    private final Pattern pattern;
+    private final MultiPatternMatcher whiteWordMatcher;
 
     /**
      * Constructor.
@@ -39,8 +45,7 @@ public final class EndOfSentenceDetector {
      * @param pattern end of sentence regex pattern
      */
     public EndOfSentenceDetector(Pattern pattern) {
-        this.pattern = pattern;
-        this.whiteList = new ArrayList<>();
+        this(pattern, Collections.<String>emptyList());
     }
 
     /**
@@ -52,10 +57,10 @@ public final class EndOfSentenceDetector {
     public EndOfSentenceDetector(Pattern pattern,
                                  List<String> whiteList) {
         this.pattern = pattern;
-        this.whiteList = whiteList;
+        this.whiteWordMatcher = new MultiPatternMatcher(whiteList);
     }
 
-    private static boolean checkPosition(int position, String str) {
+    private static boolean checkPosition(int position, CharSequence str) {
         return -1 < position && position < str.length() - 1;
     }
 
@@ -65,17 +70,64 @@ public final class EndOfSentenceDetector {
      * @param str input string
      * @return position of full stop when there is a full stop, -1 otherwise
      */
-    public int getSentenceEndPosition(String str) {
-        Set<Integer> nonEndOfSentencePositions =
-                extractNonEndOfSentencePositions(str);
-        return getEndPosition(str, 0, nonEndOfSentencePositions);
+    public int getSentenceEndPosition(CharSequence str) {
+        return getEndPosition(str, 0, pattern.matcher(str),
+                extractNonEndOfSentencePositions(str));
+    }
+
+    /**
+     * Get all the sentence end positions. The result is the same as calling
+     * {@link #getSentenceEndPosition(CharSequence)} repeatedly on the rest of the string
+     * after each end position, but the string is scanned only once.
+     *
+     * @param str input text
+     * @return positions of full stops in ascending order, empty when there is no full stop
+     */
+    public int[] getSentenceEndPositions(CharSequence str) {
+        Matcher matcher = pattern.matcher(str);
+        BitSet whitePositions = extractNonEndOfSentencePositions(str);
+        int[] positions = NO_POSITIONS;
+        int count = 0;
+        int offset = 0;
+        while (offset < str.length()) {
+            int position = getEndPosition(str, offset, matcher, whitePositions);
+            if (position == -1) {
+                break;
+            }
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(4, count * 2));
+            }
+            positions[count++] = position;
+            offset = position + 1;
+        }
+        return count == positions.length ? positions : Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Get all the sentence end positions in a range of the text. The range is
+     * handled as if it were the whole input, so the characters out of the range
+     * do not affect the result.
+     *
+     * @param text  input text
+     * @param start start offset of the range (inclusive)
+     * @param end   end offset of the range (exclusive)
+     * @return positions of full stops in the text in ascending order
+     */
+    public int[] getSentenceEndPositions(CharSequence text, int start, int end) {
+        if (start == 0 && end == text.length()) {
+            return getSentenceEndPositions(text);
+        }
+        int[] positions = getSentenceEndPositions(CharBuffer.wrap(text, start, end));
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] += start;
+        }
+        return positions;
     }
 
-    private int getEndPosition(String str,
-                               int offset, Set<Integer> whitePositions) {
+    private int getEndPosition(CharSequence str, int offset,
+                               Matcher matcher, BitSet whitePositions) {
         int startPosition = -1;
         int endPosition = -1;
-        Matcher matcher = pattern.matcher(str);
         boolean matchResult = getEndPositionSkippingWhiteList(offset,
                 matcher, whitePositions);
         if (matchResult) {
@@ -89,7 +141,7 @@ public final class EndOfSentenceDetector {
                     || '\n' == str.charAt(endPosition)))) {
                 return endPosition - 1;
             }
-            return handleSuccessivePeriods(str, startPosition, whitePositions);
+            return handleSuccessivePeriods(str, startPosition, matcher, whitePositions);
         }
 
         if (endPosition == str.length()) {
@@ -101,54 +153,27 @@ public final class EndOfSentenceDetector {
     }
 
     private boolean getEndPositionSkippingWhiteList(int offset,
-                                                    Matcher matcher, Set<Integer> whitePositions) {
+                                                    Matcher matcher, BitSet whitePositions) {
         boolean result = matcher.find(offset);
         while (result) {
-            int startPosition = matcher.start();
-            int endPosition = matcher.end();
-            boolean containsWhite = false;
-            for (int i = startPosition; i < endPosition; i++) {
-                if (whitePositions.contains(i)) {
-                    containsWhite = true;
-                    break;
-                }
-            }
-            if (containsWhite) {
-                result = getEndPositionSkippingWhiteList(endPosition,
-                        matcher, whitePositions);
-            } else {
+            int whitePosition = whitePositions.nextSetBit(matcher.start());
+            if (whitePosition == -1 || whitePosition >= matcher.end()) {
                 break;
             }
+            result = matcher.find(matcher.end());
         }
         return result;
     }
 
-    // TODO: efficient computing with common prefix search.
-    private Set<Integer> extractNonEndOfSentencePositions(
-            String inputString) {
-        Set<Integer> nonEndOfSentencePositions = new HashSet<>();
-        for (String whiteWord : this.whiteList) {
-            int offset = 0;
-            while (true) {
-                int matchStartPosition = inputString.indexOf(whiteWord, offset);
-                int matchEndPosition = matchStartPosition + whiteWord.length();
-                if (matchStartPosition == -1) {
-                    break;
-                }
-                for (int i = matchStartPosition;
-                     i < matchEndPosition; i++) {
-                    nonEndOfSentencePositions.add(i);
-                }
-                offset = matchEndPosition;
-            }
-        }
+    private BitSet extractNonEndOfSentencePositions(CharSequence inputString) {
+        BitSet nonEndOfSentencePositions = new BitSet(inputString.length());
+        whiteWordMatcher.markOccurrences(inputString, nonEndOfSentencePositions);
         return nonEndOfSentencePositions;
     }
 
-    private int handleSuccessivePeriods(String str,
-                                        int position, Set<Integer> whitePositions) {
+    private int handleSuccessivePeriods(CharSequence str, int position,
+                                        Matcher matcher, BitSet whitePositions) {
         int nextPosition = position + 1;
-        Matcher matcher = this.pattern.matcher(str);
         int matchPosition = -1;
         if (matcher.find(nextPosition)) {
             matchPosition = matcher.start();
@@ -167,18 +192,18 @@ public final class EndOfSentenceDetector {
             if ((position + 1) == str.length() - 1) {
                 return nextPosition;
             } else {
-                return getEndPosition(str, nextPosition, whitePositions);
+                return getEndPosition(str, nextPosition, matcher, whitePositions);
             }
         } else {
-            return getEndPosition(str, nextPosition, whitePositions);
+            return getEndPosition(str, nextPosition, matcher, whitePositions);
         }
     }
 
-    private boolean isNonAlphabetEndOfSentenceWithPartialSentence(String str, int position, int matchPosition) {
+    private boolean isNonAlphabetEndOfSentenceWithPartialSentence(CharSequence str, int position, int matchPosition) {
         return (matchPosition == -1 && (!StringUtils.isBasicLatin(str.charAt(position))));
     }
 
-    private boolean isNonAlphabetWithoutSucessiveEnd(String str, int nextPosition, int matchPosition) {
+    private boolean isNonAlphabetWithoutSucessiveEnd(CharSequence str, int nextPosition, int matchPosition) {
         return matchPosition > -1 && (!StringUtils.isBasicLatin(str.charAt(matchPosition)))
                 && matchPosition != nextPosition;
     }
@@ -0,0 +1,156 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Set of words consisting of read-only base sets, typically a bundled
+ * {@link CompactWordSet} and shared dictionaries, and words added later.
+ * Added words are kept in a HashSet; the base sets are never copied.
+ * <p>
+ * A word contained in more than one layer is iterated once. Note that
+ * size() iterates all the words.
+ */
+public final class LayeredWordSet extends AbstractSet<String> {
+    private final List<Set<String>> bases;
+    private final Set<String> additions = new HashSet<>();
+
+    /**
+     * Constructor.
+     *
+     * @param base read-only base set
+     */
+    public LayeredWordSet(Set<String> base) {
+        this(Collections.singletonList(base));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param bases read-only base sets
+     */
+    public LayeredWordSet(List<Set<String>> bases) {
+        this.bases = new ArrayList<>(bases);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (additions.contains(o)) {
+            return true;
+        }
+        for (Set<String> base : bases) {
+            if (base.contains(o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(String word) {
+        for (Set<String> base : bases) {
+            if (base.contains(word)) {
+                return false;
+            }
+        }
+        return additions.add(word);
+    }
+
+    /**
+     * Get a number which changes when the words are modified,
+     * including the reload of a shared dictionary.
+     *
+     * @return version of the words
+     */
+    public long getVersion() {
+        long version = additions.size();
+        for (Set<String> base : bases) {
+            if (base instanceof DictionaryRegistry.Dictionary) {
+                version = 31 * version + ((DictionaryRegistry.Dictionary) base).getVersion();
+            }
+        }
+        return version;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        List<Set<String>> layers = new ArrayList<>(bases);
+        layers.add(additions);
+        return new Iterator<String>() {
+            private int layer = 0;
+            private Iterator<String> iterator = layers.get(0).iterator();
+            private String next = null;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (iterator.hasNext()) {
+                        String candidate = iterator.next();
+                        if (!inPreviousLayers(candidate)) {
+                            next = candidate;
+                        }
+                    } else if (layer + 1 < layers.size()) {
+                        iterator = layers.get(++layer).iterator();
+                    } else {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String word = next;
+                next = null;
+                return word;
+            }
+
+            private boolean inPreviousLayers(String word) {
+                for (int i = 0; i < layer; i++) {
+                    if (layers.get(i).contains(word)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        if (bases.size() == 1 && additions.isEmpty()) {
+            return bases.get(0).size();
+        }
+        int size = 0;
+        for (Iterator<String> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+            size++;
+        }
+        return size;
+    }
+}
@@ -24,6 +24,9 @@ package cc.redpen.util;
  * of single-character edits (i.e. insertions, deletions
  * or substitutions). The default cost for each edit
  * is 1, and each value is configurable.
+ * <p>
+ * An instance holds its own costs and can be shared among threads;
+ * the static methods use the global costs and are kept for compatibility.
  */
 public final class LevenshteinDistance {
     /**
@@ -41,6 +44,17 @@ public final class LevenshteinDistance {
      */
     public static final int DEFAULT_SUBSTITUTION_COST = 1;
 
+    private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    // large enough to be out of any limit, small enough not to overflow when a cost is added
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+    /**
+     * Two rows of the DP table reused by each thread.
+     */
+    private static final ThreadLocal<int[][]> SCRATCH =
+            ThreadLocal.withInitial(() -> new int[2][64]);
+
     private static int INSERTION_COST;
     private static int DELETION_COST;
     private static int SUBSTITUTION_COST;
@@ -51,10 +65,62 @@ public final class LevenshteinDistance {
         SUBSTITUTION_COST = DEFAULT_SUBSTITUTION_COST;
     }
 
+    private final int insertionCost;
+    private final int deletionCost;
+    private final int substitutionCost;
+
+    /**
+     * Constructor with the default costs.
+     */
+    public LevenshteinDistance() {
+        this(DEFAULT_INSERTION_COST, DEFAULT_DELETION_COST, DEFAULT_SUBSTITUTION_COST);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param insertionCost    cost for "insertion"
+     * @param deletionCost     cost for "deletion"
+     * @param substitutionCost cost for "substitution"
+     */
+    public LevenshteinDistance(int insertionCost, int deletionCost, int substitutionCost) {
+        if (insertionCost < 0 || deletionCost < 0 || substitutionCost < 0) {
+            throw new IllegalArgumentException("Edit costs must not be negative");
+        }
+        this.insertionCost = insertionCost;
+        this.deletionCost = deletionCost;
+        this.substitutionCost = substitutionCost;
+    }
+
+    /**
+     * Get the Levenshtein distance for given two strings with the costs of this instance.
+     * A null string is regarded as an empty string.
+     *
+     * @param a a string.
+     * @param b one another string.
+     * @return Levenshtein distance.
+     */
+    public int distance(CharSequence a, CharSequence b) {
+        return compute(a == null ? "" : a, b == null ? "" : b,
+                insertionCost, deletionCost, substitutionCost, NO_LIMIT);
+    }
+
     /**
-     * Default Constructor.
+     * Check whether the Levenshtein distance of given two strings is within the limit.
+     * Only a band of the DP table around the diagonal is computed, and the computation
+     * stops as soon as the distance is known to exceed the limit.
+     *
+     * @param a           a string.
+     * @param b           one another string.
+     * @param maxDistance the limit (inclusive)
+     * @return true when the distance is smaller than or equal to maxDistance
      */
-    private LevenshteinDistance() {
+    public boolean isWithin(CharSequence a, CharSequence b, int maxDistance) {
+        if (maxDistance < 0) {
+            return false;
+        }
+        return compute(a == null ? "" : a, b == null ? "" : b,
+                insertionCost, deletionCost, substitutionCost, maxDistance) <= maxDistance;
     }
 
     /**
@@ -70,7 +136,9 @@ public final class LevenshteinDistance {
      * Set the cost for "insertion".
      *
      * @param cost a cost for "insertion"
+     * @deprecated the global cost is shared by all the callers; create an instance with the costs instead
      */
+    @Deprecated
     public static synchronized void setInsertionCost(int cost) {
         INSERTION_COST = cost;
     }
@@ -88,7 +156,9 @@ public final class LevenshteinDistance {
      * Set the cost for "deletion".
      *
      * @param cost a cost for "deletio"
+     * @deprecated the global cost is shared by all the callers; create an instance with the costs instead
      */
+    @Deprecated
     public static synchronized void setDeletionCost(int cost) {
         DELETION_COST = cost;
     }
@@ -106,7 +176,9 @@ public final class LevenshteinDistance {
      * Set the cost for "substitution".
      *
      * @param cost a cost for "substitution"
+     * @deprecated the global cost is shared by all the callers; create an instance with the costs instead
      */
+    @Deprecated
     public static synchronized void setSubstitutionCost(int cost) {
         SUBSTITUTION_COST = cost;
     }
@@ -129,32 +201,76 @@ public final class LevenshteinDistance {
         if (a != null && b == null) {
             return a.length() * INSERTION_COST;
         }
+        return compute(a, b, INSERTION_COST, DELETION_COST, SUBSTITUTION_COST, NO_LIMIT);
+    }
 
+    /**
+     * Compute the distance with two rows of the DP table.
+     *
+     * @return the distance, or a value larger than limit when the distance exceeds the limit
+     */
+    private static int compute(CharSequence a, CharSequence b,
+                               int insertionCost, int deletionCost, int substitutionCost,
+                               int limit) {
         final int lengthA = a.length();
         final int lengthB = b.length();
-        int[][] distance = new int[lengthA + 1][lengthB + 1];
+        if (lengthA == 0) {
+            return lengthB * insertionCost;
+        }
+        if (lengthB == 0) {
+            return lengthA * deletionCost;
+        }
 
-        // Initialization
-        for (int i = 0; i < lengthA + 1; i++) {
-            distance[i][0] = i * DELETION_COST;
+        // cells farther than band from the diagonal need more than limit insertions or deletions
+        final int minIndelCost = Math.min(insertionCost, deletionCost);
+        final int band = (limit == NO_LIMIT || minIndelCost == 0)
+                ? Math.max(lengthA, lengthB) : limit / minIndelCost;
+        if (Math.abs(lengthA - lengthB) > band) {
+            return limit + 1;
+        }
+
+        int[][] rows = SCRATCH.get();
+        if (rows[0].length < lengthB + 2) {
+            rows = new int[2][Math.max(lengthB + 2, rows[0].length * 2)];
+            SCRATCH.set(rows);
         }
-        for (int j = 0; j < lengthB + 1; j++) {
-            distance[0][j] = j * INSERTION_COST;
+        int[] previous = rows[0];
+        int[] current = rows[1];
+
+        // Initialization
+        for (int j = 0; j <= lengthB; j++) {
+            previous[j] = j <= band ? j * insertionCost : INFINITY;
         }
+        previous[lengthB + 1] = INFINITY;
 
-        for (int i = 1; i < lengthA + 1; i++) {
-            for (int j = 1; j < lengthB + 1; j++) {
-                if (a.charAt(i - 1) == b.charAt(j - 1)) {
-                    distance[i][j] = distance[i - 1][j - 1];
+        for (int i = 1; i <= lengthA; i++) {
+            final int from = Math.max(1, i - band);
+            final int to = Math.min(lengthB, i + band);
+            current[0] = i <= band ? i * deletionCost : INFINITY;
+            current[from - 1] = from == 1 ? current[0] : INFINITY;
+            int rowMinimum = current[from - 1];
+            final char c = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int value;
+                if (c == b.charAt(j - 1)) {
+                    value = previous[j - 1];
                 } else {
-                    distance[i][j] = Math.min(Math.min(
-                                    distance[i - 1][j] + DELETION_COST,
-                                    distance[i][j - 1] + INSERTION_COST),
-                            distance[i - 1][j - 1] + SUBSTITUTION_COST);
+                    value = Math.min(Math.min(
+                                    previous[j] + deletionCost,
+                                    current[j - 1] + insertionCost),
+                            previous[j - 1] + substitutionCost);
                 }
+                current[j] = Math.min(value, INFINITY);
+                rowMinimum = Math.min(rowMinimum, current[j]);
             }
+            current[to + 1] = INFINITY;
+            if (limit != NO_LIMIT && rowMinimum > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
-
-        return distance[lengthA][lengthB];
+        return previous[lengthB];
     }
 }
@@ -0,0 +1,308 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Matcher finding every occurrence of a set of patterns in one scan (Aho-Corasick).
+ * <p>
+ * The automaton is built in the constructor and is immutable, so one matcher can be
+ * shared among threads. Dictionary based validators should build a matcher in their
+ * init method instead of calling String#contains for each dictionary entry.
+ * Empty patterns are ignored.
+ */
+public final class MultiPatternMatcher {
+    private static final int ROOT = 0;
+    private static final int NO_NODE = -1;
+
+    private final String[] patterns;
+    // outgoing edges of each node; labels are sorted for binary search
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failure;
+    // index of the pattern ending at the node, or -1
+    private final int[] output;
+    // nearest node on the failure chain which has an output, or -1
+    private final int[] outputLink;
+
+    /**
+     * Constructor.
+     *
+     * @param patterns patterns to search
+     */
+    public MultiPatternMatcher(Collection<String> patterns) {
+        List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        List<String> registered = new ArrayList<>();
+        edges.add(new TreeMap<>());
+        outputs.add(NO_NODE);
+
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = edges.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = edges.size();
+                    edges.get(node).put(pattern.charAt(i), next);
+                    edges.add(new TreeMap<>());
+                    outputs.add(NO_NODE);
+                }
+                node = next;
+            }
+            if (outputs.get(node) == NO_NODE) {
+                outputs.set(node, registered.size());
+                registered.add(pattern);
+            }
+        }
+
+        int size = edges.size();
+        this.patterns = registered.toArray(new String[registered.size()]);
+        this.labels = new char[size][];
+        this.targets = new int[size][];
+        this.output = new int[size];
+        for (int node = 0; node < size; node++) {
+            Map<Character, Integer> edge = edges.get(node);
+            labels[node] = new char[edge.size()];
+            targets[node] = new int[edge.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> entry : edge.entrySet()) {
+                labels[node][i] = entry.getKey();
+                targets[node][i] = entry.getValue();
+                i++;
+            }
+            output[node] = outputs.get(node);
+        }
+
+        this.failure = new int[size];
+        this.outputLink = new int[size];
+        buildFailureLinks();
+    }
+
+    private void buildFailureLinks() {
+        Deque<Integer> queue = new ArrayDeque<>();
+        failure[ROOT] = ROOT;
+        outputLink[ROOT] = NO_NODE;
+        for (int child : targets[ROOT]) {
+            failure[child] = ROOT;
+            outputLink[child] = NO_NODE;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < labels[node].length; i++) {
+                char c = labels[node][i];
+                int child = targets[node][i];
+                int fallback = failure[node];
+                while (fallback != ROOT && next(fallback, c) == NO_NODE) {
+                    fallback = failure[fallback];
+                }
+                int candidate = next(fallback, c);
+                failure[child] = candidate == NO_NODE ? ROOT : candidate;
+                outputLink[child] = output[failure[child]] != NO_NODE
+                        ? failure[child] : outputLink[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int next(int node, char c) {
+        int index = Arrays.binarySearch(labels[node], c);
+        return index < 0 ? NO_NODE : targets[node][index];
+    }
+
+    /**
+     * Find all the occurrences of the patterns, including overlapping ones.
+     * Matches are ordered by their end position; matches ending at the same
+     * position are ordered from the longest.
+     *
+     * @param text input text
+     * @return list of matches
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        if (patterns.length == 0) {
+            return matches;
+        }
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            node = step(node, text.charAt(i));
+            for (int hit = output[node] != NO_NODE ? node : outputLink[node];
+                 hit != NO_NODE; hit = outputLink[hit]) {
+                String pattern = patterns[output[hit]];
+                matches.add(new Match(pattern, i + 1 - pattern.length()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Set the bits of all the positions covered by an occurrence of the patterns.
+     *
+     * @param text    input text
+     * @param covered bit set to mark the positions
+     */
+    void markOccurrences(CharSequence text, BitSet covered) {
+        if (patterns.length == 0) {
+            return;
+        }
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            node = step(node, text.charAt(i));
+            for (int hit = output[node] != NO_NODE ? node : outputLink[node];
+                 hit != NO_NODE; hit = outputLink[hit]) {
+                covered.set(i + 1 - patterns[output[hit]].length(), i + 1);
+            }
+        }
+    }
+
+    /**
+     * Find the distinct patterns contained in the text.
+     *
+     * @param text input text
+     * @return patterns in the order of their first occurrence
+     */
+    public Set<String> findDistinct(CharSequence text) {
+        Set<String> found = new LinkedHashSet<>();
+        for (Match match : findAll(text)) {
+            found.add(match.getPattern());
+        }
+        return found;
+    }
+
+    /**
+     * Return whether the text contains any of the patterns.
+     *
+     * @param text input text
+     * @return true when at least one pattern is found
+     */
+    public boolean containsAny(CharSequence text) {
+        if (patterns.length == 0) {
+            return false;
+        }
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            node = step(node, text.charAt(i));
+            if (output[node] != NO_NODE || outputLink[node] != NO_NODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int step(int node, char c) {
+        while (true) {
+            int target = next(node, c);
+            if (target != NO_NODE) {
+                return target;
+            }
+            if (node == ROOT) {
+                return ROOT;
+            }
+            node = failure[node];
+        }
+    }
+
+    /**
+     * Get the number of registered patterns.
+     *
+     * @return number of patterns
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * Occurrence of a pattern.
+     */
+    public static final class Match {
+        private final String pattern;
+        private final int start;
+
+        Match(String pattern, int start) {
+            this.pattern = pattern;
+            this.start = start;
+        }
+
+        /**
+         * Get the matched pattern.
+         *
+         * @return pattern
+         */
+        public String getPattern() {
+            return pattern;
+        }
+
+        /**
+         * Get the offset where the match starts.
+         *
+         * @return start offset (inclusive)
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Get the offset where the match ends.
+         *
+         * @return end offset (exclusive)
+         */
+        public int getEnd() {
+            return start + pattern.length();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Match match = (Match) o;
+
+            if (start != match.start) return false;
+            return pattern.equals(match.pattern);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = pattern.hashCode();
+            result = 31 * result + start;
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Match{" +
+                    "pattern='" + pattern + '\'' +
+                    ", start=" + start +
+                    '}';
+        }
+    }
+}
@@ -27,11 +27,13 @@ import java.util.Optional;
 public final class ValidationError implements java.io.Serializable {
 
     private static final long serialVersionUID = -7759439419047004667L;
-    private final int lineNumber;
+    private int lineNumber;
     private final String message;
     private final String validatorName;
     private Optional<String> fileName = Optional.empty();
     private Optional<Sentence> sentence = Optional.empty();
+    private Optional<Integer> startOffset = Optional.empty();
+    private Optional<Integer> endOffset = Optional.empty();
 
     /**
      * Constructor.
@@ -61,6 +63,47 @@ public final class ValidationError implements java.io.Serializable {
         this.sentence = Optional.of(sentenceWithError);
     }
 
+    /**
+     * Constructor.
+     *
+     * @param validatorClass    validator class
+     * @param errorMessage      error message
+     * @param sentenceWithError sentence containing validation error
+     * @param startOffset       offset of the first character of the error in the sentence content
+     * @param endOffset         offset next to the last character of the error in the sentence content
+     */
+    ValidationError(Class validatorClass,
+                    String errorMessage,
+                    Sentence sentenceWithError,
+                    int startOffset, int endOffset) {
+        this(validatorClass, errorMessage, sentenceWithError);
+        this.startOffset = Optional.of(startOffset);
+        this.endOffset = Optional.of(endOffset);
+    }
+
+    private ValidationError(ValidationError error, Sentence sentenceWithError, int errorLineNumber) {
+        this.lineNumber = errorLineNumber;
+        this.message = error.message;
+        this.validatorName = error.validatorName;
+        this.sentence = Optional.of(sentenceWithError);
+        this.startOffset = error.startOffset;
+        this.endOffset = error.endOffset;
+    }
+
+    /**
+     * Create a copy of the error for another sentence of the same content. The line
+     * number is moved by the difference of the positions of the sentences.
+     *
+     * @param sentenceWithError sentence of the same content as the sentence of this error
+     * @return copy of the error
+     */
+    public ValidationError copyFor(Sentence sentenceWithError) {
+        int errorLineNumber = sentence
+                .map(original -> lineNumber + sentenceWithError.position - original.position)
+                .orElse(lineNumber);
+        return new ValidationError(this, sentenceWithError, errorLineNumber);
+    }
+
     /**
      * Get line number in which the error occurs.
      *
@@ -70,6 +113,15 @@ public final class ValidationError implements java.io.Serializable {
         return lineNumber;
     }
 
+    /**
+     * Set line number in which the error occurs, e.g. when the sentence is moved by an edit.
+     *
+     * @param errorLineNumber the number of line
+     */
+    public void setLineNumber(int errorLineNumber) {
+        this.lineNumber = errorLineNumber;
+    }
+
     /**
      * Get error message.
      *
@@ -115,6 +167,26 @@ public final class ValidationError implements java.io.Serializable {
         this.sentence = Optional.of(sentenceWithError);
     }
 
+    /**
+     * Get offset of the first character of the error in the sentence content.
+     * Combined with {@link Sentence#startOffset}, clients can locate the error
+     * without searching the sentence.
+     *
+     * @return offset in the sentence, or empty when the validator does not report it
+     */
+    public Optional<Integer> getStartOffset() {
+        return startOffset;
+    }
+
+    /**
+     * Get offset next to the last character of the error in the sentence content.
+     *
+     * @return offset in the sentence, or empty when the validator does not report it
+     */
+    public Optional<Integer> getEndOffset() {
+        return endOffset;
+    }
+
     /**
      * Get validator name.
      *
@@ -140,6 +212,8 @@ public final class ValidationError implements java.io.Serializable {
         if (!fileName.equals(that.fileName)) return false;
         if (!message.equals(that.message)) return false;
         if (!sentence.equals(that.sentence)) return false;
+        if (!startOffset.equals(that.startOffset)) return false;
+        if (!endOffset.equals(that.endOffset)) return false;
         if (!validatorName.equals(that.validatorName)) return false;
 
         return true;
@@ -152,6 +226,8 @@ public final class ValidationError implements java.io.Serializable {
         result = 31 * result + validatorName.hashCode();
         result = 31 * result + fileName.hashCode();
         result = 31 * result + sentence.hashCode();
+        result = 31 * result + startOffset.hashCode();
+        result = 31 * result + endOffset.hashCode();
         return result;
     }
 
@@ -163,6 +239,8 @@ public final class ValidationError implements java.io.Serializable {
                 ", validatorName='" + validatorName + '\'' +
                 ", fileName=" + fileName +
                 ", sentence=" + sentence +
+                ", startOffset=" + startOffset +
+                ", endOffset=" + endOffset +
                 '}';
     }
 }
@@ -22,14 +22,25 @@ import cc.redpen.RedPenException;
 import cc.redpen.config.SymbolTable;
 import cc.redpen.config.ValidatorConfiguration;
 import cc.redpen.model.Sentence;
+import cc.redpen.util.DictionaryRegistry;
+import cc.redpen.util.LayeredWordSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.*;
 
 /**
  * Validate input document.
+ * <p>
+ * Thread-safety contract: when RedPen runs in parallel mode, one validator
+ * instance is shared by all the worker threads. Therefore {@link #validate}
+ * must not modify any state of the validator. Validators which learn from the
+ * input while validating (e.g. KatakanaSpellCheckValidator) have to override
+ * {@link #isThreadSafe} to return false; such validators are run on a single
+ * thread in document order. State collected by {@link PreProcessor#preprocess}
+ * is allowed since all the pre-processors finish before validation starts.
  */
 public abstract class Validator<E> {
     private static final Logger LOG =
@@ -39,6 +50,7 @@ public abstract class Validator<E> {
     private Optional<ResourceBundle> errorMessages = Optional.empty();
     private ValidatorConfiguration config;
     private SymbolTable symbolTable;
+    private final List<DictionaryRegistry.Dictionary> dictionaries = new ArrayList<>();
 
     public Validator() {
         setLocale(Locale.getDefault());
@@ -71,6 +83,103 @@ public abstract class Validator<E> {
     protected void init() throws RedPenException {
     }
 
+    /**
+     * Return whether validate method can be called from more than one thread at once.
+     * This applies to section validators as well as sentence validators; validators
+     * returning false are run on the calling thread in document order.
+     *
+     * @return true when the validator does not change its state in validate method
+     */
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Return whether the errors depend only on the content of the block, so that the
+     * errors found in a block can be reused for another block of the same content.
+     * For sentences, {@link Sentence#isFirstSentence} is regarded as a part of the content.
+     * Only the errors of context-free validators are cached, so a validator opts in by
+     * overriding this method; validators which learn from the input or are
+     * pre-processors see the other blocks, and must not return true.
+     *
+     * @return true when the errors are determined by the content of the block
+     */
+    public boolean isContextFree() {
+        return false;
+    }
+
+    /**
+     * Forget the state learned from the blocks validated or pre-processed so far, so
+     * that the next input is validated as by a new instance. Validators which are not
+     * context-free and keep such state override this method.
+     */
+    public void reset() {
+    }
+
+    /**
+     * Get a number which changes when a shared dictionary loaded by
+     * {@link #loadWordList} is reloaded.
+     *
+     * @return version of the shared dictionaries
+     */
+    public long getDictionaryVersion() {
+        long version = 0;
+        for (DictionaryRegistry.Dictionary dictionary : dictionaries) {
+            version = 31 * version + dictionary.getVersion();
+        }
+        return version;
+    }
+
+    /**
+     * Release the resources held by the validator, such as shared dictionaries.
+     */
+    public void close() {
+        dictionaries.forEach(DictionaryRegistry.Dictionary::close);
+        dictionaries.clear();
+    }
+
+    /**
+     * Load a word list shared among validators; the bundled default word list and
+     * the user dictionary specified by "dict" attribute are obtained from
+     * {@link DictionaryRegistry}, and the user dictionary is reloaded when modified.
+     * Words added to the returned set are visible only to this validator.
+     *
+     * @param defaultResourcePath path of the bundled word list
+     * @param lowerCase           whether the words are converted to lower case
+     * @return set of words
+     * @throws RedPenException when failed to load the bundled word list
+     */
+    protected LayeredWordSet loadWordList(String defaultResourcePath, boolean lowerCase)
+            throws RedPenException {
+        DictionaryRegistry registry = DictionaryRegistry.getInstance();
+        List<Set<String>> layers = new ArrayList<>();
+        try {
+            DictionaryRegistry.Dictionary defaultWords =
+                    registry.acquireResource(defaultResourcePath, lowerCase);
+            dictionaries.add(defaultWords);
+            layers.add(defaultWords);
+        } catch (IOException e) {
+            LOG.error("Failed to load default dictionary {}", defaultResourcePath);
+            throw new RedPenException(e);
+        }
+        LOG.info("Succeeded to load default dictionary.");
+
+        Optional<String> userDictionaryFile = getConfigAttribute("dict");
+        userDictionaryFile.ifPresent(f -> {
+            LOG.info("user dictionary file is " + f);
+            try {
+                DictionaryRegistry.Dictionary userWords = registry.acquireFile(f, lowerCase);
+                dictionaries.add(userWords);
+                layers.add(userWords);
+            } catch (IOException e) {
+                LOG.error("Failed to load user dictionary.");
+                return;
+            }
+            LOG.info("Succeeded to load specified user dictionary.");
+        });
+        return new LayeredWordSet(layers);
+    }
+
     protected Optional<String> getConfigAttribute(String attributeName) {
         return Optional.ofNullable(config.getAttribute(attributeName));
     }
@@ -136,6 +245,39 @@ public abstract class Validator<E> {
         return new ValidationError(this.getClass(), getLocalizedErrorMessage(Optional.of(messageKey), args), sentenceWithError);
     }
 
+    /**
+     * create a ValidationError for the specified range in the sentence with default error message
+     *
+     * @param sentenceWithError sentence
+     * @param startOffset       offset of the first character of the error in the sentence content
+     * @param endOffset         offset next to the last character of the error in the sentence content
+     * @param args              objects to format
+     * @return ValidationError with localized message
+     */
+    protected ValidationError createValidationErrorWithOffsets(Sentence sentenceWithError,
+                                                               int startOffset, int endOffset,
+                                                               Object... args) {
+        return new ValidationError(this.getClass(), getLocalizedErrorMessage(Optional.empty(), args),
+                sentenceWithError, startOffset, endOffset);
+    }
+
+    /**
+     * create a ValidationError for the specified range in the sentence with specified message key
+     *
+     * @param messageKey        messageKey
+     * @param sentenceWithError sentence
+     * @param startOffset       offset of the first character of the error in the sentence content
+     * @param endOffset         offset next to the last character of the error in the sentence content
+     * @param args              objects to format
+     * @return ValidationError with localized message
+     */
+    protected ValidationError createValidationErrorWithOffsets(String messageKey, Sentence sentenceWithError,
+                                                               int startOffset, int endOffset,
+                                                               Object... args) {
+        return new ValidationError(this.getClass(), getLocalizedErrorMessage(Optional.of(messageKey), args),
+                sentenceWithError, startOffset, endOffset);
+    }
+
     /**
      * create a ValidationError for the specified position with default error message
      *
@@ -62,6 +62,11 @@ final public class CommaNumberValidator extends Validator<Sentence> {
         return validationErrors;
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         //TODO search parent configurations to get comma settings...
@@ -124,7 +124,7 @@ final public class ContractionValidator extends Validator<Sentence> implements P
     @Override
     public List<ValidationError> validate(Sentence block) {
         List<ValidationError> validationErrors = new ArrayList<>();
-        for (TokenElement token : block.tokens) {
+        for (TokenElement token : block.getTokens()) {
             String surface = token.getSurface().toLowerCase();
             if (foundNonContractionNum >= foundContractionNum
                     && contractions.contains(surface)) {
@@ -136,7 +136,7 @@ final public class ContractionValidator extends Validator<Sentence> implements P
 
     @Override
     public void preprocess(Sentence block) {
-        for (TokenElement token : block.tokens) {
+        for (TokenElement token : block.getTokens()) {
             String surface = token.getSurface().toLowerCase();
             if (contractions.contains(surface)) {
                 foundContractionNum += 1;
@@ -146,6 +146,12 @@ final public class ContractionValidator extends Validator<Sentence> implements P
         }
     }
 
+    @Override
+    public void reset() {
+        foundContractionNum = 0;
+        foundNonContractionNum = 0;
+    }
+
     @Override
     public String toString() {
         return "ContractionValidator{" +
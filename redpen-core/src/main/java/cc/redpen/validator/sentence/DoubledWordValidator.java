@@ -20,14 +20,11 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
-import cc.redpen.util.ResourceLoader;
-import cc.redpen.util.WordListExtractor;
 import cc.redpen.validator.ValidationError;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.*;
 
 final public class DoubledWordValidator extends Validator<Sentence> {
@@ -40,47 +37,33 @@ final public class DoubledWordValidator extends Validator<Sentence> {
     public List<ValidationError> validate(Sentence block) {
         List<ValidationError> errors = new ArrayList<>();
         Set<String> surfaces = new HashSet<>();
-        for (TokenElement token : block.tokens) {
+        TokenLocator locator = new TokenLocator(block.content);
+        for (TokenElement token : block.getTokens()) {
             String currentSurface = token.getSurface();
+            int start = locator.locate(token);
             if (surfaces.contains(currentSurface) && !skipList.contains(currentSurface.toLowerCase())) {
-                errors.add(createValidationError(block, currentSurface));
+                errors.add(start >= 0
+                        ? createValidationErrorWithOffsets(block, start, start + currentSurface.length(), currentSurface)
+                        : createValidationError(block, currentSurface));
             }
             surfaces.add(currentSurface);
         }
         return errors;
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         String lang = getSymbolTable().getLang();
-        WordListExtractor extractor = new WordListExtractor();
-        ResourceLoader loader = new ResourceLoader(extractor);
         LOG.info("Loading default doubled word skip list dictionary for " +
                 "\"" + lang + "\".");
         String defaultDictionaryFile = DEFAULT_RESOURCE_PATH
                 + "/doubled-word-skiplist-" + lang + ".dat";
-        try {
-            loader.loadInternalResource(defaultDictionaryFile);
-        } catch (IOException e) {
-            LOG.error("Failed to load default dictionary.");
-            LOG.error("DoubledWordValidator does not support dictionary for "
-                    + "\"" + lang + "\".");
-            throw new RedPenException(e);
-        }
-        LOG.info("Succeeded to load default dictionary.");
-
-        Optional<String> confFile = getConfigAttribute("dict");
-        confFile.ifPresent(f -> {
-            LOG.info("user dictionary file is " + f);
-            try {
-                loader.loadExternalFile(f);
-            } catch (IOException e) {
-                LOG.error("Failed to load user dictionary.");
-                return;
-            }
-            LOG.info("Succeeded to load specified user dictionary.");
-        });
-        skipList = extractor.get();
+        skipList = loadWordList(defaultDictionaryFile, false);
     }
 
     @Override
@@ -40,6 +40,11 @@ final public class EndOfSentenceValidator extends Validator<Sentence> {
         return validationErrors;
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         period = getSymbolTable().getSymbol("FULL_STOP").getValue().charAt(0);
@@ -19,16 +19,14 @@ package cc.redpen.validator.sentence;
 
 import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
-import cc.redpen.util.ResourceLoader;
-import cc.redpen.util.WordListExtractor;
+import cc.redpen.util.LayeredWordSet;
+import cc.redpen.util.MultiPatternMatcher;
 import cc.redpen.validator.ValidationError;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Validate input sentences contain invalid expression.
@@ -38,56 +36,74 @@ final public class InvalidExpressionValidator extends Validator<Sentence> {
     private static final Logger LOG =
             LoggerFactory.getLogger(InvalidExpressionValidator.class);
     private Set<String> invalidExpressions = new HashSet<>();
+    private volatile MultiPatternMatcher matcher = new MultiPatternMatcher(invalidExpressions);
+    private volatile long matcherVersion = 0;
+    private volatile boolean matcherDirty = false;
 
     public List<ValidationError> validate(Sentence line) {
         List<ValidationError> validationErrors = new ArrayList<>();
-        String str = line.content;
-        validationErrors.addAll(invalidExpressions.stream().filter(str::contains)
-                .map(w -> createValidationError(line, w)).collect(Collectors.toList()));
+        Set<String> found = new HashSet<>();
+        // one error for each expression, located at its first occurrence
+        for (MultiPatternMatcher.Match match : currentMatcher().findAll(line.content)) {
+            if (found.add(match.getPattern())) {
+                validationErrors.add(createValidationErrorWithOffsets(line,
+                        match.getStart(), match.getEnd(), match.getPattern()));
+            }
+        }
         return validationErrors;
     }
 
     /**
-     * Add invalid element. This method is used for testing
+     * Rebuild the matcher when expressions are added or the user dictionary is reloaded.
+     */
+    private MultiPatternMatcher currentMatcher() {
+        if (matcherDirty || getVersion() != matcherVersion) {
+            synchronized (this) {
+                long version = getVersion();
+                if (matcherDirty || version != matcherVersion) {
+                    matcherDirty = false;
+                    matcher = new MultiPatternMatcher(invalidExpressions);
+                    matcherVersion = version;
+                }
+            }
+        }
+        return matcher;
+    }
+
+    private long getVersion() {
+        if (invalidExpressions instanceof LayeredWordSet) {
+            return ((LayeredWordSet) invalidExpressions).getVersion();
+        }
+        return 0;
+    }
+
+    /**
+     * Add invalid element. This method is used for testing.
+     * The matcher is rebuilt when the next sentence is validated.
      *
      * @param invalid invalid expression to be added the list
      */
     public void addInvalid(String invalid) {
         invalidExpressions.add(invalid);
+        matcherDirty = true;
+    }
+
+    @Override
+    public boolean isContextFree() {
+        return true;
     }
 
     @Override
     protected void init() throws RedPenException {
         String lang = getSymbolTable().getLang();
-        WordListExtractor extractor = new WordListExtractor();
-        ResourceLoader loader = new ResourceLoader(extractor);
         LOG.info("Loading default invalid expression dictionary for " +
                 "\"" + lang + "\".");
         String defaultDictionaryFile = DEFAULT_RESOURCE_PATH
                 + "/invalid-expression-" + lang + ".dat";
-        try {
-            loader.loadInternalResource(defaultDictionaryFile);
-        } catch (IOException e) {
-            LOG.error("Failed to load default dictionary.");
-            LOG.error("InvalidExpressionValidator does not support dictionary for "
-                    + "\"" + lang + "\".");
-            throw new RedPenException(e);
-        }
-        LOG.info("Succeeded to load default dictionary.");
-
-        Optional<String> confFile = getConfigAttribute("dict");
-        confFile.ifPresent(f -> {
-            LOG.info("user dictionary file is " + f);
-            try {
-                loader.loadExternalFile(f);
-            } catch (IOException e) {
-                LOG.error("Failed to load user dictionary.");
-                return;
-            }
-            LOG.info("Succeeded to load specified user dictionary.");
-        });
-
-        invalidExpressions = extractor.get();
+        LayeredWordSet words = loadWordList(defaultDictionaryFile, false);
+        invalidExpressions = words;
+        matcher = new MultiPatternMatcher(words);
+        matcherVersion = words.getVersion();
     }
 
     @Override
@@ -54,4 +54,9 @@ final public class InvalidSymbolValidator extends Validator<Sentence> {
         }
         return null;
     }
+
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
 }
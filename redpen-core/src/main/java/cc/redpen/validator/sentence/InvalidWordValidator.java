@@ -20,14 +20,11 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
-import cc.redpen.util.ResourceLoader;
-import cc.redpen.util.WordListExtractor;
 import cc.redpen.validator.ValidationError;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.*;
 
 /**
@@ -42,10 +39,7 @@ final public class InvalidWordValidator extends Validator<Sentence> {
 
     public List<ValidationError> validate(Sentence line) {
         List<ValidationError> result = new ArrayList<>();
-        String content = line.content;
-        //NOTE: only Ascii white space since this validator works for european languages.
-        List<String> words = Arrays.asList(content.split(" "));
-        for (TokenElement token : line.tokens) {
+        for (TokenElement token : line.getTokens()) {
             if (invalidWords.contains(token.getSurface())) {
                 result.add(createValidationError(line, token.getSurface()));
             }
@@ -62,39 +56,19 @@ final public class InvalidWordValidator extends Validator<Sentence> {
         invalidWords.add(invalid);
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         String lang = getSymbolTable().getLang();
-        WordListExtractor extractor = new WordListExtractor();
-        ResourceLoader loader = new ResourceLoader(extractor);
-
         LOG.info("Loading default invalid word dictionary for " +
                 "\"" + lang + "\".");
         String defaultDictionaryFile = DEFAULT_RESOURCE_PATH
                 + "/invalid-word-" + lang + ".dat";
-        try {
-            loader.loadInternalResource(defaultDictionaryFile);
-        } catch (IOException e) {
-            LOG.error(e.getMessage());
-            LOG.error("Failed to load default dictionary.");
-            throw new RedPenException(e);
-        }
-        LOG.info("Succeeded to load default dictionary.");
-
-        Optional<String> confFile = getConfigAttribute("dict");
-        confFile.ifPresent(f -> {
-            LOG.info("user dictionary file is " + f);
-            try {
-                loader.loadExternalFile(f);
-            } catch (IOException e) {
-                LOG.error(e.getMessage());
-                LOG.error("Failed to load user dictionary.");
-                return;
-            }
-            LOG.info("Succeeded to load specified user dictionary.");
-        });
-
-        invalidWords = extractor.get();
+        invalidWords = loadWordList(defaultDictionaryFile, false);
     }
 
     @Override
@@ -100,6 +100,11 @@ final public class KatakanaEndHyphenValidator extends Validator<Sentence> {
         return errors;
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         //TODO support exception word list.
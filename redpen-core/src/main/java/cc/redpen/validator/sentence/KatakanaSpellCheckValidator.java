@@ -19,16 +19,14 @@ package cc.redpen.validator.sentence;
 
 import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
+import cc.redpen.util.BKTree;
 import cc.redpen.util.LevenshteinDistance;
-import cc.redpen.util.ResourceLoader;
 import cc.redpen.util.StringUtils;
-import cc.redpen.util.WordListExtractor;
 import cc.redpen.validator.ValidationError;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.*;
 
 /**
@@ -61,6 +59,10 @@ final public class KatakanaSpellCheckValidator extends Validator<Sentence> {
      * to ignore.
      */
     private static final int MAX_IGNORE_KATAKANA_LENGTH = 3;
+    /**
+     * Edit distance with the default costs.
+     */
+    private static final LevenshteinDistance DISTANCE = new LevenshteinDistance();
     /**
      * Default dictionary for Katakana spell checking.
      */
@@ -74,6 +76,10 @@ final public class KatakanaSpellCheckValidator extends Validator<Sentence> {
      * Katakana word dic with line number.
      */
     private HashMap<String, Integer> dic = new HashMap<>();
+    /**
+     * Index of the words in dic to look up similar words.
+     */
+    private final BKTree similarWordIndex = new BKTree(DISTANCE::distance);
     /**
      * Exception word list.
      */
@@ -112,50 +118,43 @@ final public class KatakanaSpellCheckValidator extends Validator<Sentence> {
         }
         final int minLsDistance =
                 Math.round(katakana.length() * SIMILARITY_RATIO);
-        boolean found = false;
         List<ValidationError> errors = new ArrayList<>();
-        for (String key : dic.keySet()) {
-            if (LevenshteinDistance.getDistance(key, katakana) <= minLsDistance) {
-                found = true;
-                errors.add(createValidationError(sentence, katakana, key, dic.get(key).toString()));
-            }
+        for (String key : similarWordIndex.search(katakana, minLsDistance)) {
+            errors.add(createValidationError(sentence, katakana, key, dic.get(key).toString()));
         }
-        if (!found) {
+        if (errors.isEmpty()) {
             dic.put(katakana, sentence.position);
+            similarWordIndex.add(katakana);
         }
         return errors;
     }
 
     @Override
     protected void init() throws RedPenException {
-        WordListExtractor extractor = new WordListExtractor();
-        ResourceLoader loader = new ResourceLoader(extractor);
-
         LOG.info("Loading default katakana word dictionary");
         String defaultDictionaryFile = DEFAULT_RESOURCE_PATH
                 + "/katakana-spellcheck.dat";
-        try {
-            loader.loadInternalResource(defaultDictionaryFile);
-            LOG.info("Succeeded to load default dictionary.");
-        } catch (IOException e) {
-            throw new RedPenException("Failed to load default dictionary.", e);
-        }
-
-        Optional<String> confFile = getConfigAttribute("dict");
-        confFile.ifPresent(e -> {
-            LOG.info("User dictionary file is " + e);
-            try {
-                loader.loadExternalFile(e);
-            } catch (IOException e1) {
-                LOG.error("Failed to load user dictionary");
-            }
-        });
-        this.exceptions = extractor.get();
+        this.exceptions = loadWordList(defaultDictionaryFile, false);
 
         //TODO : configurable SIMILARITY_RATIO.
         //TODO : configurable MAX_IGNORE_KATAKANA_LENGTH.
     }
 
+    /**
+     * Katakana words found in the previous sentences are stored in the dictionary,
+     * and therefore the results depend on the order of the validated sentences.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        dic.clear();
+        similarWordIndex.clear();
+    }
+
     @Override
     public String toString() {
         return "KatakanaSpellCheckValidator{" +
@@ -83,6 +83,11 @@ public class QuotationValidator extends Validator<Sentence> {
         return errors;
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         this.period = DefaultSymbols.getInstance().get(
@@ -48,6 +48,11 @@ final public class SentenceLengthValidator extends Validator<Sentence> {
         return validationErrors;
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         this.maxLength = getConfigAttributeAsInt("max_len", DEFAULT_MAX_LENGTH);
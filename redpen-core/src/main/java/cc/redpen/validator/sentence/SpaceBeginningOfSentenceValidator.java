@@ -39,4 +39,9 @@ final public class SpaceBeginningOfSentenceValidator extends Validator<Sentence>
         }
         return validationErrors;
     }
+
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
 }
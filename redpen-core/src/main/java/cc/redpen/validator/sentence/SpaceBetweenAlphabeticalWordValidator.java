@@ -28,4 +28,8 @@ public class SpaceBetweenAlphabeticalWordValidator extends Validator<Sentence> {
         return results;
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
 }
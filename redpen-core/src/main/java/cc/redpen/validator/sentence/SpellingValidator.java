@@ -3,14 +3,11 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
-import cc.redpen.util.ResourceLoader;
-import cc.redpen.util.WordListExtractor;
 import cc.redpen.validator.ValidationError;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.*;
 
 public class SpellingValidator extends Validator<Sentence> {
@@ -22,54 +19,39 @@ public class SpellingValidator extends Validator<Sentence> {
             new Character[]{'+', '~', '-', '(', ')', ',', '\"', '.'};
     private static Set<Character> skipCharacters =
             new HashSet<>(Arrays.asList(skipChars));
-    // TODO: replace more memory efficient data structure
+    // the bundled dictionary is a CompactWordSet; user words are added on top of it
     private Set<String> validWords = new HashSet<>();
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         String lang = getSymbolTable().getLang();
-        WordListExtractor extractor = new WordListExtractor();
-        extractor.setToLowerCase();
-        ResourceLoader loader = new ResourceLoader(extractor);
-
         LOG.info("Loading default invalid expression dictionary for " +
                 "\"" + lang + "\".");
         String defaultDictionaryFile = DEFAULT_RESOURCE_PATH
                 + "/spellchecker-" + lang + ".dat";
-        try {
-            loader.loadInternalResource(defaultDictionaryFile);
-        } catch (IOException e) {
-            LOG.error(e.getMessage());
-            LOG.info("Failed to load default dictionary.");
-            throw new RedPenException(e);
-        }
-        LOG.info("Succeeded to load default dictionary.");
-
-        Optional<String> userDictionaryFile = getConfigAttribute("dict");
-        userDictionaryFile.ifPresent(f -> {
-            LOG.info("user dictionary file is " + f);
-            try {
-                loader.loadExternalFile(f);
-            } catch (IOException e) {
-                LOG.error("Failed to load user dictionary.");
-                return;
-            }
-            LOG.info("Succeeded to load specified user dictionary.");
-        });
-        validWords = extractor.get();
+        validWords = loadWordList(defaultDictionaryFile, true);
     }
 
     @Override
     public List<ValidationError> validate(Sentence line) {
         List<ValidationError> validationErrors = new ArrayList<>();
-        for (TokenElement token : line.tokens) {
+        TokenLocator locator = new TokenLocator(line.content);
+        for (TokenElement token : line.getTokens()) {
+            int start = locator.locate(token);
             String surface = normalize(token.getSurface());
             if (surface.length() == 0) {
                 continue;
             }
 
             if (!this.validWords.contains(surface)) {
-                validationErrors.add(createValidationError(line));
+                validationErrors.add(start >= 0
+                        ? createValidationErrorWithOffsets(line, start, start + token.getSurface().length())
+                        : createValidationError(line));
             }
         }
         return validationErrors;
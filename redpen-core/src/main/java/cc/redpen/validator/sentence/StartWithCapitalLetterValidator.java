@@ -3,14 +3,11 @@ package cc.redpen.validator.sentence;
 import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
 import cc.redpen.tokenizer.TokenElement;
-import cc.redpen.util.ResourceLoader;
-import cc.redpen.util.WordListExtractor;
 import cc.redpen.validator.ValidationError;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.*;
 
 /**
@@ -34,7 +31,7 @@ final public class StartWithCapitalLetterValidator extends Validator<Sentence> {
     public List<ValidationError> validate(Sentence block) {
         List<ValidationError> validationErrors = new ArrayList<>();
         String content = block.content;
-        List<TokenElement> tokens = block.tokens;
+        List<TokenElement> tokens = block.getTokens();
         if (tokens.size() == 0 || this.whiteList.contains(tokens.get(0).getSurface())) {
             return validationErrors;
         }
@@ -58,33 +55,16 @@ final public class StartWithCapitalLetterValidator extends Validator<Sentence> {
     }
 
     @Override
-    protected void init() throws RedPenException {
-        WordListExtractor extractor = new WordListExtractor();
-        ResourceLoader loader = new ResourceLoader(extractor);
+    public boolean isContextFree() {
+        return true;
+    }
 
+    @Override
+    protected void init() throws RedPenException {
         LOG.info("Loading default capital letter exception dictionary ");
         String defaultDictionaryFile = DEFAULT_RESOURCE_PATH
                 + "/default-capital-case-exception-list.dat";
-        try {
-            loader.loadInternalResource(defaultDictionaryFile);
-        } catch (IOException e) {
-            throw new RedPenException("Failed to load default dictionary.", e);
-        }
-        LOG.info("Succeeded to load default dictionary.");
-
-        Optional<String> confFile = getConfigAttribute("dict");
-        confFile.ifPresent(f -> {
-            LOG.info("user dictionary file is " + f);
-            try {
-                loader.loadExternalFile(f);
-            } catch (IOException e) {
-                LOG.error("Failed to load user dictionary.");
-                return;
-            }
-            LOG.info("Succeeded to load specified user dictionary.");
-        });
-
-        whiteList = extractor.get();
+        whiteList = loadWordList(defaultDictionaryFile, false);
     }
 
     @Override
@@ -21,6 +21,7 @@ import cc.redpen.RedPenException;
 import cc.redpen.model.Sentence;
 import cc.redpen.util.FileLoader;
 import cc.redpen.util.KeyValueDictionaryExtractor;
+import cc.redpen.util.MultiPatternMatcher;
 import cc.redpen.validator.ValidationError;
 import cc.redpen.validator.Validator;
 import org.slf4j.Logger;
@@ -28,7 +29,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * If input sentences contain invalid expressions, this validator
@@ -39,16 +39,21 @@ final public class SuggestExpressionValidator extends Validator<Sentence> {
     private static final Logger LOG =
             LoggerFactory.getLogger(SuggestExpressionValidator.class);
     private Map<String, String> synonyms = new HashMap<>();
+    private MultiPatternMatcher matcher = new MultiPatternMatcher(synonyms.keySet());
 
     public List<ValidationError> validate(Sentence line) {
         List<ValidationError> validationErrors = new ArrayList<>();
-        String str = line.content;
-        Set<String> invalidWords = synonyms.keySet();
-        validationErrors.addAll(invalidWords.stream().filter(str::contains)
-                .map(w -> createValidationError(line, w, synonyms.get(w))).collect(Collectors.toList()));
+        for (String invalidWord : matcher.findDistinct(line.content)) {
+            validationErrors.add(createValidationError(line, invalidWord, synonyms.get(invalidWord)));
+        }
         return validationErrors;
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         Optional<String> confFile = getConfigAttribute("dict");
@@ -64,12 +69,13 @@ final public class SuggestExpressionValidator extends Validator<Sentence> {
             } catch (IOException e) {
                 throw new RedPenException("Failed to load KeyValueDictionaryExtractor", e);
             }
-            synonyms = extractor.get();
+            setSynonyms(extractor.get());
         }
     }
 
     protected void setSynonyms(Map<String, String> synonymMap) {
         this.synonyms = synonymMap;
+        this.matcher = new MultiPatternMatcher(synonymMap.keySet());
     }
 
     @Override
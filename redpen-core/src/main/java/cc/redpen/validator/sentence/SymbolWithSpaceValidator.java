@@ -65,4 +65,9 @@ public class SymbolWithSpaceValidator extends Validator<Sentence> {
         }
         return null;
     }
+
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
 }
@@ -0,0 +1,54 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator.sentence;
+
+import cc.redpen.tokenizer.TokenElement;
+
+/**
+ * Locate the tokens of a sentence in its content. Tokens recording their offsets
+ * are located by the offsets, and the others are searched in order, each one after
+ * the end of the previous one.
+ */
+final class TokenLocator {
+    private final String content;
+    private int cursor = 0;
+
+    TokenLocator(String content) {
+        this.content = content;
+    }
+
+    /**
+     * Locate the next token.
+     *
+     * @param token token
+     * @return offset of the token in the content, -1 when the token is not found
+     */
+    int locate(TokenElement token) {
+        int start = token.getStartOffset();
+        if (start >= 0) {
+            cursor = token.getEndOffset();
+            return start;
+        }
+        String surface = token.getSurface();
+        start = content.indexOf(surface, cursor);
+        if (start >= 0) {
+            cursor = start + surface.length();
+        }
+        return start;
+    }
+}
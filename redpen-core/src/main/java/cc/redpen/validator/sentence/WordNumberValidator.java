@@ -43,13 +43,18 @@ final public class WordNumberValidator extends Validator<Sentence> {
     @Override
     public List<ValidationError> validate(Sentence sentence) {
         List<ValidationError> validationErrors = new ArrayList<>();
-        int wordNum = sentence.tokens.size();
+        int wordNum = sentence.getTokens().size();
         if (wordNum > maxWordNumber) {
             validationErrors.add(createValidationError(sentence, wordNum));
         }
         return validationErrors;
     }
 
+    @Override
+    public boolean isContextFree() {
+        return true;
+    }
+
     @Override
     protected void init() throws RedPenException {
         this.maxWordNumber = getConfigAttributeAsInt("max_num", DEFAULT_MAXIMUM_WORDS_IN_A_SENTENCE);
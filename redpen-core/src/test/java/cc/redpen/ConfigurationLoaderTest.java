@@ -23,6 +23,7 @@ import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
 import java.io.InputStream;
+import java.nio.charset.Charset;
 
 import static org.junit.Assert.*;
 
@@ -378,4 +379,76 @@ public class ConfigurationLoaderTest {
         IOUtils.closeQuietly(stream);
     }
 
+    @Test
+    public void testLoadConfigurationWithInputEncoding() {
+        String sampleConfigString =
+                "<redpen-conf input-encoding=\"Shift_JIS\">" +
+                        "<validator-list>" +
+                        "<validator name=\"SentenceLength\" />" +
+                        "</validator-list>" +
+                        "</redpen-conf>";
+
+        ConfigurationLoader configurationLoader = new ConfigurationLoader();
+        InputStream stream = IOUtils.toInputStream(sampleConfigString);
+        Configuration configuration = configurationLoader.loadConfiguration(stream);
+        IOUtils.closeQuietly(stream);
+
+        assertNotNull(configuration);
+        assertEquals(Charset.forName("Shift_JIS"), configuration.getInputCharset());
+    }
+
+    @Test
+    public void testLoadConfigurationWithUnsupportedInputEncoding() {
+        String sampleConfigString =
+                "<redpen-conf input-encoding=\"NO-SUCH-ENCODING\">" +
+                        "<validator-list>" +
+                        "<validator name=\"SentenceLength\" />" +
+                        "</validator-list>" +
+                        "</redpen-conf>";
+
+        ConfigurationLoader configurationLoader = new ConfigurationLoader();
+        InputStream stream = IOUtils.toInputStream(sampleConfigString);
+        Configuration configuration = configurationLoader.loadConfiguration(stream);
+        IOUtils.closeQuietly(stream);
+
+        assertNull(configuration);
+    }
+
+    @Test
+    public void testTokenizerConfiguration() {
+        String sampleConfigString =
+                "<redpen-conf>" +
+                        "<validator-list>" +
+                        "<validator name=\"SentenceLength\" />" +
+                        "</validator-list>" +
+                        "<symbol-table lang=\"ja\" tokenizer=\"NGram\" />" +
+                        "</redpen-conf>";
+
+        ConfigurationLoader configurationLoader = new ConfigurationLoader();
+        InputStream stream = IOUtils.toInputStream(sampleConfigString);
+        Configuration configuration = configurationLoader.loadConfiguration(stream);
+        IOUtils.closeQuietly(stream);
+
+        assertNotNull(configuration);
+        assertEquals("ja", configuration.getSymbolTable().getLang());
+        assertEquals("NGram", configuration.getSymbolTable().getTokenizer());
+    }
+
+    @Test
+    public void testUnknownTokenizerConfiguration() {
+        String sampleConfigString =
+                "<redpen-conf>" +
+                        "<validator-list>" +
+                        "<validator name=\"SentenceLength\" />" +
+                        "</validator-list>" +
+                        "<symbol-table lang=\"en\" tokenizer=\"NoSuchTokenizer\" />" +
+                        "</redpen-conf>";
+
+        ConfigurationLoader configurationLoader = new ConfigurationLoader();
+        InputStream stream = IOUtils.toInputStream(sampleConfigString);
+        Configuration configuration = configurationLoader.loadConfiguration(stream);
+        IOUtils.closeQuietly(stream);
+
+        assertNull(configuration);
+    }
 }
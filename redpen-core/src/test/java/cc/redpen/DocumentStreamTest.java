@@ -0,0 +1,181 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.Configuration;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.distributor.FakeResultDistributor;
+import cc.redpen.model.Document;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.parser.DocumentParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DocumentStreamTest {
+    @Before
+    public void setUp() {
+        Locale.setDefault(Locale.ENGLISH);
+    }
+
+    @Test
+    public void testTakeDocumentsInInputOrder() throws Exception {
+        String[] inputFiles = createInputFiles(5);
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en").build();
+        try (DocumentStream stream = DocumentGenerator.stream(inputFiles, configuration,
+                DocumentParser.Type.PLAIN, 1)) {
+            for (String inputFile : inputFiles) {
+                Document document = stream.take();
+                assertEquals(inputFile, document.getFileName());
+                assertEquals(2, document.getSection(0).getParagraph(0).getNumberOfSentences());
+            }
+            assertNull(stream.take());
+            assertNull(stream.take());
+        }
+    }
+
+    @Test(expected = RedPenException.class)
+    public void testNonExistentFile() throws RedPenException {
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en").build();
+        try (DocumentStream stream = DocumentGenerator.stream(new String[]{"no-such-file.txt"},
+                configuration, DocumentParser.Type.PLAIN, 1)) {
+            stream.take();
+        }
+    }
+
+    @Test
+    public void testTakeDocumentsInInputOrderInParallel() throws Exception {
+        String[] inputFiles = createInputFiles(20);
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en").build();
+        try (DocumentStream stream = DocumentGenerator.stream(inputFiles, configuration,
+                DocumentParser.Type.PLAIN, 2, null, 4)) {
+            for (String inputFile : inputFiles) {
+                Document document = stream.take();
+                assertEquals(inputFile, document.getFileName());
+                assertEquals(2, document.getSection(0).getParagraph(0).getNumberOfSentences());
+            }
+            assertNull(stream.take());
+        }
+    }
+
+    @Test
+    public void testGenerateInParallel() throws Exception {
+        String[] inputFiles = new String[10];
+        for (int i = 0; i < inputFiles.length; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int j = 0; j <= i; j++) {
+                content.append(j == 0 ? "" : " ").append("This is sentence ").append(j).append(".");
+            }
+            inputFiles[i] = createInputFile(content.toString());
+        }
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en").build();
+        DocumentCollection sequential = DocumentGenerator.generate(inputFiles, configuration,
+                DocumentParser.Type.PLAIN, null, 1);
+        DocumentCollection parallel = DocumentGenerator.generate(inputFiles, configuration,
+                DocumentParser.Type.PLAIN, null, 3);
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < inputFiles.length; i++) {
+            Document document = parallel.getDocument(i);
+            assertEquals(inputFiles[i], document.getFileName());
+            assertEquals(i + 1, document.getSection(0).getParagraph(0).getNumberOfSentences());
+            assertEquals(sequential.getDocument(i).getSection(0).getParagraph(0).getSentence(i).content,
+                    document.getSection(0).getParagraph(0).getSentence(i).content);
+        }
+    }
+
+    @Test(expected = RedPenException.class)
+    public void testNonExistentFileInParallel() throws Exception {
+        String[] inputFiles = createInputFiles(4);
+        inputFiles[2] = "no-such-file.txt";
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en").build();
+        try (DocumentStream stream = DocumentGenerator.stream(inputFiles, configuration,
+                DocumentParser.Type.PLAIN, 1, null, 2)) {
+            for (int i = 0; i < inputFiles.length; i++) {
+                stream.take();
+            }
+        }
+    }
+
+    @Test
+    public void testCheckStream() throws Exception {
+        String[] inputFiles = createInputFiles(3);
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en")
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "10"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build();
+        try (DocumentStream stream = DocumentGenerator.stream(inputFiles, configuration,
+                DocumentParser.Type.PLAIN, 2)) {
+            assertEquals(6, redPen.check(stream));
+        }
+    }
+
+    @Test
+    public void testCheckStreamInParallel() throws Exception {
+        String[] inputFiles = createInputFiles(10);
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en")
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "10"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setParallelism(3)
+                .build();
+        try (DocumentStream stream = DocumentGenerator.stream(inputFiles, configuration,
+                DocumentParser.Type.PLAIN, 2)) {
+            assertEquals(20, redPen.check(stream));
+        }
+    }
+
+    @Test(expected = RedPenException.class)
+    public void testProducerError() throws RedPenException {
+        try (DocumentStream stream = new DocumentStream(1, s -> {
+            throw new StackOverflowError();
+        })) {
+            stream.take();
+        }
+    }
+
+    private static String[] createInputFiles(int number) throws IOException {
+        String[] fileNames = new String[number];
+        for (int i = 0; i < number; i++) {
+            fileNames[i] = createInputFile("This is a first sentence. This is a second sentence.\n");
+        }
+        return fileNames;
+    }
+
+    private static String createInputFile(String content) throws IOException {
+        File file = File.createTempFile("redpen-stream", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file.getAbsolutePath();
+    }
+}
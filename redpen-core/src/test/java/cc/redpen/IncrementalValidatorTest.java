@@ -0,0 +1,261 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.Configuration;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.distributor.FakeResultDistributor;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.model.Document;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Paragraph;
+import cc.redpen.model.Sentence;
+import cc.redpen.parser.DocumentParser;
+import cc.redpen.parser.DocumentParserFactory;
+import cc.redpen.validator.ValidationError;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class IncrementalValidatorTest {
+    private static final String[] FRAGMENTS = {
+            "This", " is", " a", " pen", " pen", ",", ".", ". ", "  ", "\n", "\n\n", "\r\n", "!", " long sentence",
+            " can't", " cannot", " it's", " it", " インデックス", " インデクス", " ミドルウェア", " ミドルウエア"
+    };
+
+    @Before
+    public void setUp() {
+        Locale.setDefault(Locale.ENGLISH);
+    }
+
+    @Test
+    public void testValidateIsSameAsCheck() throws RedPenException {
+        String text = "This is a pen.  This is a pen pen.\nA  sentence without period\n\n"
+                + "That is, a, b, c, d, e and f. Next paragraph is long enough to exceed the limit.\n";
+        RedPen redPen = createRedPen(null);
+        IncrementalValidator.Result result = new IncrementalValidator(redPen).validate(text);
+
+        DocumentCollection documents = parse(text);
+        List<ValidationError> expected = createRedPen(null).check(documents);
+
+        assertEquals(describe(expected), describe(result.getErrors()));
+        assertEquals(describe(documents.getDocument(0)), describe(result.getDocument()));
+    }
+
+    @Test
+    public void testStatefulValidatorsAreRestarted() throws RedPenException {
+        String text = "It's a pen. It is a pen.\n\nインデックス and インデクス.\n";
+        IncrementalValidator validator = new IncrementalValidator(createRedPen(null));
+        IncrementalValidator.Result result = validator.validate(text);
+        result = validator.validate(result.getText());
+        assertEquals(describe(checkWithNewRedPen(text)), describe(result.getErrors()));
+
+        // remove the second sentence and the second katakana word
+        result = validator.revalidate(result, new TextEdit(11, 13, ""));
+        result = validator.revalidate(result, new TextEdit(19, 10, ""));
+        assertEquals("It's a pen.\n\nインデックス.\n", result.getText());
+        assertEquals(describe(checkWithNewRedPen(result.getText())), describe(result.getErrors()));
+    }
+
+    @Test
+    public void testEditSentence() throws RedPenException {
+        String text = "This is a pen.\n\nThat pen pen is red.\n\nThis is a pen.\n";
+        IncrementalValidator validator = new IncrementalValidator(createRedPen(null));
+        IncrementalValidator.Result result = validator.validate(text);
+        List<ValidationError> errors = doubledWordErrors(result);
+        assertEquals(1, errors.size());
+        assertEquals(2, errors.get(0).getLineNumber());
+
+        // insert a line before the doubled word
+        result = validator.revalidate(result, new TextEdit(16, 0, "A pen.\n"));
+        assertEquals("This is a pen.\n\nA pen.\nThat pen pen is red.\n\nThis is a pen.\n", result.getText());
+        errors = doubledWordErrors(result);
+        assertEquals(1, errors.size());
+        assertEquals(3, errors.get(0).getLineNumber());
+        assertEquals("That pen pen is red.", errors.get(0).getSentence().get().content);
+        assertEquals(23, errors.get(0).getSentence().get().startOffset);
+
+        // fix the doubled word
+        result = validator.revalidate(result, new TextEdit(31, 4, ""));
+        assertEquals(0, doubledWordErrors(result).size());
+        Sentence last = result.getDocument().getSection(0).getParagraph(2).getSentence(0);
+        assertEquals("This is a pen.", last.content);
+        assertEquals(5, last.position);
+        assertEquals(41, last.startOffset);
+    }
+
+    @Test
+    public void testValidateOnlyChangedSentences() throws RedPenException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            text.append("This is paragraph ").append(i).append(". It has two sentences.\n\n");
+        }
+        Metrics metrics = new Metrics();
+        IncrementalValidator validator = new IncrementalValidator(createRedPen(metrics));
+        IncrementalValidator.Result result = validator.validate(text.toString());
+        long validated = sentenceLengthCount(metrics);
+
+        // append a word to the second sentence of the fifth paragraph
+        int offset = text.indexOf("sentences.", text.indexOf("paragraph 4")) + 9;
+        validator.revalidate(result, new TextEdit(offset, 0, " here"));
+        assertEquals(validated + 1, sentenceLengthCount(metrics));
+    }
+
+    @Test
+    public void testSentenceAcrossParagraphs() throws RedPenException {
+        String text = "Title\n\nThis is a pen.\n\nThat is a pen.\n";
+        IncrementalValidator validator = new IncrementalValidator(createRedPen(null));
+        IncrementalValidator.Result result = validator.validate(text);
+        // remove the period of the second paragraph
+        result = validator.revalidate(result, new TextEdit(20, 1, ""));
+        assertEquals(describe(validator.validate(result.getText()).getDocument()),
+                describe(result.getDocument()));
+        // restore the period
+        result = validator.revalidate(result, new TextEdit(20, 0, "."));
+        assertEquals(describe(validator.validate(text).getDocument()), describe(result.getDocument()));
+    }
+
+    @Test
+    public void testTextIsNotEncodedInInputCharset() throws RedPenException {
+        String text = "インデックス and \uD842\uDFB7 is a pen.\n\nThis is a pen.\n";
+        IncrementalValidator validator = new IncrementalValidator(createRedPen(null, StandardCharsets.ISO_8859_1));
+        IncrementalValidator.Result result = validator.validate(text);
+        assertEquals(describe(parse(text).getDocument(0)), describe(result.getDocument()));
+
+        // edit after the surrogate pair
+        result = validator.revalidate(result, new TextEdit(text.indexOf(" is"), 0, " pen"));
+        assertEquals(describe(parse(result.getText()).getDocument(0)), describe(result.getDocument()));
+        assertEquals(describe(checkWithNewRedPen(result.getText())), describe(result.getErrors()));
+    }
+
+    @Test
+    public void testRandomEdits() throws RedPenException {
+        Random random = new Random(19);
+        IncrementalValidator validator = new IncrementalValidator(createRedPen(null));
+        for (int document = 0; document < 30; document++) {
+            IncrementalValidator.Result result = validator.validate(randomText(random, 60));
+            for (int edit = 0; edit < 30; edit++) {
+                String text = result.getText();
+                int offset = random.nextInt(text.length() + 1);
+                int removedLength = random.nextInt(Math.min(8, text.length() - offset) + 1);
+                TextEdit textEdit = new TextEdit(offset, removedLength, randomText(random, random.nextInt(4)));
+                result = validator.revalidate(result, textEdit);
+
+                String message = "edit " + edit + " of document " + document + ": " + textEdit;
+                assertEquals(message, describe(parse(result.getText()).getDocument(0)),
+                        describe(result.getDocument()));
+                assertEquals(message, describe(checkWithNewRedPen(result.getText())),
+                        describe(result.getErrors()));
+            }
+        }
+    }
+
+    private static RedPen createRedPen(Metrics metrics) throws RedPenException {
+        return createRedPen(metrics, StandardCharsets.UTF_8);
+    }
+
+    private static RedPen createRedPen(Metrics metrics, Charset inputCharset) throws RedPenException {
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en")
+                .setInputCharset(inputCharset)
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "30"))
+                .addValidatorConfig(new ValidatorConfiguration("DoubledWord"))
+                .addValidatorConfig(new ValidatorConfiguration("CommaNumber"))
+                .addValidatorConfig(new ValidatorConfiguration("SpaceBeginningOfSentence"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .addValidatorConfig(new ValidatorConfiguration("Contraction"))
+                .addValidatorConfig(new ValidatorConfiguration("ParagraphNumber").addAttribute("max_num", "3"))
+                .addValidatorConfig(new ValidatorConfiguration("ParagraphStartWith"))
+                .build();
+        return new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setMetrics(metrics)
+                .build();
+    }
+
+    private static DocumentCollection parse(String text) throws RedPenException {
+        DocumentParser parser = DocumentParserFactory.generate(DocumentParser.Type.PLAIN,
+                new Configuration.Builder().setSymbolTable("en").build(), new DocumentCollection.Builder());
+        DocumentCollection documents = new DocumentCollection();
+        documents.addDocument(parser.generateDocument(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))));
+        return documents;
+    }
+
+    private static List<ValidationError> checkWithNewRedPen(String text) throws RedPenException {
+        try (RedPen redPen = createRedPen(null)) {
+            return redPen.check(parse(text));
+        }
+    }
+
+    private static List<ValidationError> doubledWordErrors(IncrementalValidator.Result result) {
+        return result.getErrors().stream()
+                .filter(error -> error.getValidatorName().equals("DoubledWord"))
+                .collect(Collectors.toList());
+    }
+
+    private static long sentenceLengthCount(Metrics metrics) {
+        return metrics.snapshot().getTimer("SentenceLengthValidator").get().getCount();
+    }
+
+    private static String randomText(Random random, int fragments) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < fragments; i++) {
+            text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String describe(Document document) {
+        StringBuilder description = new StringBuilder();
+        for (Paragraph paragraph : document.getSection(0).getParagraphs()) {
+            description.append("paragraph\n");
+            for (Sentence sentence : paragraph.getSentences()) {
+                description.append(describe(sentence)).append('\n');
+            }
+        }
+        return description.toString();
+    }
+
+    private static String describe(List<ValidationError> errors) {
+        StringBuilder description = new StringBuilder();
+        for (ValidationError error : errors) {
+            description.append(error.getLineNumber()).append(' ')
+                    .append(error.getValidatorName()).append(' ')
+                    .append(error.getMessage()).append(' ')
+                    .append(error.getStartOffset()).append(' ')
+                    .append(error.getSentence().map(IncrementalValidatorTest::describe).orElse(""))
+                    .append('\n');
+        }
+        return description.toString();
+    }
+
+    private static String describe(Sentence sentence) {
+        return "[" + sentence.content + "] " + sentence.position + " " + sentence.startOffset
+                + "-" + sentence.endOffset + (sentence.isFirstSentence ? " first" : "");
+    }
+}
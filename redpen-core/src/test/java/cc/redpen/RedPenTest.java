@@ -20,17 +20,25 @@ package cc.redpen;
 import cc.redpen.config.Configuration;
 import cc.redpen.config.ValidatorConfiguration;
 import cc.redpen.distributor.FakeResultDistributor;
+import cc.redpen.metrics.Metrics;
+import cc.redpen.metrics.MetricsSnapshot;
+import cc.redpen.metrics.TimerSnapshot;
 import cc.redpen.model.DocumentCollection;
 import cc.redpen.validator.ValidationError;
+import cc.redpen.validator.section.ThreadConfinedSectionValidator;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.matchers.JUnitMatchers.containsString;
 
 public class RedPenTest {
@@ -181,6 +189,178 @@ public class RedPenTest {
 
     }
 
+    @Test
+    public void testErrorsAreGroupedByDocument() throws RedPenException {
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .addDocument("file1")
+                .addSection(0)
+                .addSectionHeader("foobar")
+                .addParagraph()
+                .addSentence("it is a piece of a cake.", 1)
+                .addDocument("file2")
+                .addSection(0)
+                .addSectionHeader("foobar")
+                .addParagraph()
+                .addSentence("that is also a piece of a cake.", 1)
+                .build();
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "5"))
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SectionLength").addAttribute("max_num", "10"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build();
+
+        List<ValidationError> errors = redPen.check(documents);
+        assertEquals(6, errors.size());
+        for (int i = 0; i < errors.size(); i++) {
+            assertEquals("file" + (i / 3 + 1), errors.get(i).getFileName().get());
+        }
+    }
+
+    @Test
+    public void testParallelCheckReturnsErrorsInDocumentOrder() throws RedPenException {
+        DocumentCollection.Builder builder = new DocumentCollection.Builder();
+        for (int i = 0; i < 20; i++) {
+            builder.addDocument("file" + i)
+                    .addSection(0)
+                    .addSectionHeader("this is it")
+                    .addParagraph()
+                    .addSentence("it is a piece of a cake.", 1)
+                    .addSentence("that is also a piece of a cake.", 2)
+                    .addListBlock()
+                    .addListElement(0, "this is a list.");
+        }
+        DocumentCollection documents = builder.build();
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "5"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setParallelism(4)
+                .build();
+        assertEquals(4, redPen.getParallelism());
+
+        List<ValidationError> errors = redPen.check(documents);
+        assertEquals(80, errors.size());
+        for (int i = 0; i < errors.size(); i++) {
+            assertEquals("file" + (i / 4), errors.get(i).getFileName().get());
+        }
+        for (int i = 1; i < errors.size(); i++) {
+            if (errors.get(i).getFileName().equals(errors.get(i - 1).getFileName())) {
+                assertTrue(errors.get(i - 1).getLineNumber() <= errors.get(i).getLineNumber());
+            }
+        }
+    }
+
+    @Test
+    public void testParallelCheckRunsConfinedSectionValidatorsOnCallingThread() throws RedPenException {
+        DocumentCollection.Builder builder = new DocumentCollection.Builder();
+        for (int i = 0; i < 20; i++) {
+            builder.addDocument("file" + i)
+                    .addSection(0)
+                    .addParagraph()
+                    .addSentence("it is a piece of a cake.", 1);
+        }
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("ThreadConfinedSection"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setParallelism(4)
+                .build();
+
+        ThreadConfinedSectionValidator.THREADS.clear();
+        redPen.check(builder.build());
+        assertEquals(Collections.singleton(Thread.currentThread()), ThreadConfinedSectionValidator.THREADS);
+    }
+
+    @Test
+    public void testMetrics() throws RedPenException {
+        Metrics metrics = new Metrics();
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .setMetrics(metrics)
+                .addDocument("")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("it is a piece of a cake.", 1)
+                .addSentence("this is it.", 2)
+                .build();
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(
+                        new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "5"))
+                .addValidatorConfig(new ValidatorConfiguration("SectionLength"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setMetrics(metrics)
+                .build();
+        redPen.check(documents);
+
+        MetricsSnapshot snapshot = redPen.getMetricsSnapshot();
+        TimerSnapshot sentenceLength = snapshot.getTimer("SentenceLengthValidator").get();
+        assertEquals(2, sentenceLength.getCount());
+        assertEquals(2, sentenceLength.getErrorCount());
+        assertEquals(1, snapshot.getTimer("SectionLengthValidator").get().getCount());
+        // sentences are tokenized only when a validator reads the tokens
+        assertEquals(0, snapshot.getTimer(Metrics.TOKENIZE).get().getCount());
+        assertThat(snapshot.format(), containsString("SentenceLengthValidator"));
+    }
+
+    @Test
+    public void testTokenizeWhenRequired() throws RedPenException {
+        Metrics metrics = new Metrics();
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .setMetrics(metrics)
+                .addDocument("")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("it is a piece of a cake.", 1)
+                .addSentence("this is it.", 2)
+                .build();
+
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength"))
+                .addValidatorConfig(new ValidatorConfiguration("DoubledWord"))
+                .setSymbolTable("en").build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build();
+        redPen.check(documents);
+        assertEquals(2, metrics.snapshot().getTimer(Metrics.TOKENIZE).get().getCount());
+    }
+
+    @Test
+    public void testMetricsDisabled() throws RedPenException {
+        Configuration configuration = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength"))
+                .build();
+        RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .build();
+        assertNull(redPen.getMetrics());
+        assertTrue(redPen.getMetricsSnapshot().getTimers().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelism() throws RedPenException {
+        new RedPen.Builder().setParallelism(0);
+    }
+
     private RedPen getRedPenWithSentenceValidator() throws
             RedPenException {
 
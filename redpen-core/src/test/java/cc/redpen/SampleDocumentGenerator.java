@@ -42,9 +42,24 @@ public class SampleDocumentGenerator {
      */
     public static DocumentCollection generateOneFileDocument(String docString,
                                                              DocumentParser.Type type) throws RedPenException {
+        return generateOneFileDocument(docString, type, "en");
+    }
+
+    /**
+     * Given a string, the syntax type and the language, build a DocumentCollection object.
+     * The sentences are tokenized with the tokenizer for the language.
+     *
+     * @param docString input document string
+     * @param type      document syntax: wiki, markdown or plain
+     * @param lang      language of the document (e.g. "en" or "ja")
+     * @return DocumentCollection object
+     */
+    public static DocumentCollection generateOneFileDocument(String docString,
+                                                             DocumentParser.Type type,
+                                                             String lang) throws RedPenException {
         Configuration configuration = new Configuration.Builder()
-                .setSymbolTable("en").build();
-        DocumentCollection.Builder builder = new DocumentCollection.Builder();
+                .setSymbolTable(lang).build();
+        DocumentCollection.Builder builder = new DocumentCollection.Builder(lang);
         DocumentParser parser = DocumentParserFactory.generate(type, configuration, builder);
         InputStream stream = IOUtils.toInputStream(docString);
         parser.generateDocument(stream);
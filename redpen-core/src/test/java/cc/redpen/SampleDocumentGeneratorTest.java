@@ -77,6 +77,15 @@ public class SampleDocumentGeneratorTest {
                 .getParagraph(0).getSentence(0).content);
     }
 
+    @Test
+    public void testGenerateDocumentWithLanguage() throws RedPenException {
+        DocumentCollection doc = SampleDocumentGenerator.generateOneFileDocument(
+                "Gekioko pun pun maru means very very angry.\n", PLAIN, "en");
+        assertEquals(1, doc.size());
+        assertEquals(8, doc.getDocument(0).getSection(0).getParagraph(0)
+                .getSentence(0).getTokens().size());
+    }
+
     @Test(expected = NullPointerException.class)
     public void testInputNullDocument() throws RedPenException {
         SampleDocumentGenerator.generateOneFileDocument(null, MARKDOWN);
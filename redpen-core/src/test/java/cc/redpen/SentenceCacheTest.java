@@ -0,0 +1,244 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.Configuration;
+import cc.redpen.config.ValidatorConfiguration;
+import cc.redpen.distributor.FakeResultDistributor;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Sentence;
+import cc.redpen.tokenizer.RedPenTokenizer;
+import cc.redpen.tokenizer.TokenElement;
+import cc.redpen.tokenizer.WhiteSpaceTokenizer;
+import cc.redpen.validator.ValidationError;
+import cc.redpen.validator.Validator;
+import cc.redpen.validator.ValidatorFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SentenceCacheTest {
+    private static final String LICENSE = "Licensed under the Apache License, Version 2.0 (the License), "
+            + "you may not use this file except in compliance with the License.";
+
+    @Before
+    public void setUp() {
+        Locale.setDefault(Locale.ENGLISH);
+    }
+
+    @Test
+    public void testSameErrorsWithCache() throws RedPenException {
+        SentenceCache cache = new SentenceCache(100);
+        List<ValidationError> expected = createRedPen(null).check(createDocuments(null));
+        List<ValidationError> errors = createRedPen(cache).check(createDocuments(cache));
+
+        assertEquals(describe(expected), describe(errors));
+        assertTrue(cache.getHitCount() > 0);
+        // errors of the repeated sentence are reported on each line
+        assertEquals(4, errors.stream().filter(error -> error.getSentence().get().content.equals(LICENSE)).count());
+    }
+
+    @Test
+    public void testTokensAreShared() {
+        SentenceCache cache = new SentenceCache(100);
+        DocumentCollection documents = new DocumentCollection.Builder(new WhiteSpaceTokenizer())
+                .setSentenceCache(cache)
+                .addDocument("")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("This is a pen.", 0)
+                .addSentence("This is a pen.", 1)
+                .build();
+        List<Sentence> sentences = documents.getDocument(0).getSection(0).getParagraph(0).getSentences();
+        assertEquals(4, sentences.get(0).getTokens().size());
+        assertSame(sentences.get(0).getTokens(), sentences.get(1).getTokens());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testMissesAreTokenizedInBatch() {
+        SentenceCache cache = new SentenceCache(100);
+        List<List<String>> batches = new ArrayList<>();
+        RedPenTokenizer tokenizer = new WhiteSpaceTokenizer() {
+            @Override
+            public List<List<TokenElement>> tokenize(List<String> sentences) {
+                batches.add(new ArrayList<>(sentences));
+                return super.tokenize(sentences);
+            }
+        };
+        cache.tokenize(tokenizer, "This is a pen.");
+        DocumentCollection documents = new DocumentCollection.Builder(tokenizer)
+                .setSentenceCache(cache)
+                .addDocument("")
+                .addSection(0)
+                .addParagraph()
+                .addSentences(Arrays.asList(new Sentence("This is a pen.", 1),
+                        new Sentence("That is a desk.", 1), new Sentence("It is red.", 1)))
+                .build();
+        List<Sentence> sentences = documents.getDocument(0).getSection(0).getParagraph(0).getSentences();
+        assertEquals(3, sentences.get(2).getTokens().size());
+        assertEquals(4, sentences.get(0).getTokens().size());
+        assertEquals(Collections.singletonList(Arrays.asList("That is a desk.", "It is red.")), batches);
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testStatefulValidatorsAreNotContextFree() throws RedPenException {
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en")
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .addValidatorConfig(new ValidatorConfiguration("Contraction"))
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength"))
+                .build();
+        List<ValidatorConfiguration> validatorConfigs = configuration.getValidatorConfigs();
+        assertFalse(ValidatorFactory.getInstance(validatorConfigs.get(0), configuration.getSymbolTable())
+                .isContextFree());
+        assertFalse(ValidatorFactory.getInstance(validatorConfigs.get(1), configuration.getSymbolTable())
+                .isContextFree());
+        assertTrue(ValidatorFactory.getInstance(validatorConfigs.get(2), configuration.getSymbolTable())
+                .isContextFree());
+        // validators opt in to the cache
+        assertFalse(new Validator<Sentence>() {
+            @Override
+            public List<ValidationError> validate(Sentence sentence) {
+                return Collections.emptyList();
+            }
+        }.isContextFree());
+    }
+
+    @Test
+    public void testErrorsAreNotReusedAfterDictionaryReload() throws Exception {
+        File file = File.createTempFile("redpen-invalid-words", ".dat");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "pen\n".getBytes(StandardCharsets.UTF_8));
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en")
+                .addValidatorConfig(new ValidatorConfiguration("InvalidWord").addAttribute("dict", file.getPath()))
+                .build();
+        SentenceCache cache = new SentenceCache(100);
+        try (RedPen redPen = new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setSentenceCache(cache)
+                .build()) {
+            assertEquals(1, redPen.check(createDocument(cache, "This is a pen.")).size());
+
+            Files.write(file.toPath(), "desk\n".getBytes(StandardCharsets.UTF_8));
+            assertTrue(file.setLastModified(file.lastModified() + 2000));
+            // wait for the modification check of the shared dictionary
+            Thread.sleep(1100);
+            assertEquals(0, redPen.check(createDocument(cache, "This is a pen.")).size());
+        }
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        SentenceCache cache = new SentenceCache(2);
+        WhiteSpaceTokenizer tokenizer = new WhiteSpaceTokenizer();
+        cache.tokenize(tokenizer, "a");
+        cache.tokenize(tokenizer, "b");
+        cache.tokenize(tokenizer, "a");
+        cache.tokenize(tokenizer, "c");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHitCount());
+
+        cache.tokenize(tokenizer, "a");
+        assertEquals(2, cache.getHitCount());
+        cache.tokenize(tokenizer, "b");
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testFingerprint() {
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en")
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "50"))
+                .build();
+        Configuration sameConfiguration = new Configuration.Builder().setSymbolTable("en")
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "50"))
+                .build();
+        Configuration otherConfiguration = new Configuration.Builder().setSymbolTable("en")
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "60"))
+                .build();
+        assertEquals(SentenceCache.fingerprint(configuration), SentenceCache.fingerprint(sameConfiguration));
+        assertFalse(SentenceCache.fingerprint(configuration).equals(SentenceCache.fingerprint(otherConfiguration)));
+    }
+
+    private static RedPen createRedPen(SentenceCache cache) throws RedPenException {
+        Configuration configuration = new Configuration.Builder().setSymbolTable("en")
+                .addValidatorConfig(new ValidatorConfiguration("SentenceLength").addAttribute("max_len", "50"))
+                .addValidatorConfig(new ValidatorConfiguration("CommaNumber").addAttribute("max_num", "1"))
+                .addValidatorConfig(new ValidatorConfiguration("SpaceBeginningOfSentence"))
+                .addValidatorConfig(new ValidatorConfiguration("KatakanaSpellCheck"))
+                .build();
+        return new RedPen.Builder()
+                .setConfiguration(configuration)
+                .setResultDistributor(new FakeResultDistributor())
+                .setSentenceCache(cache)
+                .build();
+    }
+
+    private static DocumentCollection createDocuments(SentenceCache cache) {
+        DocumentCollection.Builder builder = new DocumentCollection.Builder().setSentenceCache(cache);
+        for (int i = 0; i < 2; i++) {
+            builder.addDocument("file" + i)
+                    .addSection(0)
+                    .addParagraph()
+                    .addSentence(LICENSE, 1)
+                    .addSentence(" This is a short sentence.", 2)
+                    .addParagraph()
+                    .addSentence(" " + LICENSE, 4 + i)
+                    .addSentence("Document " + i + ", which has a comma, ends here.", 5 + i);
+        }
+        return builder.build();
+    }
+
+    private static DocumentCollection createDocument(SentenceCache cache, String sentence) {
+        return new DocumentCollection.Builder().setSentenceCache(cache)
+                .addDocument("")
+                .addSection(0)
+                .addParagraph()
+                .addSentence(sentence, 1)
+                .build();
+    }
+
+    private static String describe(List<ValidationError> errors) {
+        StringBuilder description = new StringBuilder();
+        for (ValidationError error : errors) {
+            description.append(error.getFileName().orElse("")).append(' ')
+                    .append(error.getLineNumber()).append(' ')
+                    .append(error.getValidatorName()).append(' ')
+                    .append(error.getMessage()).append(' ')
+                    .append(error.getStartOffset()).append(' ')
+                    .append(error.getSentence().get().position).append(' ')
+                    .append(error.getSentence().get().content).append('\n');
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.metrics;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+    @Test
+    public void testRecord() {
+        Metrics metrics = new Metrics();
+        Timer timer = metrics.getTimer("foo");
+        timer.record(100, 1);
+        timer.record(300, 0);
+        timer.record(200, 2);
+
+        TimerSnapshot snapshot = metrics.snapshot().getTimer("foo").get();
+        assertEquals(3, snapshot.getCount());
+        assertEquals(600, snapshot.getTotalNanos());
+        assertEquals(200, snapshot.getMeanNanos());
+        assertEquals(3, snapshot.getErrorCount());
+        assertEquals(300, snapshot.getMaxNanos());
+    }
+
+    @Test
+    public void testSameTimerForSameName() {
+        Metrics metrics = new Metrics();
+        assertTrue(metrics.getTimer("foo") == metrics.getTimer("foo"));
+        assertFalse(metrics.snapshot().getTimer("bar").isPresent());
+    }
+
+    @Test
+    public void testPercentile() {
+        Timer timer = new Metrics().getTimer("foo");
+        for (int i = 1; i <= 1000; i++) {
+            timer.record(i * 1000L);
+        }
+        TimerSnapshot snapshot = timer.snapshot();
+        assertWithin(500000, snapshot.getPercentileNanos(50));
+        assertWithin(900000, snapshot.getPercentileNanos(90));
+        assertWithin(990000, snapshot.getPercentileNanos(99));
+        assertEquals(1000000, snapshot.getPercentileNanos(100));
+        assertWithin(1000, snapshot.getPercentileNanos(0));
+    }
+
+    @Test
+    public void testPercentileWithoutRecord() {
+        assertEquals(0, new Metrics().getTimer("foo").snapshot().getPercentileNanos(50));
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE}) {
+            int bucket = Timer.bucketOf(value);
+            assertTrue(value <= Timer.upperBoundOf(bucket));
+            assertTrue(bucket == 0 || Timer.upperBoundOf(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    public void testSnapshotIsSortedByTotalTime() {
+        Metrics metrics = new Metrics();
+        metrics.getTimer("fast").record(10);
+        metrics.getTimer("slow").record(1000);
+        List<TimerSnapshot> timers = metrics.snapshot().getTimers();
+        assertEquals("slow", timers.get(0).getName());
+        assertEquals("fast", timers.get(1).getName());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        // the histogram buckets are accurate within 1/8
+        assertTrue(expected + " vs " + actual, Math.abs(actual - expected) <= expected / Timer.SUB_BUCKETS);
+    }
+}
@@ -1,8 +1,16 @@
 package cc.redpen.model;
 
+import cc.redpen.tokenizer.JapaneseTokenizer;
+import cc.redpen.tokenizer.WhiteSpaceTokenizer;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class DocumentCollectionTest {
     @Test
@@ -38,6 +46,18 @@ public class DocumentCollectionTest {
         assertEquals(0, doc.getDocument(0).getNumberOfSections());
     }
 
+    @Test
+    public void testBuildAndReset() {
+        DocumentCollection.Builder builder = new DocumentCollection.Builder();
+        DocumentCollection first = builder.addDocument("doc1").buildAndReset();
+        DocumentCollection second = builder.addDocument("doc2").buildAndReset();
+        assertEquals(1, first.size());
+        assertEquals("doc1", first.getDocument(0).getFileName());
+        assertEquals(1, second.size());
+        assertEquals("doc2", second.getDocument(0).getFileName());
+        assertEquals(0, builder.build().size());
+    }
+
     @Test
     public void testDocumentCollectionWithMultipleDocument() {
         DocumentCollection doc = new DocumentCollection.Builder()
@@ -133,7 +153,44 @@ public class DocumentCollectionTest {
                 .build();
         assertEquals(1, doc.getNumberOfDocuments());
         assertEquals(1, doc.getDocument(0).getNumberOfSections());
-        assertEquals(4, doc.getDocument(0).getSection(0).getParagraph(0).getSentence(0).tokens.size());
+        assertEquals(4, doc.getDocument(0).getSection(0).getParagraph(0).getSentence(0).getTokens().size());
+    }
+
+    @Test
+    public void testSentenceIsTokenizedOnDemand() {
+        AtomicInteger calls = new AtomicInteger();
+        WhiteSpaceTokenizer whiteSpaceTokenizer = new WhiteSpaceTokenizer();
+        DocumentCollection doc = new DocumentCollection
+                .Builder(content -> {
+                    calls.incrementAndGet();
+                    return whiteSpaceTokenizer.tokenize(content);
+                })
+                .addDocument("foobar")
+                .addSection(0)
+                .addParagraph()
+                .addSentence("This is a foobar.", 0)
+                .build();
+        Sentence sentence = doc.getDocument(0).getSection(0).getParagraph(0).getSentence(0);
+        assertEquals(0, calls.get());
+        assertEquals(4, sentence.getTokens().size());
+        assertSame(sentence.getTokens(), sentence.getTokens());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testSentencesAreTokenizedInBatch() {
+        DocumentCollection doc = new DocumentCollection
+                .Builder("ja").addDocument("今日")
+                .addSection(0)
+                .addParagraph()
+                .addSentences(Arrays.asList(new Sentence("今日は晴天だ。", 0), new Sentence("明日も晴天だ。", 0)))
+                .build();
+        Paragraph paragraph = doc.getDocument(0).getSection(0).getParagraph(0);
+        assertEquals(2, paragraph.getNumberOfSentences());
+        assertTrue(paragraph.getSentence(0).isFirstSentence);
+        assertFalse(paragraph.getSentence(1).isFirstSentence);
+        assertEquals(JapaneseTokenizer.getInstance().tokenize("明日も晴天だ。").size(),
+                paragraph.getSentence(1).getTokens().size());
     }
 
     @Test
@@ -147,7 +204,7 @@ public class DocumentCollectionTest {
                 .build();
         assertEquals(1, doc.getNumberOfDocuments());
         assertEquals(1, doc.getDocument(0).getNumberOfSections());
-        assertEquals(5, doc.getDocument(0).getSection(0).getParagraph(0).getSentence(0).tokens.size());
+        assertEquals(5, doc.getDocument(0).getSection(0).getParagraph(0).getSentence(0).getTokens().size());
     }
 
     @Test(expected = IllegalStateException.class)
@@ -0,0 +1,298 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.model.*;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static cc.redpen.parser.DocumentParser.Type.COMMONMARK;
+import static cc.redpen.parser.DocumentParser.Type.MARKDOWN;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Differential tests of the CommonMark backend against the pegdown backend.
+ */
+public class CommonMarkParserTest {
+    private static final String[] WORDS = {
+            "This", "is", "a", "pen.", "text", "foo", "bar.", "end.", "日本語", "です。"};
+
+    @Test
+    public void testBasicDocument() throws RedPenException {
+        String sampleText = "";
+        sampleText += "# About Gekioko.\n";
+        sampleText += "Gekioko pun pun maru means very very angry.\n";
+        sampleText += "\n";
+        sampleText += "The word also have posive meaning.\n";
+        sampleText += "## About Gunma.\n";
+        sampleText += "\n";
+        sampleText += "Gunma is located at west of Saitama.\n";
+        sampleText += "\n";
+        sampleText += "* Features\n";
+        sampleText += "    * Main City: Gumma City\n";
+        sampleText += "    * Capical: 200 Millon\n";
+        sampleText += "* Location\n";
+        sampleText += "    * Japan\n";
+        sampleText += "\n";
+        sampleText += "The word also have posive meaning. Hower it is a bit wired.";
+        assertSameAsPegdown(sampleText, "en");
+    }
+
+    @Test
+    public void testInlineElements() throws RedPenException {
+        String sampleText = "";
+        sampleText += "Setext *header*\n";
+        sampleText += "======\n";
+        sampleText += "\n";
+        sampleText += "This is a pen. That is a\n";
+        sampleText += "pencil. See [redpen](http://redpen.cc) and http://example.com now.\n";
+        sampleText += "Some `code` with **strong** and _emphasis_.  \n";
+        sampleText += "Mail <user@example.com> and ![image](image.png) are ignored.\n";
+        sampleText += "\n";
+        sampleText += "1. first [item](http://example.com/1 \"title\").\n";
+        sampleText += "2. second item\n";
+        sampleText += "\n";
+        sampleText += "```\n";
+        sampleText += "code block.\n";
+        sampleText += "```\n";
+        sampleText += "\n";
+        sampleText += "> quoted text. more\n";
+        assertSameAsPegdown(sampleText, "en");
+    }
+
+    @Test
+    public void testJapaneseDocument() throws RedPenException {
+        String sampleText = "";
+        sampleText += "# 群馬について\n";
+        sampleText += "群馬は `埼玉` の西にあります。群馬の名産は\n";
+        sampleText += "こんにゃくです。\n";
+        sampleText += "\n";
+        sampleText += "- 前橋市。高崎市\n";
+        sampleText += "    - [太田市](http://example.com)\n";
+        assertSameAsPegdown(sampleText, "ja");
+    }
+
+    @Test
+    public void testRandomDocuments() throws RedPenException {
+        Random random = new Random(1);
+        for (int i = 0; i < 300; i++) {
+            assertSameAsPegdown(randomDocument(random), i % 2 == 0 ? "en" : "ja");
+        }
+    }
+
+    @Test
+    public void testLooseListFollowsCommonMark() throws RedPenException {
+        String sampleText = "";
+        sampleText += "- first item.\n";
+        sampleText += "\n";
+        sampleText += "- second item.\n";
+
+        // list items separated by blank lines are paragraphs
+        Document doc = generate(COMMONMARK, sampleText, "en");
+        Section section = doc.getSection(0);
+        assertEquals(2, section.getNumberOfParagraphs());
+        assertEquals("second item.", section.getParagraph(1).getSentence(0).content);
+        assertEquals(2, section.getParagraph(1).getSentence(0).position);
+    }
+
+    @Test
+    public void testLinkedImage() throws RedPenException {
+        // a badge at the beginning of a paragraph
+        Document doc = generate(COMMONMARK, "[![alt](img.png)](http://x.com) after.\n", "en");
+        Sentence sentence = doc.getSection(0).getParagraph(0).getSentence(0);
+        assertEquals("after.", sentence.content.trim());
+        assertEquals(Collections.singletonList("http://x.com"), sentence.links);
+
+        // the url is not attached to the sentence before the badge
+        doc = generate(COMMONMARK, "Before. [![alt](img.png)](http://x.com) after\n", "en");
+        Paragraph paragraph = doc.getSection(0).getParagraph(0);
+        assertEquals(2, paragraph.getNumberOfSentences());
+        assertEquals(Collections.emptyList(), paragraph.getSentence(0).links);
+        assertEquals(Collections.singletonList("http://x.com"), paragraph.getSentence(1).links);
+    }
+
+    @Test
+    public void testImageInsideLink() throws RedPenException {
+        Document doc = generate(COMMONMARK, "See [![alt](img.png) the site](http://x.com) now.\n", "en");
+        Sentence sentence = doc.getSection(0).getParagraph(0).getSentence(0);
+        assertEquals("See  the site now.", sentence.content);
+        assertEquals(Collections.singletonList("http://x.com"), sentence.links);
+    }
+
+    @Test
+    public void testLongDocument() throws RedPenException {
+        StringBuilder sampleText = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sampleText.append("[This *is the [sentence `in line ").append(i).append(".\n\n");
+        }
+        Document doc = generate(COMMONMARK, sampleText.toString(), "en");
+        Section section = doc.getSection(0);
+        assertEquals(5000, section.getNumberOfParagraphs());
+        Sentence sentence = section.getParagraph(4999).getSentence(0);
+        assertEquals("[This *is the [sentence `in line 4999.", sentence.content);
+        assertEquals(9998, sentence.position);
+    }
+
+    private static void assertSameAsPegdown(String sampleText, String lang) throws RedPenException {
+        assertEquals(sampleText,
+                toString(generate(MARKDOWN, sampleText, lang)),
+                toString(generate(COMMONMARK, sampleText, lang)));
+    }
+
+    private static Document generate(DocumentParser.Type type, String sampleText, String lang)
+            throws RedPenException {
+        Configuration configuration = new Configuration.Builder().setSymbolTable(lang).build();
+        DocumentParser parser = DocumentParserFactory.generate(type, configuration,
+                new DocumentCollection.Builder());
+        return parser.generateDocument(
+                new ByteArrayInputStream(sampleText.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String toString(Document document) {
+        StringBuilder builder = new StringBuilder();
+        for (Section section : document) {
+            builder.append("section ").append(section.getLevel());
+            appendSentences(builder, section.getHeaderContents());
+            for (Paragraph paragraph : section.getParagraphs()) {
+                builder.append("\n paragraph");
+                appendSentences(builder, paragraph.getSentences());
+            }
+            for (ListBlock listBlock : section.getListBlocks()) {
+                builder.append("\n list");
+                for (ListElement element : listBlock.getListElements()) {
+                    builder.append("\n  element ").append(element.getLevel());
+                    appendSentences(builder, element.getSentences());
+                }
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static void appendSentences(StringBuilder builder, List<Sentence> sentences) {
+        for (Sentence sentence : sentences) {
+            builder.append(" [").append(sentence.content)
+                    .append("@").append(sentence.position)
+                    .append(":").append(sentence.startOffset)
+                    .append("-").append(sentence.endOffset)
+                    .append(sentence.links).append("]");
+        }
+    }
+
+    /**
+     * Generate a document in the syntax both backends parse in the same way;
+     * nested lists are indented by four spaces, lists are tight and hard line
+     * breaks are not at the end of paragraphs.
+     */
+    private static String randomDocument(Random random) {
+        StringBuilder text = new StringBuilder();
+        boolean list = false;
+        int blocks = 1 + random.nextInt(6);
+        for (int i = 0; i < blocks; i++) {
+            int kind = random.nextInt(7);
+            if (kind == 4 && list) {
+                kind = 2;
+            }
+            list = kind == 4;
+            switch (kind) {
+                case 0:
+                    text.append("####".substring(0, 1 + random.nextInt(4))).append(' ')
+                            .append(randomInline(random)).append('\n');
+                    break;
+                case 1:
+                    text.append(randomInline(random)).append('\n')
+                            .append(random.nextBoolean() ? "=====" : "-----").append('\n');
+                    break;
+                case 4:
+                    boolean ordered = random.nextBoolean();
+                    int items = 1 + random.nextInt(4);
+                    for (int j = 0; j < items; j++) {
+                        text.append(ordered ? (j + 1) + ". " : "- ").append(randomInline(random)).append('\n');
+                        if (random.nextInt(4) == 0) {
+                            text.append("    - ").append(randomInline(random)).append('\n');
+                        }
+                    }
+                    break;
+                case 5:
+                    text.append("```\n").append(randomInline(random)).append("\n```\n");
+                    break;
+                case 6:
+                    text.append("> ").append(randomInline(random)).append('\n');
+                    break;
+                default:
+                    int lines = 1 + random.nextInt(3);
+                    for (int j = 0; j < lines; j++) {
+                        text.append(randomInline(random));
+                        text.append(j < lines - 1 && random.nextInt(4) == 0 ? "  \n" : "\n");
+                    }
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String randomInline(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = 1 + random.nextInt(8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            switch (random.nextInt(24)) {
+                case 0:
+                    text.append('*').append(word).append('*');
+                    break;
+                case 1:
+                    text.append("**").append(word).append("**");
+                    break;
+                case 2:
+                    text.append('_').append(word).append('_');
+                    break;
+                case 3:
+                    text.append('`').append(word).append('`');
+                    break;
+                case 4:
+                    text.append('[').append(word).append("](http://example.com/").append(i).append(')');
+                    break;
+                case 5:
+                    text.append('[').append(word).append("](http://example.com/ \"title\")");
+                    break;
+                case 6:
+                    text.append("http://example.com/").append(word);
+                    break;
+                case 7:
+                    text.append("<user@example.com>");
+                    break;
+                case 8:
+                    text.append("![").append(word).append("](image.png)");
+                    break;
+                default:
+                    text.append(word);
+            }
+        }
+        return text.toString();
+    }
+}
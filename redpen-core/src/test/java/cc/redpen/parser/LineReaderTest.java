@@ -0,0 +1,158 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.parser;
+
+import cc.redpen.RedPenException;
+import cc.redpen.config.Configuration;
+import cc.redpen.model.Document;
+import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Sentence;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LineReaderTest {
+
+    @Test
+    public void testLineTerminators() throws IOException {
+        LineReader reader = read("first\nsecond\r\nthird\r\rfifth", StandardCharsets.UTF_8);
+        assertEquals("first", reader.readLine().toString());
+        assertEquals(0, reader.getLineOffset());
+        assertEquals("second", reader.readLine().toString());
+        assertEquals(6, reader.getLineOffset());
+        assertEquals("third", reader.readLine().toString());
+        assertEquals(14, reader.getLineOffset());
+        assertEquals("", reader.readLine().toString());
+        assertEquals("fifth", reader.readLine().toString());
+        assertEquals(21, reader.getLineOffset());
+        assertNull(reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        assertNull(read("", StandardCharsets.UTF_8).readLine());
+        LineReader reader = read("\n", StandardCharsets.UTF_8);
+        assertEquals("", reader.readLine().toString());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    public void testSameAsBufferedReader() throws IOException {
+        String text = randomText(new Random(14), 200000);
+        LineReader reader = read(text, StandardCharsets.UTF_8);
+        assertSameLines(text, reader);
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        String text = randomText(new Random(7), (int) LineReader.MAP_THRESHOLD);
+        Path file = Files.createTempFile("redpen", ".txt");
+        try {
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+            assertSameLines(text, new LineReader(StandardCharsets.UTF_8).open(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReuseReader() throws IOException {
+        LineReader reader = new LineReader(StandardCharsets.UTF_8);
+        reader.open(new ByteArrayInputStream("foo\nbar".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("foo", reader.readLine().toString());
+        reader.open(new ByteArrayInputStream("baz\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("baz", reader.readLine().toString());
+        assertEquals(0, reader.getLineOffset());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    public void testShiftJis() throws IOException {
+        Charset shiftJis = Charset.forName("Shift_JIS");
+        LineReader reader = read("これは日本語です。\n二行目", shiftJis);
+        assertEquals("これは日本語です。", reader.readLine().toString());
+        assertEquals("二行目", reader.readLine().toString());
+        assertEquals(10, reader.getLineOffset());
+    }
+
+    @Test
+    public void testParseEucJpDocument() throws RedPenException {
+        Charset eucJp = Charset.forName("EUC-JP");
+        Configuration configuration = new Configuration.Builder()
+                .setSymbolTable("ja")
+                .setInputCharset(eucJp)
+                .build();
+        DocumentParser parser = DocumentParserFactory.generate(DocumentParser.Type.PLAIN,
+                configuration, new DocumentCollection.Builder());
+        Document document = parser.generateDocument(
+                new ByteArrayInputStream("今日は晴天だ。\r\n明日は雨だ。".getBytes(eucJp)));
+        Sentence first = document.getLastSection().getParagraph(0).getSentence(0);
+        Sentence second = document.getLastSection().getParagraph(0).getSentence(1);
+        assertEquals("今日は晴天だ。", first.content);
+        assertEquals("明日は雨だ。", second.content);
+        assertEquals(9, second.startOffset);
+        assertEquals(15, second.endOffset);
+    }
+
+    private static LineReader read(String text, Charset charset) {
+        return new LineReader(charset).open(new ByteArrayInputStream(text.getBytes(charset)));
+    }
+
+    private static void assertSameLines(String text, LineReader reader) throws IOException {
+        BufferedReader expected = new BufferedReader(new StringReader(text));
+        String line;
+        int offset = 0;
+        while ((line = expected.readLine()) != null) {
+            CharSequence actual = reader.readLine();
+            assertEquals(line, actual.toString());
+            assertEquals(offset, reader.getLineOffset());
+            offset += line.length();
+            offset += text.startsWith("\r\n", offset) ? 2 : 1;
+        }
+        assertNull(reader.readLine());
+    }
+
+    private static String randomText(Random random, int length) {
+        String[] pieces = {"a", "b", "日本", "𠮷", " ", ".", "\n", "\r", "\r\n", "\n\n"};
+        StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            // sometimes make a line longer than the buffers
+            int repeat = random.nextInt(100) == 0 ? 20000 : 1;
+            String piece = pieces[random.nextInt(pieces.length)];
+            for (int i = 0; i < repeat && !piece.contains("\n") && !piece.contains("\r"); i++) {
+                builder.append(piece);
+            }
+            builder.append(piece);
+        }
+        return builder.toString();
+    }
+}
@@ -460,6 +460,40 @@ public class MarkdownParserTest {
     }
 
 
+    @Test
+    public void testSentenceOffsets() {
+        String sampleText = "# About Gekioko.\n";
+        sampleText += "\n";
+        sampleText += "Gekioko pun pun maru means very very angry. It is\n";
+        sampleText += "a **slang** word.\n";
+        Document doc = createFileContent(sampleText);
+
+        Sentence header = doc.getSection(1).getHeaderContents().get(0);
+        assertEquals("About Gekioko.", sampleText.substring(header.startOffset, header.endOffset));
+
+        Paragraph paragraph = doc.getSection(1).getParagraph(0);
+        Sentence first = paragraph.getSentence(0);
+        assertEquals(first.content, sampleText.substring(first.startOffset, first.endOffset));
+        Sentence second = paragraph.getSentence(1);
+        assertEquals(" It is\na **slang** word.", sampleText.substring(second.startOffset, second.endOffset));
+    }
+
+    @Test
+    public void testLineNumbersInLongDocument() {
+        StringBuilder sampleText = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sampleText.append("This is the sentence in line ").append(i).append(".\n\n");
+        }
+        Document doc = createFileContent(sampleText.toString());
+        Section section = doc.getSection(0);
+        assertEquals(1000, section.getNumberOfParagraphs());
+        for (int i = 0; i < 1000; i++) {
+            Sentence sentence = section.getParagraph(i).getSentence(0);
+            assertEquals("This is the sentence in line " + i + ".", sentence.content);
+            assertEquals(i * 2, sentence.position);
+        }
+    }
+
     private DocumentParser loadParser(Configuration configuration) {
         DocumentParser parser = null;
         try {
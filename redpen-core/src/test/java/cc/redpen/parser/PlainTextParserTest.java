@@ -24,6 +24,7 @@ import cc.redpen.model.Document;
 import cc.redpen.model.DocumentCollection;
 import cc.redpen.model.Paragraph;
 import cc.redpen.model.Section;
+import cc.redpen.model.Sentence;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -184,4 +185,43 @@ public class PlainTextParserTest {
     public void testNullFileName() throws Exception {
         parser.generateDocument("no_exist_files");
     }
+
+    @Test
+    public void testSentenceOffsets() {
+        String sampleText = "This is a pen. That is\n";
+        sampleText += "a orange.\n";
+        sampleText += "\n";
+        sampleText += "Happy life.\n";
+        Document doc = generateDocument(sampleText);
+        List<Sentence> sentences = new ArrayList<>();
+        for (Paragraph paragraph : doc.getLastSection().getParagraphs()) {
+            sentences.addAll(paragraph.getSentences());
+        }
+        assertEquals(3, sentences.size());
+        assertEquals("This is a pen.", sentences.get(0).content);
+        assertEquals(0, sentences.get(0).startOffset);
+        assertEquals(14, sentences.get(0).endOffset);
+        assertEquals(" That isa orange.", sentences.get(1).content);
+        assertEquals(14, sentences.get(1).startOffset);
+        assertEquals(32, sentences.get(1).endOffset);
+        assertEquals("Happy life.", sentences.get(2).content);
+        assertEquals(34, sentences.get(2).startOffset);
+        assertEquals(45, sentences.get(2).endOffset);
+    }
+
+    @Test
+    public void testSentenceOffsetsInLongLine() {
+        StringBuilder sampleText = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sampleText.append("This is sentence ").append(i).append(". ");
+        }
+        sampleText.append("Unfinished");
+        Document doc = generateDocument(sampleText.toString());
+        List<Sentence> sentences = doc.getLastSection().getParagraph(0).getSentences();
+        assertEquals(5001, sentences.size());
+        for (Sentence sentence : sentences) {
+            assertEquals(sentence.content,
+                    sampleText.substring(sentence.startOffset, sentence.endOffset));
+        }
+    }
 }
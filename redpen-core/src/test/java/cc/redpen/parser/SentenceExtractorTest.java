@@ -50,6 +50,23 @@ public class SentenceExtractorTest {
         assertEquals("", remain);
     }
 
+    @Test
+    public void testExtractRange() {
+        SentenceExtractor extractor = new SentenceExtractor();
+        List<Sentence> outputSentences = new ArrayList<>();
+        StringBuilder text = new StringBuilder("garbage. this is a pen. that is a paper. and");
+        int rest = extractor.extract(text, 8, text.length(), outputSentences, 3);
+        assertEquals(2, outputSentences.size());
+        assertEquals(" this is a pen.", outputSentences.get(0).content);
+        assertEquals(8, outputSentences.get(0).startOffset);
+        assertEquals(23, outputSentences.get(0).endOffset);
+        assertEquals(" that is a paper.", outputSentences.get(1).content);
+        assertEquals(23, outputSentences.get(1).startOffset);
+        assertEquals(40, outputSentences.get(1).endOffset);
+        assertEquals(3, outputSentences.get(1).position);
+        assertEquals(" and", text.substring(rest));
+    }
+
     @Test
     public void testTwoSentencesWithDifferentStopCharacters() {
         SentenceExtractor extractor = new SentenceExtractor();
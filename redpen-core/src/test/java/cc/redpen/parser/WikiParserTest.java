@@ -447,6 +447,28 @@ public class WikiParserTest {
         assertEquals("This is a good day.", firstParagraph.getSentence(0).content);
     }
 
+    @Test
+    public void testDocumentWithMixedInlineTags() {
+        String sampleText = "This **is** __a__ --very-- //good// day, --not** bad.\n";
+        Document doc = createFileContent(sampleText);
+        Section firstSections = doc.getSection(0);
+        Paragraph firstParagraph = firstSections.getParagraph(0);
+        assertEquals("This is a very good day, --not** bad.", firstParagraph.getSentence(0).content);
+    }
+
+    @Test
+    public void testDocumentWithCommentAndInvalidHeader() {
+        String sampleText = "[!--\nh1. hidden header.\n--]\nh7. not a header.\n[!-- not a comment.\n";
+        Document doc = createFileContent(sampleText);
+        assertEquals(1, doc.getNumberOfSections());
+        Paragraph firstParagraph = doc.getSection(0).getParagraph(0);
+        assertEquals(3, firstParagraph.getNumberOfSentences());
+        assertEquals("h7.", firstParagraph.getSentence(0).content);
+        assertEquals(" not a header.", firstParagraph.getSentence(1).content);
+        assertEquals(3, firstParagraph.getSentence(1).position);
+        assertEquals("[!-- not a comment.", firstParagraph.getSentence(2).content);
+    }
+
     @Test
     public void testDocumentWithHeaderCotainingMultipleSentences()
             throws UnsupportedEncodingException {
@@ -557,6 +579,32 @@ public class WikiParserTest {
         assertEquals(2, firstParagraph.getNumberOfSentences());
     }
 
+    @Test
+    public void testSentenceOffsets() {
+        String sampleText = "h1. About Gekioko.\n";
+        sampleText += "Gekioko pun pun maru means very very angry. It is a\n";
+        sampleText += "[[slang|http://gekioko.jp]].\n";
+        sampleText += "- Tokyu\n";
+        sampleText += "Last sentence\n";
+        Document doc = createFileContent(sampleText);
+
+        Sentence header = doc.getSection(1).getHeaderContents().get(0);
+        assertEquals("About Gekioko.", sampleText.substring(header.startOffset, header.endOffset));
+
+        Paragraph paragraph = doc.getSection(1).getParagraph(0);
+        Sentence first = paragraph.getSentence(0);
+        assertEquals(first.content, sampleText.substring(first.startOffset, first.endOffset));
+        Sentence second = paragraph.getSentence(1);
+        assertEquals(" It is aslang.", second.content);
+        assertEquals(" It is a\n[[slang|http://gekioko.jp]].",
+                sampleText.substring(second.startOffset, second.endOffset));
+        Sentence last = paragraph.getSentence(2);
+        assertEquals("Last sentence", sampleText.substring(last.startOffset, last.endOffset));
+
+        Sentence listElement = doc.getSection(1).getListBlock(0).getListElement(0).getSentence(0);
+        assertEquals("Tokyu", sampleText.substring(listElement.startOffset, listElement.endOffset));
+    }
+
     private DocumentParser loadParser(Configuration configuration) {
         DocumentParser parser = null;
         try {
@@ -0,0 +1,75 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.tokenizer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CompactTokenListTest {
+    @Test
+    public void testTokenView() {
+        FeatureTable features = FeatureTable.getInstance();
+        int noun = features.intern("名詞,一般", new String[]{"名詞", "一般"});
+        CompactTokenList tokens = new CompactTokenList("今日も晴天", 1);
+        tokens.append("今日", 0, noun);
+        tokens.append("も", 2, FeatureTable.EMPTY);
+        tokens.append("晴天", 3, noun);
+
+        assertEquals(3, tokens.size());
+        assertEquals("晴天", tokens.get(2).getSurface());
+        assertEquals(Arrays.asList("名詞", "一般"), tokens.get(2).getTags());
+        assertEquals(0, tokens.get(1).getTags().size());
+        assertEquals(new TokenElement("今日", Arrays.asList("名詞", "一般")), tokens.get(0));
+        assertEquals(new TokenElement("今日", Arrays.asList("名詞", "一般")).hashCode(), tokens.get(0).hashCode());
+        // the features are decoded once and shared by the tokens
+        assertSame(tokens.get(0).getTags(), tokens.get(2).getTags());
+    }
+
+    @Test
+    public void testInternSameFeatures() {
+        FeatureTable features = new FeatureTable();
+        int id = features.intern("a,b", new String[]{"a", "b"});
+        assertEquals(id, features.find("a,b"));
+        assertEquals(id, features.intern("a,b", new String[]{"a", "b"}));
+        assertEquals(-1, features.find("a,c"));
+        assertEquals(FeatureTable.EMPTY, features.find(""));
+        for (int i = 0; i < 100; i++) {
+            features.intern("key" + i, new String[]{"", String.valueOf(i)});
+        }
+        assertEquals(102, features.size());
+        assertEquals(Arrays.asList("", "99"), features.get(features.find("key99")));
+    }
+
+    @Test
+    public void testSurfaceNotInText() {
+        CompactTokenList tokens = new CompactTokenList("ｱｲｳ", 1);
+        tokens.append("アイウ", 0, FeatureTable.EMPTY);
+        assertEquals("アイウ", tokens.get(0).getSurface());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        List<TokenElement> tokens = new CompactTokenList("foo", 1);
+        tokens.add(new TokenElement("foo"));
+    }
+}
@@ -19,9 +19,15 @@ package cc.redpen.tokenizer;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class JapaneseTokenizerTest {
     @Test
@@ -47,4 +53,47 @@ public class JapaneseTokenizerTest {
         List<TokenElement> tokens = tokenizer.tokenize("");
         assertEquals(0, tokens.size());
     }
+
+    @Test
+    public void testTokenizeBatch() {
+        JapaneseTokenizer tokenizer = JapaneseTokenizer.getInstance();
+        List<String> sentences = Arrays.asList("今日も晴天だ。", "明日は、雨だ。", "", "見出し", "そして晴れる。");
+        List<List<TokenElement>> tokens = tokenizer.tokenize(sentences);
+        assertEquals(sentences.size(), tokens.size());
+        for (int i = 0; i < sentences.size(); i++) {
+            assertEquals(describe(tokenizer.tokenize(sentences.get(i))), describe(tokens.get(i)));
+        }
+    }
+
+    @Test
+    public void testSharedInstance() {
+        assertSame(JapaneseTokenizer.getInstance(), JapaneseTokenizer.getInstance());
+    }
+
+    @Test
+    public void testTokenizeInParallel() throws Exception {
+        JapaneseTokenizer tokenizer = JapaneseTokenizer.getInstance();
+        String sentence = "今日も晴天だ。";
+        String expected = describe(tokenizer.tokenize(sentence));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> describe(tokenizer.tokenize(sentence))));
+            }
+            for (Future<String> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String describe(List<TokenElement> tokens) {
+        StringBuilder builder = new StringBuilder();
+        for (TokenElement token : tokens) {
+            builder.append(token.getSurface()).append(token.getTags()).append('|');
+        }
+        return builder.toString();
+    }
 }
@@ -0,0 +1,119 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.tokenizer;
+
+import cc.redpen.config.Configuration;
+import cc.redpen.config.SymbolTable;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TokenizerRegistryTest {
+    @Test
+    public void testBundledTokenizers() {
+        TokenizerRegistry registry = TokenizerRegistry.getInstance();
+        assertTrue(registry.getNames().containsAll(Arrays.asList("WhiteSpace", "Japanese", "NGram")));
+        assertTrue(registry.get("WhiteSpace") instanceof WhiteSpaceTokenizer);
+        assertSame(registry.get("Japanese"), registry.get(JapaneseTokenizer.class.getName()));
+        assertTrue(registry.contains("NGram"));
+        assertFalse(registry.contains("NoSuch"));
+    }
+
+    @Test
+    public void testSharedInstance() {
+        TokenizerRegistry registry = TokenizerRegistry.getInstance();
+        assertSame(registry.get("NGram"), registry.get("NGram"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownTokenizer() {
+        TokenizerRegistry.getInstance().get("NoSuch");
+    }
+
+    @Test
+    public void testSelectBySymbolTable() {
+        TokenizerRegistry registry = TokenizerRegistry.getInstance();
+        SymbolTable japanese = new Configuration.Builder().setSymbolTable("ja").build().getSymbolTable();
+        assertSame(registry.get("Japanese"), registry.getTokenizer(japanese));
+        SymbolTable english = new Configuration.Builder().setSymbolTable("en").build().getSymbolTable();
+        assertSame(registry.get("WhiteSpace"), registry.getTokenizer(english));
+        SymbolTable ngram = new Configuration.Builder().setSymbolTable("ja").setTokenizer("NGram")
+                .build().getSymbolTable();
+        assertSame(registry.get("NGram"), registry.getTokenizer(ngram));
+    }
+
+    @Test
+    public void testPlugin() {
+        List<RedPenTokenizer> plugins = Collections.singletonList(new FakeTokenizer());
+        TokenizerRegistry registry = new TokenizerRegistry(plugins);
+        assertSame(plugins.get(0), registry.get("Fake"));
+        assertTrue(registry.get("WhiteSpace") instanceof WhiteSpaceTokenizer);
+    }
+
+    @Test
+    public void testBrokenPluginIsSkipped() {
+        RedPenTokenizer fake = new FakeTokenizer();
+        Iterable<RedPenTokenizer> plugins = () -> new Iterator<RedPenTokenizer>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < 2;
+            }
+
+            @Override
+            public RedPenTokenizer next() {
+                if (index++ == 0) {
+                    throw new ServiceConfigurationError("Provider not found");
+                }
+                return fake;
+            }
+        };
+        TokenizerRegistry registry = new TokenizerRegistry(plugins);
+        assertSame(fake, registry.get("Fake"));
+        assertSame(JapaneseTokenizer.getInstance(), registry.get("Japanese"));
+    }
+
+    @Test
+    public void testNGramTokenizer() {
+        List<TokenElement> tokens = new NGramTokenizer().tokenize("中文分词，好。");
+        assertEquals(4, tokens.size());
+        assertEquals("中文", tokens.get(0).getSurface());
+        assertEquals("文分", tokens.get(1).getSurface());
+        assertEquals("分词", tokens.get(2).getSurface());
+        assertEquals("好", tokens.get(3).getSurface());
+        assertEquals(5, tokens.get(3).getStartOffset());
+        assertEquals(0, new NGramTokenizer(3).tokenize("。 ").size());
+    }
+
+    private static class FakeTokenizer implements RedPenTokenizer {
+        @Override
+        public List<TokenElement> tokenize(String sentence) {
+            return Collections.singletonList(new TokenElement(sentence));
+        }
+    }
+}
@@ -35,7 +35,47 @@ public class WhiteSpaceTokenizerTest {
         assertEquals(0, results.get(1).getTags().size());
         assertEquals("a", results.get(2).getSurface());
         assertEquals(0, results.get(2).getTags().size());
-        assertEquals("pen.", results.get(3).getSurface());
+        assertEquals("pen", results.get(3).getSurface());
         assertEquals(0, results.get(3).getTags().size());
     }
+
+    @Test
+    public void testTokenizeWithTabsAndRepeatedSpaces() {
+        RedPenTokenizer tokenizer = new WhiteSpaceTokenizer();
+        List<TokenElement> results = tokenizer.tokenize("  this\tis   a\u00a0pen ");
+        assertEquals(4, results.size());
+        assertEquals("this", results.get(0).getSurface());
+        assertEquals("is", results.get(1).getSurface());
+        assertEquals("a", results.get(2).getSurface());
+        assertEquals("pen", results.get(3).getSurface());
+    }
+
+    @Test
+    public void testTokenizePunctuation() {
+        RedPenTokenizer tokenizer = new WhiteSpaceTokenizer();
+        List<TokenElement> results = tokenizer.tokenize("\"Don't (e.g. C++), ... well-known!\"");
+        assertEquals(4, results.size());
+        assertEquals("Don't", results.get(0).getSurface());
+        assertEquals("e.g", results.get(1).getSurface());
+        assertEquals("C++", results.get(2).getSurface());
+        assertEquals("well-known", results.get(3).getSurface());
+    }
+
+    @Test
+    public void testOffsets() {
+        RedPenTokenizer tokenizer = new WhiteSpaceTokenizer();
+        String content = "this is\ta pen.";
+        for (TokenElement token : tokenizer.tokenize(content)) {
+            assertEquals(token.getSurface(), content.substring(token.getStartOffset(), token.getEndOffset()));
+        }
+        assertEquals(10, tokenizer.tokenize(content).get(3).getStartOffset());
+        assertEquals(13, tokenizer.tokenize(content).get(3).getEndOffset());
+    }
+
+    @Test
+    public void testTokenizeVoid() {
+        RedPenTokenizer tokenizer = new WhiteSpaceTokenizer();
+        assertEquals(0, tokenizer.tokenize("").size());
+        assertEquals(0, tokenizer.tokenize(" \t ").size());
+    }
 }
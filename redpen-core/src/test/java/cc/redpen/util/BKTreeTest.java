@@ -0,0 +1,84 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BKTreeTest {
+    @Test
+    public void testSearch() {
+        BKTree tree = new BKTree(new LevenshteinDistance()::distance);
+        for (String word : Arrays.asList("インデックス", "フレーズ", "アナライザ", "インデクサ")) {
+            assertTrue(tree.add(word));
+        }
+        assertFalse(tree.add("フレーズ"));
+        assertEquals(4, tree.size());
+        assertEquals(Arrays.asList("インデックス"), tree.search("インデックス", 0));
+        assertEquals(Arrays.asList("インデックス", "インデクサ"), tree.search("インデクス", 1));
+        assertTrue(tree.search("カタカナ", 1).isEmpty());
+    }
+
+    @Test
+    public void testSearchOnEmptyTree() {
+        BKTree tree = new BKTree(new LevenshteinDistance()::distance);
+        assertTrue(tree.search("word", 3).isEmpty());
+    }
+
+    @Test
+    public void testSameResultAsLinearScan() {
+        Random random = new Random(3);
+        BKTree tree = new BKTree(new LevenshteinDistance()::distance);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String word = randomWord(random);
+            if (tree.add(word)) {
+                words.add(word);
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            String query = randomWord(random);
+            for (int max = 0; max < 4; max++) {
+                List<String> expected = new ArrayList<>();
+                for (String word : words) {
+                    if (LevenshteinDistance.getDistance(word, query) <= max) {
+                        expected.add(word);
+                    }
+                }
+                assertEquals(expected, tree.search(query, max));
+            }
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = 2 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('ア' + random.nextInt(5)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompactWordSetTest {
+    @Test
+    public void testContains() {
+        Set<String> words = CompactWordSet.build(
+                Arrays.asList("apple", "application", "apply", "banana", "日本語", ""), false);
+        assertEquals(6, words.size());
+        assertTrue(words.contains("apple"));
+        assertTrue(words.contains("apply"));
+        assertTrue(words.contains("日本語"));
+        assertTrue(words.contains(""));
+        assertFalse(words.contains("app"));
+        assertFalse(words.contains("applications"));
+        assertFalse(words.contains("日本"));
+        assertFalse(words.contains(null));
+    }
+
+    @Test
+    public void testLowerCase() {
+        CompactWordSet words = CompactWordSet.build(Arrays.asList("Apple", "apple", "BANANA"), true);
+        assertTrue(words.isLowerCase());
+        assertEquals(2, words.size());
+        assertTrue(words.contains("banana"));
+        assertFalse(words.contains("BANANA"));
+    }
+
+    @Test
+    public void testEmpty() {
+        Set<String> words = CompactWordSet.build(Collections.<String>emptyList(), false);
+        assertEquals(0, words.size());
+        assertFalse(words.contains("apple"));
+        assertFalse(words.iterator().hasNext());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        CompactWordSet.build(Collections.singletonList("apple"), false).add("banana");
+    }
+
+    @Test
+    public void testSameAsHashSet() throws IOException {
+        Random random = new Random(5);
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 3000; i++) {
+            expected.add(randomWord(random));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompactWordSet.write(expected, false, out);
+        Set<String> words = CompactWordSet.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(expected, words);
+        assertEquals(words, expected);
+        for (int i = 0; i < 3000; i++) {
+            String word = randomWord(random);
+            assertEquals(word, expected.contains(word), words.contains(word));
+        }
+        for (String word : expected) {
+            String prefix = word.substring(0, word.length() - 1);
+            assertEquals(prefix, expected.contains(prefix), words.contains(prefix));
+            for (char c : new char[]{'\0', 'a', 'c', 'z', 'あ'}) {
+                String extended = word + c;
+                assertEquals(extended, expected.contains(extended), words.contains(extended));
+            }
+        }
+
+        List<String> iterated = new ArrayList<>(words);
+        for (int i = 1; i < iterated.size(); i++) {
+            assertTrue(iterated.get(i - 1).compareTo(iterated.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void testMap() throws IOException {
+        Path file = Files.createTempFile("redpen", CompactWordSet.EXTENSION);
+        try {
+            Files.write(file, toBytes(Arrays.asList("foo", "bar", "baz")));
+            Set<String> words = CompactWordSet.map(file);
+            assertEquals(new HashSet<>(Arrays.asList("foo", "bar", "baz")), words);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadBrokenData() throws IOException {
+        CompactWordSet.read(new ByteArrayInputStream("foo\nbar\n".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testLoadResourceIsSameAsWordList() throws IOException {
+        String resource = "default-resources/spellchecker/spellchecker-en.dat";
+        WordListExtractor extractor = new WordListExtractor();
+        extractor.setToLowerCase();
+        new ResourceLoader(extractor).loadInternalResource(resource);
+        assertEquals(extractor.get(), CompactWordSet.loadResource(resource, true));
+    }
+
+    @Test
+    public void testCompiledResourcePath() {
+        assertEquals("default-resources/katakana/katakana-spellcheck.dict",
+                CompactWordSet.compiledResourcePath("default-resources/katakana/katakana-spellcheck.dat"));
+        assertEquals("dir.d/words.dict", CompactWordSet.compiledResourcePath("dir.d/words"));
+    }
+
+    @Test
+    public void testDictionaryCompiler() throws IOException {
+        Path source = Files.createTempDirectory("redpen-source");
+        Path output = Files.createTempDirectory("redpen-output");
+        Files.createDirectories(source.resolve("lower"));
+        Files.write(source.resolve("words.dat"), "Foo\nbar\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("lower/words.dat"), "Foo\nbar\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2, DictionaryCompiler.compile(source, output, Collections.singletonList("lower")));
+        assertEquals(new HashSet<>(Arrays.asList("Foo", "bar")),
+                CompactWordSet.map(output.resolve("words.dict")));
+        assertEquals(new HashSet<>(Arrays.asList("foo", "bar")),
+                CompactWordSet.map(output.resolve("lower/words.dict")));
+    }
+
+    private static byte[] toBytes(List<String> words) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompactWordSet.write(words, false, out);
+        return out.toByteArray();
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = 1 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            builder.append(random.nextInt(10) == 0 ? 'あ' : (char) ('a' + random.nextInt(6)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DictionaryRegistryTest {
+    private static final String RESOURCE = "default-resources/invalid-word/invalid-word-en.dat";
+
+    @Test
+    public void testSharedAndReleased() throws IOException {
+        DictionaryRegistry registry = new DictionaryRegistry(1000);
+        DictionaryRegistry.Dictionary first = registry.acquireResource(RESOURCE, false);
+        DictionaryRegistry.Dictionary second = registry.acquireResource(RESOURCE, false);
+        assertEquals(1, registry.size());
+        assertEquals(first, second);
+        assertTrue(first.size() > 0);
+
+        DictionaryRegistry.Dictionary lowerCase = registry.acquireResource(RESOURCE, true);
+        assertEquals(2, registry.size());
+
+        first.close();
+        first.close();
+        assertEquals(2, registry.size());
+        second.close();
+        lowerCase.close();
+        assertEquals(0, registry.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingResource() throws IOException {
+        new DictionaryRegistry(1000).acquireResource("no-such-resource.dat", false);
+    }
+
+    @Test
+    public void testMissingResourceIsNotRegistered() throws IOException {
+        DictionaryRegistry registry = new DictionaryRegistry(1000);
+        try {
+            registry.acquireResource("no-such-resource.dat", false);
+            fail("IOException is expected");
+        } catch (IOException expected) {
+            // the failed load is retried on next acquisition
+        }
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testReloadModifiedFile() throws IOException {
+        File file = File.createTempFile("redpen-dictionary", ".dat");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "foo\nBar\n".getBytes(StandardCharsets.UTF_8));
+
+        DictionaryRegistry registry = new DictionaryRegistry(0);
+        try (DictionaryRegistry.Dictionary words = registry.acquireFile(file.getPath(), true)) {
+            assertEquals(new HashSet<>(Arrays.asList("foo", "bar")), words);
+            long version = words.getVersion();
+
+            Files.write(file.toPath(), "baz\n".getBytes(StandardCharsets.UTF_8));
+            assertTrue(file.setLastModified(file.lastModified() + 2000));
+            assertTrue(words.contains("baz"));
+            assertFalse(words.contains("foo"));
+            assertTrue(words.getVersion() > version);
+        }
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testLayeredWordSet() throws IOException {
+        DictionaryRegistry registry = new DictionaryRegistry(1000);
+        try (DictionaryRegistry.Dictionary words = registry.acquireResource(RESOURCE, false)) {
+            String word = words.iterator().next();
+            LayeredWordSet layered = new LayeredWordSet(Arrays.asList(words, new HashSet<>(Arrays.asList(word))));
+            assertEquals(words.size(), layered.size());
+            assertFalse(layered.add(word));
+            assertTrue(layered.add("no-such-word"));
+            assertTrue(layered.contains("no-such-word"));
+            assertEquals(words.size() + 1, layered.size());
+        }
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class EndOfSentenceDetectorTest {
@@ -220,4 +221,50 @@ public class EndOfSentenceDetectorTest {
         EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern, whiteList);
         assertEquals(-1, detector.getSentenceEndPosition(str));
     }
+
+    @Test
+    public void testEndPositions() {
+        Pattern pattern = Pattern.compile("\\.");
+        String str = "He is Mr. United States. At 10 a.m. we had a lunch. It was good.";
+        List<String> whiteList = generateUmList("Mr.", "a.m.");
+        EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern, whiteList);
+        assertArrayEquals(new int[]{23, 50, 63}, detector.getSentenceEndPositions(str));
+    }
+
+    @Test
+    public void testEndPositionsWithoutEndPeriod() {
+        Pattern pattern = Pattern.compile("\\.");
+        EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern, generateUmList("Mr."));
+        assertArrayEquals(new int[0], detector.getSentenceEndPositions("He is Mr. United States"));
+        assertArrayEquals(new int[0], detector.getSentenceEndPositions(""));
+    }
+
+    @Test
+    public void testEndPositionsInJapaneseSentences() {
+        Pattern pattern = Pattern.compile("。|？");
+        String str = "これは猫です。それは犬ですか？違います。";
+        EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern);
+        assertArrayEquals(new int[]{6, 14, 19}, detector.getSentenceEndPositions(str));
+    }
+
+    @Test
+    public void testEndPositionsAreSameAsRepeatedEndPosition() {
+        Pattern pattern = Pattern.compile("\\.|\\?|!");
+        List<String> whiteList = generateUmList("Mr.", "a.m.", "U.S.A.", "Co., Ltd.");
+        EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern, whiteList);
+        String str = "Mr. Smith works for Foo Co., Ltd. in U.S.A. Really?! Yes... he starts at 9 a.m. every day.";
+
+        List<Integer> expected = new ArrayList<>();
+        int offset = 0;
+        int position;
+        while ((position = detector.getSentenceEndPosition(str.substring(offset))) != -1) {
+            expected.add(offset + position);
+            offset += position + 1;
+        }
+        int[] actual = detector.getSentenceEndPositions(str);
+        assertEquals(expected.size(), actual.length);
+        for (int i = 0; i < actual.length; i++) {
+            assertEquals((int) expected.get(i), actual[i]);
+        }
+    }
 }
@@ -19,7 +19,11 @@ package cc.redpen.util;
 
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class LevenshteinDistanceTest {
 
@@ -169,6 +173,63 @@ public class LevenshteinDistanceTest {
         resetCost();
     }
 
+    @Test
+    public void testInstanceDistance() {
+        LevenshteinDistance distance = new LevenshteinDistance(1, 1, 2);
+        assertEquals(5, distance.distance("kitten", "sitting"));
+        assertEquals(3, new LevenshteinDistance().distance("kitten", "sitting"));
+        assertEquals(3, new LevenshteinDistance(1, 100, 100).distance("", "abc"));
+        assertEquals(6, new LevenshteinDistance(100, 2, 100).distance("abc", null));
+    }
+
+    @Test
+    public void testInstanceIsNotAffectedByGlobalCosts() {
+        LevenshteinDistance distance = new LevenshteinDistance();
+        LevenshteinDistance.setSubstitutionCost(ALTERNATE_COST);
+        assertEquals(3, distance.distance("kitten", "sitting"));
+        resetCost();
+    }
+
+    @Test
+    public void testIsWithin() {
+        LevenshteinDistance distance = new LevenshteinDistance();
+        assertTrue(distance.isWithin("kitten", "sitting", 3));
+        assertFalse(distance.isWithin("kitten", "sitting", 2));
+        assertFalse(distance.isWithin("a", "abcdef", 4));
+        assertTrue(distance.isWithin("", "", 0));
+        assertFalse(distance.isWithin("a", "a", -1));
+    }
+
+    @Test
+    public void testIsWithinAgreesWithDistance() {
+        Random random = new Random(7);
+        LevenshteinDistance[] distances = {
+                new LevenshteinDistance(),
+                new LevenshteinDistance(1, 2, 3),
+                new LevenshteinDistance(3, 1, 1),
+                new LevenshteinDistance(0, 1, 1)
+        };
+        for (int i = 0; i < 2000; i++) {
+            String a = randomString(random);
+            String b = randomString(random);
+            for (LevenshteinDistance distance : distances) {
+                int expected = distance.distance(a, b);
+                for (int max = 0; max < 8; max++) {
+                    assertEquals(a + " " + b + " " + max, expected <= max, distance.isWithin(a, b, max));
+                }
+            }
+        }
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(3)));
+        }
+        return builder.toString();
+    }
+
     public void resetCost() {
         LevenshteinDistance.setInsertionCost(1);
         LevenshteinDistance.setDeletionCost(1);
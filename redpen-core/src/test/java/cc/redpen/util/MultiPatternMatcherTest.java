@@ -0,0 +1,100 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MultiPatternMatcherTest {
+    @Test
+    public void testFindAllWithOverlappingPatterns() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(
+                Arrays.asList("he", "she", "his", "hers"));
+        List<MultiPatternMatcher.Match> matches = matcher.findAll("ushers");
+        assertEquals(3, matches.size());
+        assertEquals(new MultiPatternMatcher.Match("she", 1), matches.get(0));
+        assertEquals(new MultiPatternMatcher.Match("he", 2), matches.get(1));
+        assertEquals(new MultiPatternMatcher.Match("hers", 2), matches.get(2));
+        assertEquals(6, matches.get(2).getEnd());
+    }
+
+    @Test
+    public void testFindDistinctInOrderOfOccurrence() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(
+                Arrays.asList("cake", "piece", "a"));
+        assertEquals(Arrays.asList("a", "piece", "cake"),
+                new ArrayList<>(matcher.findDistinct("it is a piece of a cake.")));
+    }
+
+    @Test
+    public void testJapanesePatterns() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(
+                Arrays.asList("なんじゃそりゃ", "そりゃ"));
+        List<MultiPatternMatcher.Match> matches = matcher.findAll("これはなんじゃそりゃですね");
+        assertEquals(2, matches.size());
+        assertEquals(new MultiPatternMatcher.Match("なんじゃそりゃ", 3), matches.get(0));
+        assertEquals(new MultiPatternMatcher.Match("そりゃ", 7), matches.get(1));
+    }
+
+    @Test
+    public void testContainsAny() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(Arrays.asList("abc", "bcd"));
+        assertTrue(matcher.containsAny("xxbcdxx"));
+        assertFalse(matcher.containsAny("xxabxcd"));
+    }
+
+    @Test
+    public void testEmptyPatterns() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(Arrays.asList("", "foo", "foo"));
+        assertEquals(1, matcher.size());
+        assertTrue(new MultiPatternMatcher(Collections.emptyList()).findAll("foo").isEmpty());
+    }
+
+    @Test
+    public void testSameResultAsContains() {
+        Random random = new Random(1);
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            patterns.add(randomString(random, 1 + random.nextInt(4)));
+        }
+        MultiPatternMatcher matcher = new MultiPatternMatcher(patterns);
+        for (int i = 0; i < 100; i++) {
+            String text = randomString(random, 30);
+            for (String pattern : patterns) {
+                assertEquals(text.contains(pattern), matcher.findDistinct(text).contains(pattern));
+            }
+        }
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (C) 2014 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.validator.section;
+
+import cc.redpen.model.Section;
+import cc.redpen.validator.ValidationError;
+import cc.redpen.validator.Validator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Section validator which is not thread safe, recording the threads it runs on.
+ * Used to test that RedPen runs such validators on the calling thread.
+ */
+public class ThreadConfinedSectionValidator extends Validator<Section> {
+    public static final Set<Thread> THREADS = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public List<ValidationError> validate(Section section) {
+        THREADS.add(Thread.currentThread());
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return false;
+    }
+}
@@ -102,4 +102,28 @@ public class DoubledWordValidatorTest {
         List<ValidationError> errors = validator.check(documents);
         assertEquals(1, errors.size());
     }
+
+    @Test
+    public void testErrorOffsets() throws RedPenException {
+        Configuration config = new Configuration.Builder()
+                .addValidatorConfig(new ValidatorConfiguration("DoubledWord"))
+                .setSymbolTable("en").build();
+
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .addDocument("")
+                .addSection(1)
+                .addParagraph()
+                .addSentence("the good item is a good example.", 1)
+                .build();
+
+        RedPen validator = new RedPen.Builder()
+                .setConfiguration(config)
+                .setResultDistributor(new FakeResultDistributor())
+                .build();
+
+        List<ValidationError> errors = validator.check(documents);
+        assertEquals(1, errors.size());
+        assertEquals(19, (int) errors.get(0).getStartOffset().get());
+        assertEquals(23, (int) errors.get(0).getEndOffset().get());
+    }
 }
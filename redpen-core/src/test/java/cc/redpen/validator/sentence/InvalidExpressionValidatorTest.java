@@ -96,4 +96,15 @@ public class InvalidExpressionValidatorTest {
         List<ValidationError> errors = validator.check(documents);
         assertEquals(1, errors.size());
     }
+
+    @Test
+    public void testErrorOffsets() {
+        InvalidExpressionValidator validator = new InvalidExpressionValidator();
+        validator.addInvalid("may");
+        List<ValidationError> errors = validator.validate(
+                new Sentence("The experiments may be true, or may not.", 0));
+        assertEquals(1, errors.size());
+        assertEquals(16, (int) errors.get(0).getStartOffset().get());
+        assertEquals(19, (int) errors.get(0).getEndOffset().get());
+    }
 }
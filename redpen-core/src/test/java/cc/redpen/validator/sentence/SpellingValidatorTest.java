@@ -155,4 +155,26 @@ public class SpellingValidatorTest {
         List<ValidationError> errors = validator.check(documents);
         assertEquals(0, errors.size());
     }
+
+    @Test
+    public void testErrorOffsets() throws Exception {
+        DocumentCollection documents = new DocumentCollection.Builder()
+                .addDocument("")
+                .addSection(1)
+                .addParagraph()
+                .addSentence("this iz a pen iz", 1)
+                .build();
+
+        SpellingValidator validator = new SpellingValidator();
+        validator.addWord("this");
+        validator.addWord("a");
+        validator.addWord("pen");
+        List<ValidationError> errors = validator.validate(
+                documents.getDocument(0).getLastSection().getParagraph(0).getSentence(0));
+        assertEquals(2, errors.size());
+        assertEquals(5, (int) errors.get(0).getStartOffset().get());
+        assertEquals(7, (int) errors.get(0).getEndOffset().get());
+        assertEquals(14, (int) errors.get(1).getStartOffset().get());
+        assertEquals(16, (int) errors.get(1).getEndOffset().get());
+    }
 }
@@ -22,8 +22,10 @@ import cc.redpen.RedPen;
 import cc.redpen.RedPenException;
 import cc.redpen.model.Document;
 import cc.redpen.model.DocumentCollection;
+import cc.redpen.model.Sentence;
 import cc.redpen.parser.DocumentParser;
 import cc.redpen.parser.DocumentParserFactory;
+import cc.redpen.tokenizer.TokenizerRegistry;
 import cc.redpen.validator.ValidationError;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -55,41 +57,52 @@ public class DocumentValidateResource {
     @Context
     private ServletContext context;
 
-    private Map<String, RedPen> langRedPenMap = new HashMap<>();
+    // shared by the resource instances, and closed when the server shuts down
+    private static final Map<String, RedPen> langRedPenMap = new HashMap<>();
 
     private RedPen getRedPen(String lang) {
-        if (langRedPenMap.size() == 0) {
-            synchronized (this) {
-                if (langRedPenMap.size() == 0) {
-                    LOG.info("Starting Document Validator Server.");
-                    try {
-                        RedPen japaneseRedPen = new RedPen.Builder().setConfigPath("/conf/redpen-conf-ja.xml").build();
-                        langRedPenMap.put("ja", japaneseRedPen);
-                        RedPen englishRedPen = new RedPen.Builder().setConfigPath(DEFAULT_INTERNAL_CONFIG_PATH).build();
-                        langRedPenMap.put("en", englishRedPen);
-                        langRedPenMap.put("", englishRedPen);
-
-                        String configPath;
-                        if (context != null) {
-                            configPath = context.getInitParameter("redpen.conf.path");
-                            if (configPath != null) {
-                                LOG.info("Config Path is set to \"{}\"", configPath);
-                                RedPen defaultRedPen = new RedPen.Builder().setConfigPath(configPath).build();
-                                langRedPenMap.put("", defaultRedPen);
-                            } else {
-                                // if config path is not set, fallback to default config path
-                                LOG.info("Config Path is set to \"{}\"", DEFAULT_INTERNAL_CONFIG_PATH);
-                            }
+        synchronized (DocumentValidateResource.class) {
+            if (langRedPenMap.size() == 0) {
+                LOG.info("Starting Document Validator Server.");
+                try {
+                    RedPen japaneseRedPen = new RedPen.Builder().setConfigPath("/conf/redpen-conf-ja.xml").build();
+                    langRedPenMap.put("ja", japaneseRedPen);
+                    RedPen englishRedPen = new RedPen.Builder().setConfigPath(DEFAULT_INTERNAL_CONFIG_PATH).build();
+                    langRedPenMap.put("en", englishRedPen);
+                    langRedPenMap.put("", englishRedPen);
+
+                    String configPath;
+                    if (context != null) {
+                        configPath = context.getInitParameter("redpen.conf.path");
+                        if (configPath != null) {
+                            LOG.info("Config Path is set to \"{}\"", configPath);
+                            RedPen defaultRedPen = new RedPen.Builder().setConfigPath(configPath).build();
+                            langRedPenMap.put("", defaultRedPen);
+                        } else {
+                            // if config path is not set, fallback to default config path
+                            LOG.info("Config Path is set to \"{}\"", DEFAULT_INTERNAL_CONFIG_PATH);
                         }
-                        LOG.info("Document Validator Server is running.");
-                    } catch (RedPenException e) {
-                        LOG.error("Unable to initialize RedPen", e);
-                        throw new ExceptionInInitializerError(e);
                     }
+                    LOG.info("Document Validator Server is running.");
+                } catch (RedPenException e) {
+                    LOG.error("Unable to initialize RedPen", e);
+                    closeRedPens();
+                    throw new ExceptionInInitializerError(e);
                 }
             }
+            return langRedPenMap.getOrDefault(lang, langRedPenMap.get(""));
+        }
+    }
+
+    /**
+     * Close the RedPen instances to release the dictionaries held by their validators.
+     */
+    static void closeRedPens() {
+        synchronized (DocumentValidateResource.class) {
+            // an instance may be mapped to more than one language; closing is idempotent
+            langRedPenMap.values().forEach(RedPen::close);
+            langRedPenMap.clear();
         }
-        return langRedPenMap.getOrDefault(lang, langRedPenMap.get(""));
     }
 
     @Path("/validate")
@@ -107,7 +120,8 @@ public class DocumentValidateResource {
         json.put("document", document);
 
         DocumentParser parser = DocumentParserFactory.generate(
-                DocumentParser.Type.PLAIN, server.getConfiguration(), new DocumentCollection.Builder());
+                DocumentParser.Type.PLAIN, server.getConfiguration(), new DocumentCollection.Builder(
+                        TokenizerRegistry.getInstance().getTokenizer(server.getConfiguration().getSymbolTable())));
         Document fileContent = parser.generateDocument(new
                 ByteArrayInputStream(document.getBytes("UTF-8")));
 
@@ -121,7 +135,16 @@ public class DocumentValidateResource {
         for (ValidationError error : errors) {
             JSONObject jsonError = new JSONObject();
             if (error.getSentence().isPresent()) {
-                jsonError.put("sentence", error.getSentence().get().content);
+                Sentence sentence = error.getSentence().get();
+                jsonError.put("sentence", sentence.content);
+                if (sentence.startOffset >= 0) {
+                    jsonError.put("sentenceStartOffset", sentence.startOffset);
+                    jsonError.put("sentenceEndOffset", sentence.endOffset);
+                }
+            }
+            if (error.getStartOffset().isPresent()) {
+                jsonError.put("startOffset", error.getStartOffset().get().intValue());
+                jsonError.put("endOffset", error.getEndOffset().get().intValue());
             }
             jsonError.put("message", error.getMessage());
             jsonErrors.put(jsonError);